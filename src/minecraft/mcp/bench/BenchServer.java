@@ -0,0 +1,104 @@
+package mcp.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.Proxy;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerList;
+import net.minecraft.util.datafix.DataFixesManager;
+import net.minecraft.world.EnumDifficulty;
+import net.minecraft.world.GameType;
+import net.minecraft.world.WorldType;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * A server without players, network or server thread, for the benchmarks to set up a freshly generated world in and
+ * tick by hand.
+ */
+public class BenchServer extends MinecraftServer
+{
+    private BenchServer(File anvilFileIn)
+    {
+        super(anvilFileIn, Proxy.NO_PROXY, DataFixesManager.createFixer(), null, null, null, null);
+    }
+
+    /**
+     * Generates the worlds of a new save with the given name under the bench directory, replacing any left there by an
+     * earlier run.
+     */
+    public static BenchServer create(String name, long seed, WorldType type) throws IOException
+    {
+        Bootstrap.register();
+        File file1 = new File("bench");
+        FileUtils.deleteDirectory(new File(file1, name));
+        file1.mkdirs();
+        BenchServer benchserver = new BenchServer(file1);
+        benchserver.setPlayerList(new PlayerList(benchserver)
+        {
+        });
+        benchserver.setFolderName(name);
+        benchserver.loadAllWorlds(name, name, seed, type, "");
+        return benchserver;
+    }
+
+    public boolean init()
+    {
+        return true;
+    }
+
+    public boolean canStructuresSpawn()
+    {
+        return true;
+    }
+
+    public GameType getGameType()
+    {
+        return GameType.SURVIVAL;
+    }
+
+    public EnumDifficulty getDifficulty()
+    {
+        return EnumDifficulty.NORMAL;
+    }
+
+    public boolean isHardcore()
+    {
+        return false;
+    }
+
+    public int getOpPermissionLevel()
+    {
+        return 4;
+    }
+
+    public boolean shouldBroadcastRconToOps()
+    {
+        return false;
+    }
+
+    public boolean shouldBroadcastConsoleToOps()
+    {
+        return false;
+    }
+
+    public boolean isDedicatedServer()
+    {
+        return true;
+    }
+
+    public boolean shouldUseNativeTransport()
+    {
+        return false;
+    }
+
+    public boolean isCommandBlockEnabled()
+    {
+        return true;
+    }
+
+    public String shareToLAN(GameType type, boolean allowCheats)
+    {
+        return "";
+    }
+}
@@ -0,0 +1,77 @@
+package mcp.bench;
+
+import java.io.PrintStream;
+import net.minecraft.block.BlockRedstoneWire;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.NeighborUpdateQueue;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.WorldType;
+
+/**
+ * Counts the neighbour updates a powered redstone wire grid makes with queuedNeighborUpdates off and on: a grid of the
+ * given size, 16 by default, is powered and unpowered 10 times from one corner and then powered again. The final wire
+ * powers are hashed so both modes can be seen to end the same.
+ */
+public class NeighborUpdateBench
+{
+    public static void main(String[] args) throws Exception
+    {
+        PrintStream printstream = System.out;
+        int i = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        printstream.println(run(false, i));
+        printstream.println(run(true, i));
+        System.exit(0);
+    }
+
+    /**
+     * Runs the grid in a new world and returns what it counted. Standard output is sent to the log once the server is
+     * set up, so the result is printed by the caller.
+     */
+    private static String run(boolean queued, int size) throws Exception
+    {
+        BenchServer benchserver = BenchServer.create("neighbors-" + queued, 3L, WorldType.FLAT);
+        WorldServer worldserver = benchserver.getWorld(0);
+        worldserver.disableLevelSaving = true;
+        worldserver.getGameRules().setOrCreateGameRule("doMobSpawning", "false");
+        worldserver.getGameRules().setOrCreateGameRule("queuedNeighborUpdates", Boolean.toString(queued));
+        worldserver.tick();
+        worldserver.setCountingNeighborUpdates(true);
+        BlockPos blockpos = worldserver.getSpawnPoint().up(100);
+
+        for (int j = 0; j < size; ++j)
+        {
+            for (int k = 0; k < size; ++k)
+            {
+                worldserver.setBlockState(blockpos.add(j, -1, k), Blocks.STONE.getDefaultState(), 2);
+                worldserver.setBlockState(blockpos.add(j, 0, k), Blocks.REDSTONE_WIRE.getDefaultState(), 2);
+            }
+        }
+
+        NeighborUpdateQueue neighborupdatequeue = worldserver.getNeighborUpdateQueue();
+        long l = neighborupdatequeue.getUpdateCount();
+        long i1 = neighborupdatequeue.getDuplicateCount();
+        long j1 = System.nanoTime();
+        BlockPos blockpos1 = blockpos.west();
+
+        for (int k1 = 0; k1 < 10; ++k1)
+        {
+            worldserver.setBlockState(blockpos1, Blocks.REDSTONE_BLOCK.getDefaultState(), 3);
+            worldserver.setBlockState(blockpos1, Blocks.AIR.getDefaultState(), 3);
+        }
+
+        worldserver.setBlockState(blockpos1, Blocks.REDSTONE_BLOCK.getDefaultState(), 3);
+        long l1 = System.nanoTime() - j1;
+        int i2 = 0;
+
+        for (int j2 = 0; j2 < size; ++j2)
+        {
+            for (int k2 = 0; k2 < size; ++k2)
+            {
+                i2 = 31 * i2 + ((Integer)worldserver.getBlockState(blockpos.add(j2, 0, k2)).getValue(BlockRedstoneWire.POWER)).intValue();
+            }
+        }
+
+        return String.format("queuedNeighborUpdates=%s size=%d time=%dms updates=%d dropped=%d powerHash=%08x", queued, size, l1 / 1000000L, neighborupdatequeue.getUpdateCount() - l, neighborupdatequeue.getDuplicateCount() - i1, i2);
+    }
+}
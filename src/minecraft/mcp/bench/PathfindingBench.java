@@ -0,0 +1,153 @@
+package mcp.bench;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import net.minecraft.block.BlockDoor;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.SharedMonsterAttributes;
+import net.minecraft.entity.monster.EntityZombie;
+import net.minecraft.entity.passive.EntityVillager;
+import net.minecraft.init.Blocks;
+import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.WorldType;
+
+/**
+ * Times path searches in three scenes of a flat world: open ground, a maze of 900 pillars two blocks high, and six
+ * walls with an oak door every 8 blocks. A zombie makes the searches on open ground and in the maze, a villager through
+ * the doors. Each scene runs the same 400 searches between random points 16 times, and the last 10 rounds are timed
+ * along with the bytes the thread allocated. The points of the paths found in the first round are hashed and checked
+ * against the hashes the pathfinder gave before it pooled its points, as the paths are meant to stay the same.
+ */
+public class PathfindingBench
+{
+    private static final String[] SCENES = new String[] {"open", "maze", "doors"};
+
+    /** The path hashes of each scene from the pathfinder as it was before PathPointTable. */
+    private static final long[] BASELINE_HASHES = new long[] {0x855e743ff6424cc1L, 0x58cf896d74de249dL, 0xc36f0e09e6642a05L};
+    private static final int SEARCHES = 400;
+    private static final int ROUNDS = 16;
+    private static final int WARMUP_ROUNDS = 6;
+
+    public static void main(String[] args) throws Exception
+    {
+        PrintStream printstream = System.out;
+        BenchServer benchserver = BenchServer.create("pathfinding", 3L, WorldType.FLAT);
+        WorldServer worldserver = benchserver.getWorld(0);
+        worldserver.disableLevelSaving = true;
+        worldserver.getGameRules().setOrCreateGameRule("doMobSpawning", "false");
+        worldserver.tick();
+        BlockPos blockpos = worldserver.getSpawnPoint();
+        BlockPos blockpos1 = worldserver.getHeight(blockpos);
+        buildScenes(worldserver, blockpos1);
+
+        for (int i = 0; i < SCENES.length; ++i)
+        {
+            printstream.println(run(worldserver, blockpos1, i));
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Builds the maze west of the origin and the walls north of it. The open ground is left east of it.
+     */
+    private static void buildScenes(WorldServer worldIn, BlockPos origin)
+    {
+        Random random = new Random(5L);
+
+        for (int i = 0; i < 900; ++i)
+        {
+            BlockPos blockpos = origin.add(-160 + random.nextInt(60), 0, -30 + random.nextInt(60));
+            worldIn.setBlockState(blockpos, Blocks.STONE.getDefaultState(), 2);
+            worldIn.setBlockState(blockpos.up(), Blocks.STONE.getDefaultState(), 2);
+        }
+
+        for (int j = 0; j < 6; ++j)
+        {
+            for (int k = -30; k <= 30; ++k)
+            {
+                BlockPos blockpos1 = origin.add(k, 0, -100 - j * 10);
+
+                if (k % 8 == 0)
+                {
+                    worldIn.setBlockState(blockpos1, Blocks.OAK_DOOR.getDefaultState().withProperty(BlockDoor.HALF, BlockDoor.EnumDoorHalf.LOWER).withProperty(BlockDoor.FACING, EnumFacing.NORTH), 2);
+                    worldIn.setBlockState(blockpos1.up(), Blocks.OAK_DOOR.getDefaultState().withProperty(BlockDoor.HALF, BlockDoor.EnumDoorHalf.UPPER), 2);
+                }
+                else
+                {
+                    worldIn.setBlockState(blockpos1, Blocks.STONE.getDefaultState(), 2);
+                    worldIn.setBlockState(blockpos1.up(), Blocks.STONE.getDefaultState(), 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the searches of a scene and returns what it measured. Standard output is sent to the log once the server is
+     * set up, so the result is printed by the caller.
+     */
+    private static String run(WorldServer worldIn, BlockPos origin, int scene)
+    {
+        EntityLiving entityliving = (EntityLiving)(scene == 2 ? new EntityVillager(worldIn) : new EntityZombie(worldIn));
+        entityliving.getEntityAttribute(SharedMonsterAttributes.FOLLOW_RANGE).setBaseValue(48.0D);
+        int i = scene == 0 ? origin.getX() + 100 : (scene == 1 ? origin.getX() - 160 : origin.getX() - 30);
+        int j = scene == 2 ? origin.getZ() - 160 : origin.getZ() - 30;
+        double d0 = (double)origin.getY();
+        Random random = new Random(11L);
+        double[] adouble = new double[SEARCHES * 4];
+
+        for (int k = 0; k < adouble.length; ++k)
+        {
+            adouble[k] = (double)((k & 1) == 0 ? i : j) + (double)random.nextInt(60) + 0.5D;
+        }
+
+        com.sun.management.ThreadMXBean threadmxbean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long l = Thread.currentThread().getId();
+        int i1 = 0;
+        long j1 = 0L;
+        long k1 = 0L;
+        long l1 = 0L;
+        long i2 = 0L;
+
+        for (int j2 = 0; j2 < ROUNDS; ++j2)
+        {
+            long k2 = threadmxbean.getThreadAllocatedBytes(l);
+            long l2 = System.nanoTime();
+
+            for (int i3 = 0; i3 < SEARCHES; ++i3)
+            {
+                entityliving.setPosition(adouble[i3 * 4], d0, adouble[i3 * 4 + 1]);
+                entityliving.onGround = true;
+                Path path = entityliving.getNavigator().getPathToXYZ(adouble[i3 * 4 + 2], d0, adouble[i3 * 4 + 3]);
+
+                if (j2 == 0 && path != null)
+                {
+                    ++i1;
+                    j1 += (long)path.getCurrentPathLength();
+
+                    for (int j3 = 0; j3 < path.getCurrentPathLength(); ++j3)
+                    {
+                        PathPoint pathpoint = path.getPathPointFromIndex(j3);
+                        k1 = 31L * k1 + (long)(pathpoint.x * 961 + pathpoint.y * 31 + pathpoint.z + pathpoint.nodeType.ordinal());
+                    }
+                }
+
+                entityliving.getNavigator().clearPath();
+            }
+
+            if (j2 >= WARMUP_ROUNDS)
+            {
+                l1 += System.nanoTime() - l2;
+                i2 += threadmxbean.getThreadAllocatedBytes(l) - k2;
+            }
+        }
+
+        long k3 = (long)((ROUNDS - WARMUP_ROUNDS) * SEARCHES);
+        return String.format("%s: found=%d points=%d hash=%016x matchesBaseline=%s time/search=%.1fus alloc/search=%dB", SCENES[scene], i1, j1, k1, k1 == BASELINE_HASHES[scene], (double)l1 / (double)k3 / 1000.0D, i2 / k3);
+    }
+}
@@ -0,0 +1,131 @@
+package mcp.bench;
+
+import java.io.PrintStream;
+import net.minecraft.block.BlockRedstoneWire;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.NeighborUpdateQueue;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.WorldType;
+
+/**
+ * Compares redstone wire with fastRedstoneWire off and on: a 256 wire line with two lamps beside it is powered and
+ * unpowered 5 times from one end, and a 24 by 24 wire grid is powered and unpowered 5 times from one corner, powered
+ * again, and then has a wire broken inside it. The neighbour updates made and the time taken are printed with hashes of
+ * the wire powers, which are the same in both modes when the fast solver matches vanilla.
+ */
+public class RedstoneWireBench
+{
+    public static void main(String[] args) throws Exception
+    {
+        PrintStream printstream = System.out;
+        printstream.println(run(false));
+        printstream.println(run(true));
+        System.exit(0);
+    }
+
+    /**
+     * Runs the line and grid in a new world and returns what it measured. Standard output is sent to the log once the
+     * server is set up, so the result is printed by the caller.
+     */
+    private static String run(boolean fast) throws Exception
+    {
+        BenchServer benchserver = BenchServer.create("wire-" + fast, 3L, WorldType.FLAT);
+        WorldServer worldserver = benchserver.getWorld(0);
+        worldserver.disableLevelSaving = true;
+        worldserver.getGameRules().setOrCreateGameRule("doMobSpawning", "false");
+        worldserver.getGameRules().setOrCreateGameRule("fastRedstoneWire", Boolean.toString(fast));
+        worldserver.tick();
+        worldserver.setCountingNeighborUpdates(true);
+        NeighborUpdateQueue neighborupdatequeue = worldserver.getNeighborUpdateQueue();
+        BlockPos blockpos = worldserver.getSpawnPoint().up(100);
+
+        for (int i = 0; i < 256; ++i)
+        {
+            worldserver.setBlockState(blockpos.add(i, -1, 0), Blocks.STONE.getDefaultState(), 2);
+        }
+
+        for (int j = 0; j < 256; ++j)
+        {
+            worldserver.setBlockState(blockpos.add(j, 0, 0), Blocks.REDSTONE_WIRE.getDefaultState(), 3);
+        }
+
+        worldserver.setBlockState(blockpos.add(14, 0, 1), Blocks.REDSTONE_LAMP.getDefaultState(), 3);
+        worldserver.setBlockState(blockpos.add(15, 0, 1), Blocks.REDSTONE_LAMP.getDefaultState(), 3);
+        BlockPos blockpos1 = blockpos.west();
+        long k = neighborupdatequeue.getUpdateCount();
+        long l = System.nanoTime();
+        int i1 = 0;
+        int j1 = 0;
+        String s = null;
+
+        for (int k1 = 0; k1 < 5; ++k1)
+        {
+            worldserver.setBlockState(blockpos1, Blocks.REDSTONE_BLOCK.getDefaultState(), 3);
+
+            if (k1 == 0)
+            {
+                i1 = hashPowers(worldserver, blockpos, 20, 1);
+                s = (worldserver.getBlockState(blockpos.add(14, 0, 1)).getBlock() == Blocks.LIT_REDSTONE_LAMP) + "/" + (worldserver.getBlockState(blockpos.add(15, 0, 1)).getBlock() == Blocks.LIT_REDSTONE_LAMP);
+            }
+
+            worldserver.setBlockState(blockpos1, Blocks.AIR.getDefaultState(), 3);
+
+            if (k1 == 0)
+            {
+                j1 = hashPowers(worldserver, blockpos, 20, 1);
+            }
+        }
+
+        long l1 = System.nanoTime() - l;
+        long i2 = neighborupdatequeue.getUpdateCount() - k;
+        BlockPos blockpos2 = blockpos.south(10);
+
+        for (int j2 = 0; j2 < 24; ++j2)
+        {
+            for (int k2 = 0; k2 < 24; ++k2)
+            {
+                worldserver.setBlockState(blockpos2.add(j2, -1, k2), Blocks.STONE.getDefaultState(), 2);
+                worldserver.setBlockState(blockpos2.add(j2, 0, k2), Blocks.REDSTONE_WIRE.getDefaultState(), 2);
+            }
+        }
+
+        BlockPos blockpos3 = blockpos2.west();
+        k = neighborupdatequeue.getUpdateCount();
+        l = System.nanoTime();
+
+        for (int l2 = 0; l2 < 5; ++l2)
+        {
+            worldserver.setBlockState(blockpos3, Blocks.REDSTONE_BLOCK.getDefaultState(), 3);
+            worldserver.setBlockState(blockpos3, Blocks.AIR.getDefaultState(), 3);
+        }
+
+        worldserver.setBlockState(blockpos3, Blocks.REDSTONE_BLOCK.getDefaultState(), 3);
+        long i3 = System.nanoTime() - l;
+        long j3 = neighborupdatequeue.getUpdateCount() - k;
+        int k3 = hashPowers(worldserver, blockpos2, 24, 24);
+        worldserver.setBlockState(blockpos2.add(5, 0, 5), Blocks.AIR.getDefaultState(), 3);
+        int l3 = hashPowers(worldserver, blockpos2, 24, 24);
+        return String.format("fastRedstoneWire=%s line: time=%dms updates=%d on=%08x off=%08x litLamps=%s grid: time=%dms updates=%d on=%08x afterBreak=%08x", fast, l1 / 1000000L, i2, i1, j1, s, i3 / 1000000L, j3, k3, l3);
+    }
+
+    /**
+     * Hashes the powers of the wires in the given area, with 99 for blocks that are not wire.
+     */
+    private static int hashPowers(WorldServer worldIn, BlockPos origin, int sizeX, int sizeZ)
+    {
+        int i = 0;
+
+        for (int j = 0; j < sizeX; ++j)
+        {
+            for (int k = 0; k < sizeZ; ++k)
+            {
+                IBlockState iblockstate = worldIn.getBlockState(origin.add(j, 0, k));
+                i = 31 * i + (iblockstate.getBlock() == Blocks.REDSTONE_WIRE ? ((Integer)iblockstate.getValue(BlockRedstoneWire.POWER)).intValue() : 99);
+            }
+        }
+
+        return i;
+    }
+}
@@ -135,7 +135,10 @@ public class AdvancementRewards
                     return player.getServer();
                 }
             };
-            minecraftserver.getFunctionManager().execute(functionobject, icommandsender);
+            player.getServerWorld().runAtSafePoint(() ->
+            {
+                minecraftserver.getFunctionManager().execute(functionobject, icommandsender);
+            });
         }
     }
 
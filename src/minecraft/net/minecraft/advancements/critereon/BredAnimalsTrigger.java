@@ -18,7 +18,7 @@ import net.minecraft.util.ResourceLocation;
 public class BredAnimalsTrigger implements ICriterionTrigger<BredAnimalsTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("bred_animals");
-    private final Map<PlayerAdvancements, BredAnimalsTrigger.Listeners> listeners = Maps.<PlayerAdvancements, BredAnimalsTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, BredAnimalsTrigger.Listeners> listeners = Maps.<PlayerAdvancements, BredAnimalsTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -19,7 +19,7 @@ import net.minecraft.world.DimensionType;
 public class ChangeDimensionTrigger implements ICriterionTrigger<ChangeDimensionTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("changed_dimension");
-    private final Map<PlayerAdvancements, ChangeDimensionTrigger.Listeners> listeners = Maps.<PlayerAdvancements, ChangeDimensionTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, ChangeDimensionTrigger.Listeners> listeners = Maps.<PlayerAdvancements, ChangeDimensionTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -17,7 +17,7 @@ import net.minecraft.util.ResourceLocation;
 public class ConsumeItemTrigger implements ICriterionTrigger<ConsumeItemTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("consume_item");
-    private final Map<PlayerAdvancements, ConsumeItemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, ConsumeItemTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, ConsumeItemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, ConsumeItemTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
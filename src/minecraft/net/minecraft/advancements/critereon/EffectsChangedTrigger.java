@@ -16,7 +16,7 @@ import net.minecraft.util.ResourceLocation;
 public class EffectsChangedTrigger implements ICriterionTrigger<EffectsChangedTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("effects_changed");
-    private final Map<PlayerAdvancements, EffectsChangedTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EffectsChangedTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, EffectsChangedTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EffectsChangedTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -17,7 +17,7 @@ import net.minecraft.util.ResourceLocation;
 public class EnchantedItemTrigger implements ICriterionTrigger<EnchantedItemTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("enchanted_item");
-    private final Map<PlayerAdvancements, EnchantedItemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EnchantedItemTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, EnchantedItemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EnchantedItemTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -26,7 +26,7 @@ import net.minecraft.util.ResourceLocation;
 public class EnterBlockTrigger implements ICriterionTrigger<EnterBlockTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("enter_block");
-    private final Map<PlayerAdvancements, EnterBlockTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EnterBlockTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, EnterBlockTrigger.Listeners> listeners = Maps.<PlayerAdvancements, EnterBlockTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
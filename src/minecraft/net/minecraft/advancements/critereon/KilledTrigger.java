@@ -17,7 +17,7 @@ import net.minecraft.util.ResourceLocation;
 
 public class KilledTrigger implements ICriterionTrigger<KilledTrigger.Instance>
 {
-    private final Map<PlayerAdvancements, KilledTrigger.Listeners> listeners = Maps.<PlayerAdvancements, KilledTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, KilledTrigger.Listeners> listeners = Maps.<PlayerAdvancements, KilledTrigger.Listeners>newConcurrentMap();
     private final ResourceLocation id;
 
     public KilledTrigger(ResourceLocation id)
@@ -17,7 +17,7 @@ import net.minecraft.util.math.Vec3d;
 public class LevitationTrigger implements ICriterionTrigger<LevitationTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("levitation");
-    private final Map<PlayerAdvancements, LevitationTrigger.Listeners> listeners = Maps.<PlayerAdvancements, LevitationTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, LevitationTrigger.Listeners> listeners = Maps.<PlayerAdvancements, LevitationTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
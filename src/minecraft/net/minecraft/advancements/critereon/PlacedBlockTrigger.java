@@ -29,7 +29,7 @@ import net.minecraft.world.WorldServer;
 public class PlacedBlockTrigger implements ICriterionTrigger<PlacedBlockTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("placed_block");
-    private final Map<PlayerAdvancements, PlacedBlockTrigger.Listeners> listeners = Maps.<PlayerAdvancements, PlacedBlockTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, PlacedBlockTrigger.Listeners> listeners = Maps.<PlayerAdvancements, PlacedBlockTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -15,7 +15,7 @@ import net.minecraft.util.ResourceLocation;
 public class TickTrigger implements ICriterionTrigger<TickTrigger.Instance>
 {
     public static final ResourceLocation ID = new ResourceLocation("tick");
-    private final Map<PlayerAdvancements, TickTrigger.Listeners> listeners = Maps.<PlayerAdvancements, TickTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, TickTrigger.Listeners> listeners = Maps.<PlayerAdvancements, TickTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -17,7 +17,7 @@ import net.minecraft.util.ResourceLocation;
 public class UsedTotemTrigger implements ICriterionTrigger<UsedTotemTrigger.Instance>
 {
     private static final ResourceLocation ID = new ResourceLocation("used_totem");
-    private final Map<PlayerAdvancements, UsedTotemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, UsedTotemTrigger.Listeners>newHashMap();
+    private final Map<PlayerAdvancements, UsedTotemTrigger.Listeners> listeners = Maps.<PlayerAdvancements, UsedTotemTrigger.Listeners>newConcurrentMap();
 
     public ResourceLocation getId()
     {
@@ -25,6 +25,7 @@ import net.minecraft.util.StringUtils;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -82,7 +83,19 @@ public class BlockCommandBlock extends BlockContainer
 
     public void updateTick(World worldIn, BlockPos pos, IBlockState state, Random rand)
     {
-        if (!worldIn.isRemote)
+        if (!worldIn.isRemote && ((WorldServer)worldIn).isTickingConcurrently())
+        {
+            ((WorldServer)worldIn).runAtSafePoint(() ->
+            {
+                IBlockState iblockstate = worldIn.getBlockState(pos);
+
+                if (iblockstate.getBlock() == this)
+                {
+                    this.updateTick(worldIn, pos, iblockstate, rand);
+                }
+            });
+        }
+        else if (!worldIn.isRemote)
         {
             TileEntity tileentity = worldIn.getTileEntity(pos);
 
@@ -1,5 +1,6 @@
 package net.minecraft.block;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Random;
 import java.util.Set;
@@ -12,7 +13,14 @@ import net.minecraft.world.World;
 
 public class BlockDynamicLiquid extends BlockLiquid
 {
-    int adjacentSourceBlocks;
+    /** Works out where the liquid flows, one solver per thread. */
+    private final ThreadLocal<BlockDynamicLiquid.FlowSolver> flowSolver = new ThreadLocal<BlockDynamicLiquid.FlowSolver>()
+    {
+        protected BlockDynamicLiquid.FlowSolver initialValue()
+        {
+            return new BlockDynamicLiquid.FlowSolver(BlockDynamicLiquid.this);
+        }
+    };
 
     protected BlockDynamicLiquid(Material materialIn)
     {
@@ -39,11 +47,18 @@ public class BlockDynamicLiquid extends BlockLiquid
         if (i > 0)
         {
             int l = -100;
-            this.adjacentSourceBlocks = 0;
+            int k1 = 0;
 
             for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
             {
-                l = this.checkAdjacentBlock(worldIn, pos.offset(enumfacing), l);
+                int l1 = this.getDepth(worldIn.getBlockState(pos.offset(enumfacing)));
+
+                if (l1 == 0)
+                {
+                    ++k1;
+                }
+
+                l = this.checkAdjacentBlock(l1, l);
             }
 
             int i1 = l + j;
@@ -67,7 +82,7 @@ public class BlockDynamicLiquid extends BlockLiquid
                 }
             }
 
-            if (this.adjacentSourceBlocks >= 2 && this.material == Material.WATER)
+            if (k1 >= 2 && this.material == Material.WATER)
             {
                 IBlockState iblockstate = worldIn.getBlockState(pos.down());
 
@@ -174,87 +189,23 @@ public class BlockDynamicLiquid extends BlockLiquid
         }
     }
 
-    private int getSlopeDistance(World worldIn, BlockPos pos, int distance, EnumFacing calculateFlowCost)
-    {
-        int i = 1000;
-
-        for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
-        {
-            if (enumfacing != calculateFlowCost)
-            {
-                BlockPos blockpos = pos.offset(enumfacing);
-                IBlockState iblockstate = worldIn.getBlockState(blockpos);
-
-                if (!this.isBlocked(worldIn, blockpos, iblockstate) && (iblockstate.getMaterial() != this.material || ((Integer)iblockstate.getValue(LEVEL)).intValue() > 0))
-                {
-                    if (!this.isBlocked(worldIn, blockpos.down(), iblockstate))
-                    {
-                        return distance;
-                    }
-
-                    if (distance < this.getSlopeFindDistance(worldIn))
-                    {
-                        int j = this.getSlopeDistance(worldIn, blockpos, distance + 1, enumfacing.getOpposite());
-
-                        if (j < i)
-                        {
-                            i = j;
-                        }
-                    }
-                }
-            }
-        }
-
-        return i;
-    }
-
     private int getSlopeFindDistance(World worldIn)
     {
         return this.material == Material.LAVA && !worldIn.provider.doesWaterVaporize() ? 2 : 4;
     }
 
+    /**
+     * Returns the directions the liquid flows in sideways: those leading to the nearest way down within the slope
+     * find distance, or every open direction if there is none.
+     */
     private Set<EnumFacing> getPossibleFlowDirections(World worldIn, BlockPos pos)
     {
-        int i = 1000;
-        Set<EnumFacing> set = EnumSet.<EnumFacing>noneOf(EnumFacing.class);
-
-        for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
-        {
-            BlockPos blockpos = pos.offset(enumfacing);
-            IBlockState iblockstate = worldIn.getBlockState(blockpos);
-
-            if (!this.isBlocked(worldIn, blockpos, iblockstate) && (iblockstate.getMaterial() != this.material || ((Integer)iblockstate.getValue(LEVEL)).intValue() > 0))
-            {
-                int j;
-
-                if (this.isBlocked(worldIn, blockpos.down(), worldIn.getBlockState(blockpos.down())))
-                {
-                    j = this.getSlopeDistance(worldIn, blockpos, 1, enumfacing.getOpposite());
-                }
-                else
-                {
-                    j = 0;
-                }
-
-                if (j < i)
-                {
-                    set.clear();
-                }
-
-                if (j <= i)
-                {
-                    set.add(enumfacing);
-                    i = j;
-                }
-            }
-        }
-
-        return set;
+        return ((BlockDynamicLiquid.FlowSolver)this.flowSolver.get()).getPossibleFlowDirections(worldIn, pos);
     }
 
     private boolean isBlocked(World worldIn, BlockPos pos, IBlockState state)
     {
-        Block block = worldIn.getBlockState(pos).getBlock();
+        Block block = state.getBlock();
 
         if (!(block instanceof BlockDoor) && block != Blocks.STANDING_SIGN && block != Blocks.LADDER && block != Blocks.REEDS)
         {
@@ -266,9 +217,13 @@ public class BlockDynamicLiquid extends BlockLiquid
         }
     }
 
-    protected int checkAdjacentBlock(World worldIn, BlockPos pos, int currentMinLevel)
+    /**
+     * Returns the lower of the given level and that of a neighbour with the given depth, as the neighbour's liquid
+     * would flow into this block.
+     */
+    protected int checkAdjacentBlock(int depth, int currentMinLevel)
     {
-        int i = this.getDepth(worldIn.getBlockState(pos));
+        int i = depth;
 
         if (i < 0)
         {
@@ -276,11 +231,6 @@ public class BlockDynamicLiquid extends BlockLiquid
         }
         else
         {
-            if (i == 0)
-            {
-                ++this.adjacentSourceBlocks;
-            }
-
             if (i >= 8)
             {
                 i = 0;
@@ -306,4 +256,162 @@ public class BlockDynamicLiquid extends BlockLiquid
             worldIn.scheduleUpdate(pos, this, this.tickRate(worldIn));
         }
     }
+
+    /**
+     * Finds the flow directions of a liquid block from a grid of the blocks within reach of its slope search. Each
+     * block of the grid is looked at no more than once per update, and the search result from a block, at a given
+     * distance and coming from a given side, is worked out once and reused by every search path that gets there the
+     * same way, instead of searching again down every path.
+     */
+    static class FlowSolver
+    {
+        /** How far from the liquid block the slope search can look, one more than the longest slope find distance. */
+        private static final int RADIUS = 5;
+        private static final int SIZE = 2 * RADIUS + 1;
+        private static final EnumFacing[] FACINGS = EnumFacing.Plane.HORIZONTAL.facings();
+        private static final int OPEN_KNOWN = 1;
+        private static final int OPEN = 2;
+        private static final int HOLE_KNOWN = 4;
+        private static final int HOLE = 8;
+        private final BlockDynamicLiquid liquid;
+
+        /** The flags above for each block of the grid, by (x + RADIUS) * SIZE + z + RADIUS. */
+        private final byte[] cells = new byte[SIZE * SIZE];
+
+        /** The search results by block, distance - 1 and the horizontal index of the side searched from, or -1. */
+        private final int[] slopeDistances = new int[SIZE * SIZE * 16];
+        private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+        private World world;
+        private BlockPos origin;
+        private int slopeFindDistance;
+
+        FlowSolver(BlockDynamicLiquid liquidIn)
+        {
+            this.liquid = liquidIn;
+        }
+
+        public Set<EnumFacing> getPossibleFlowDirections(World worldIn, BlockPos pos)
+        {
+            this.world = worldIn;
+            this.origin = pos;
+            this.slopeFindDistance = this.liquid.getSlopeFindDistance(worldIn);
+            Arrays.fill(this.cells, (byte)0);
+            Arrays.fill(this.slopeDistances, -1);
+            int i = 1000;
+            Set<EnumFacing> set = EnumSet.<EnumFacing>noneOf(EnumFacing.class);
+
+            try
+            {
+                for (EnumFacing enumfacing : FACINGS)
+                {
+                    int j = enumfacing.getXOffset();
+                    int k = enumfacing.getZOffset();
+
+                    if (this.isOpen(j, k))
+                    {
+                        int l = this.isHole(j, k) ? 0 : this.getSlopeDistance(j, k, 1, enumfacing.getOpposite().getHorizontalIndex());
+
+                        if (l < i)
+                        {
+                            set.clear();
+                        }
+
+                        if (l <= i)
+                        {
+                            set.add(enumfacing);
+                            i = l;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                this.world = null;
+                this.origin = null;
+            }
+
+            return set;
+        }
+
+        /**
+         * How many blocks from the liquid block the nearest way down is, searching on from the given block, or 1000 if
+         * there is none within the slope find distance.
+         */
+        private int getSlopeDistance(int x, int z, int distance, int fromIndex)
+        {
+            int i = (((x + RADIUS) * SIZE + z + RADIUS) * 4 + distance - 1) * 4 + fromIndex;
+            int j = this.slopeDistances[i];
+
+            if (j < 0)
+            {
+                j = 1000;
+
+                for (EnumFacing enumfacing : FACINGS)
+                {
+                    if (enumfacing.getHorizontalIndex() != fromIndex)
+                    {
+                        int k = x + enumfacing.getXOffset();
+                        int l = z + enumfacing.getZOffset();
+
+                        if (this.isOpen(k, l))
+                        {
+                            if (this.isHole(k, l))
+                            {
+                                j = distance;
+                                break;
+                            }
+
+                            if (distance < this.slopeFindDistance)
+                            {
+                                j = Math.min(j, this.getSlopeDistance(k, l, distance + 1, enumfacing.getOpposite().getHorizontalIndex()));
+                            }
+                        }
+                    }
+                }
+
+                this.slopeDistances[i] = j;
+            }
+
+            return j;
+        }
+
+        /**
+         * Whether the liquid could spread into the block: it is not blocked, and not a source of the same liquid.
+         */
+        private boolean isOpen(int x, int z)
+        {
+            int i = (x + RADIUS) * SIZE + z + RADIUS;
+            int j = this.cells[i];
+
+            if ((j & OPEN_KNOWN) == 0)
+            {
+                BlockPos blockpos = this.mutablePos.setPos(this.origin.getX() + x, this.origin.getY(), this.origin.getZ() + z);
+                IBlockState iblockstate = this.world.getBlockState(blockpos);
+                boolean flag = !this.liquid.isBlocked(this.world, blockpos, iblockstate) && (iblockstate.getMaterial() != this.liquid.material || ((Integer)iblockstate.getValue(LEVEL)).intValue() > 0);
+                j |= OPEN_KNOWN | (flag ? OPEN : 0);
+                this.cells[i] = (byte)j;
+            }
+
+            return (j & OPEN) != 0;
+        }
+
+        /**
+         * Whether the block below is not blocked, so the liquid could flow down there.
+         */
+        private boolean isHole(int x, int z)
+        {
+            int i = (x + RADIUS) * SIZE + z + RADIUS;
+            int j = this.cells[i];
+
+            if ((j & HOLE_KNOWN) == 0)
+            {
+                BlockPos blockpos = this.mutablePos.setPos(this.origin.getX() + x, this.origin.getY() - 1, this.origin.getZ() + z);
+                boolean flag = !this.liquid.isBlocked(this.world, blockpos, this.world.getBlockState(blockpos));
+                j |= HOLE_KNOWN | (flag ? HOLE : 0);
+                this.cells[i] = (byte)j;
+            }
+
+            return (j & HOLE) != 0;
+        }
+    }
 }
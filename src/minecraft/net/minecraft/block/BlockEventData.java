@@ -55,6 +55,15 @@ public class BlockEventData
         }
     }
 
+    public int hashCode()
+    {
+        int i = this.position.hashCode();
+        i = 31 * i + this.blockType.hashCode();
+        i = 31 * i + this.eventID;
+        i = 31 * i + this.eventParameter;
+        return i;
+    }
+
     public String toString()
     {
         return "TE(" + this.position + ")," + this.eventID + "," + this.eventParameter + "," + this.blockType;
@@ -12,7 +12,14 @@ import net.minecraft.world.World;
 
 public class BlockFalling extends Block
 {
-    public static boolean fallInstantly;
+    /** Set while chunks are populated, so that falling blocks drop straight into place. Kept per thread. */
+    private static final ThreadLocal<Boolean> FALL_INSTANTLY = new ThreadLocal<Boolean>()
+    {
+        protected Boolean initialValue()
+        {
+            return Boolean.FALSE;
+        }
+    };
 
     public BlockFalling()
     {
@@ -57,7 +64,7 @@ public class BlockFalling extends Block
         {
             int i = 32;
 
-            if (!fallInstantly && worldIn.isAreaLoaded(pos.add(-32, -32, -32), pos.add(32, 32, 32)))
+            if (!fallsInstantly() && worldIn.isAreaLoaded(pos.add(-32, -32, -32), pos.add(32, 32, 32)))
             {
                 if (!worldIn.isRemote)
                 {
@@ -96,6 +103,16 @@ public class BlockFalling extends Block
         return 2;
     }
 
+    public static boolean fallsInstantly()
+    {
+        return ((Boolean)FALL_INSTANTLY.get()).booleanValue();
+    }
+
+    public static void setFallInstantly(boolean instant)
+    {
+        FALL_INSTANTLY.set(Boolean.valueOf(instant));
+    }
+
     public static boolean canFallThrough(IBlockState state)
     {
         Block block = state.getBlock();
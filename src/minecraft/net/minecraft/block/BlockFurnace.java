@@ -31,7 +31,15 @@ public class BlockFurnace extends BlockContainer
 {
     public static final PropertyDirection FACING = BlockHorizontal.FACING;
     private final boolean isBurning;
-    private static boolean keepInventory;
+
+    /** Set while a furnace is swapped between lit and unlit, so it keeps its contents. Kept per thread. */
+    private static final ThreadLocal<Boolean> KEEP_INVENTORY = new ThreadLocal<Boolean>()
+    {
+        protected Boolean initialValue()
+        {
+            return Boolean.FALSE;
+        }
+    };
 
     protected BlockFurnace(boolean isBurning)
     {
@@ -161,21 +169,26 @@ public class BlockFurnace extends BlockContainer
     {
         IBlockState iblockstate = worldIn.getBlockState(pos);
         TileEntity tileentity = worldIn.getTileEntity(pos);
-        keepInventory = true;
+        KEEP_INVENTORY.set(Boolean.TRUE);
 
-        if (active)
+        try
         {
-            worldIn.setBlockState(pos, Blocks.LIT_FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
-            worldIn.setBlockState(pos, Blocks.LIT_FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+            if (active)
+            {
+                worldIn.setBlockState(pos, Blocks.LIT_FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+                worldIn.setBlockState(pos, Blocks.LIT_FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+            }
+            else
+            {
+                worldIn.setBlockState(pos, Blocks.FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+                worldIn.setBlockState(pos, Blocks.FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+            }
         }
-        else
+        finally
         {
-            worldIn.setBlockState(pos, Blocks.FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
-            worldIn.setBlockState(pos, Blocks.FURNACE.getDefaultState().withProperty(FACING, iblockstate.getValue(FACING)), 3);
+            KEEP_INVENTORY.set(Boolean.FALSE);
         }
 
-        keepInventory = false;
-
         if (tileentity != null)
         {
             tileentity.validate();
@@ -223,7 +236,7 @@ public class BlockFurnace extends BlockContainer
      */
     public void breakBlock(World worldIn, BlockPos pos, IBlockState state)
     {
-        if (!keepInventory)
+        if (!((Boolean)KEEP_INVENTORY.get()).booleanValue())
         {
             TileEntity tileentity = worldIn.getTileEntity(pos);
 
@@ -2,8 +2,15 @@ package net.minecraft.block;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -38,8 +45,33 @@ public class BlockRedstoneWire extends Block
     public static final PropertyEnum<BlockRedstoneWire.EnumAttachPosition> WEST = PropertyEnum.<BlockRedstoneWire.EnumAttachPosition>create("west", BlockRedstoneWire.EnumAttachPosition.class);
     public static final PropertyInteger POWER = PropertyInteger.create("power", 0, 15);
     protected static final AxisAlignedBB[] REDSTONE_WIRE_AABB = new AxisAlignedBB[] {new AxisAlignedBB(0.1875D, 0.0D, 0.1875D, 0.8125D, 0.0625D, 0.8125D), new AxisAlignedBB(0.1875D, 0.0D, 0.1875D, 0.8125D, 0.0625D, 1.0D), new AxisAlignedBB(0.0D, 0.0D, 0.1875D, 0.8125D, 0.0625D, 0.8125D), new AxisAlignedBB(0.0D, 0.0D, 0.1875D, 0.8125D, 0.0625D, 1.0D), new AxisAlignedBB(0.1875D, 0.0D, 0.0D, 0.8125D, 0.0625D, 0.8125D), new AxisAlignedBB(0.1875D, 0.0D, 0.0D, 0.8125D, 0.0625D, 1.0D), new AxisAlignedBB(0.0D, 0.0D, 0.0D, 0.8125D, 0.0625D, 0.8125D), new AxisAlignedBB(0.0D, 0.0D, 0.0D, 0.8125D, 0.0625D, 1.0D), new AxisAlignedBB(0.1875D, 0.0D, 0.1875D, 1.0D, 0.0625D, 0.8125D), new AxisAlignedBB(0.1875D, 0.0D, 0.1875D, 1.0D, 0.0625D, 1.0D), new AxisAlignedBB(0.0D, 0.0D, 0.1875D, 1.0D, 0.0625D, 0.8125D), new AxisAlignedBB(0.0D, 0.0D, 0.1875D, 1.0D, 0.0625D, 1.0D), new AxisAlignedBB(0.1875D, 0.0D, 0.0D, 1.0D, 0.0625D, 0.8125D), new AxisAlignedBB(0.1875D, 0.0D, 0.0D, 1.0D, 0.0625D, 1.0D), new AxisAlignedBB(0.0D, 0.0D, 0.0D, 1.0D, 0.0625D, 0.8125D), new AxisAlignedBB(0.0D, 0.0D, 0.0D, 1.0D, 0.0625D, 1.0D)};
-    private boolean canProvidePower = true;
-    private final Set<BlockPos> blocksNeedingUpdate = Sets.<BlockPos>newHashSet();
+
+    /**
+     * Whether wire gives power, which is turned off while a wire looks for power from other blocks.
+     */
+    private final ThreadLocal<Boolean> canProvidePower = new ThreadLocal<Boolean>()
+    {
+        protected Boolean initialValue()
+        {
+            return Boolean.TRUE;
+        }
+    };
+    private final ThreadLocal<Set<BlockPos>> blocksNeedingUpdate = new ThreadLocal<Set<BlockPos>>()
+    {
+        protected Set<BlockPos> initialValue()
+        {
+            return Sets.<BlockPos>newHashSet();
+        }
+    };
+
+    /** Solves wire networks when fastRedstoneWire is on. */
+    private final ThreadLocal<BlockRedstoneWire.WireNetwork> wireNetwork = new ThreadLocal<BlockRedstoneWire.WireNetwork>()
+    {
+        protected BlockRedstoneWire.WireNetwork initialValue()
+        {
+            return new BlockRedstoneWire.WireNetwork(BlockRedstoneWire.this);
+        }
+    };
 
     public BlockRedstoneWire()
     {
@@ -170,9 +202,15 @@ public class BlockRedstoneWire extends Block
 
     private IBlockState updateSurroundingRedstone(World worldIn, BlockPos pos, IBlockState state)
     {
+        if (worldIn.isFastRedstoneWire())
+        {
+            return ((BlockRedstoneWire.WireNetwork)this.wireNetwork.get()).update(worldIn, pos, state);
+        }
+
         state = this.calculateCurrentChanges(worldIn, pos, pos, state);
-        List<BlockPos> list = Lists.newArrayList(this.blocksNeedingUpdate);
-        this.blocksNeedingUpdate.clear();
+        Set<BlockPos> set = (Set)this.blocksNeedingUpdate.get();
+        List<BlockPos> list = Lists.newArrayList(set);
+        set.clear();
 
         for (BlockPos blockpos : list)
         {
@@ -188,9 +226,17 @@ public class BlockRedstoneWire extends Block
         int i = ((Integer)state.getValue(POWER)).intValue();
         int j = 0;
         j = this.getMaxCurrentStrength(worldIn, pos2, j);
-        this.canProvidePower = false;
-        int k = worldIn.getRedstonePowerFromNeighbors(pos1);
-        this.canProvidePower = true;
+        this.canProvidePower.set(Boolean.FALSE);
+        int k;
+
+        try
+        {
+            k = worldIn.getRedstonePowerFromNeighbors(pos1);
+        }
+        finally
+        {
+            this.canProvidePower.set(Boolean.TRUE);
+        }
 
         if (k > 0 && k > j - 1)
         {
@@ -249,11 +295,11 @@ public class BlockRedstoneWire extends Block
                 worldIn.setBlockState(pos1, state, 2);
             }
 
-            this.blocksNeedingUpdate.add(pos1);
+            ((Set)this.blocksNeedingUpdate.get()).add(pos1);
 
             for (EnumFacing enumfacing1 : EnumFacing.values())
             {
-                this.blocksNeedingUpdate.add(pos1.offset(enumfacing1));
+                ((Set)this.blocksNeedingUpdate.get()).add(pos1.offset(enumfacing1));
             }
         }
 
@@ -349,6 +395,23 @@ public class BlockRedstoneWire extends Block
         }
     }
 
+    /**
+     * Returns the power the wire at pos gets from blocks other than wire.
+     */
+    private int getExternalPower(World worldIn, BlockPos pos)
+    {
+        this.canProvidePower.set(Boolean.FALSE);
+
+        try
+        {
+            return worldIn.getRedstonePowerFromNeighbors(pos);
+        }
+        finally
+        {
+            this.canProvidePower.set(Boolean.TRUE);
+        }
+    }
+
     private int getMaxCurrentStrength(World worldIn, BlockPos pos, int strength)
     {
         if (worldIn.getBlockState(pos).getBlock() != this)
@@ -397,7 +460,7 @@ public class BlockRedstoneWire extends Block
      */
     public int getStrongPower(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side)
     {
-        return !this.canProvidePower ? 0 : blockState.getWeakPower(blockAccess, pos, side);
+        return !((Boolean)this.canProvidePower.get()).booleanValue() ? 0 : blockState.getWeakPower(blockAccess, pos, side);
     }
 
     /**
@@ -406,7 +469,7 @@ public class BlockRedstoneWire extends Block
      */
     public int getWeakPower(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side)
     {
-        if (!this.canProvidePower)
+        if (!((Boolean)this.canProvidePower.get()).booleanValue())
         {
             return 0;
         }
@@ -514,7 +577,7 @@ public class BlockRedstoneWire extends Block
      */
     public boolean canProvidePower(IBlockState state)
     {
-        return this.canProvidePower;
+        return ((Boolean)this.canProvidePower.get()).booleanValue();
     }
 
     public static int colorMultiplier(int p_176337_0_)
@@ -686,4 +749,292 @@ public class BlockRedstoneWire extends Block
             return this.name;
         }
     }
+
+    /**
+     * Works out the power of a whole network of connected wire at once, when fastRedstoneWire is on. Each wire is set
+     * to the power it ends up with, the highest power it gets from other blocks or from a neighbouring wire less one,
+     * without stepping through the powers in between, so turning off a long line takes as many steps as it is long
+     * rather than its length squared. The blocks around the wires that changed are then each updated once, in the
+     * order the wires were found in, instead of once for every wire near them in no set order.
+     */
+    static class WireNetwork
+    {
+        /** The order World.notifyNeighborsOfStateChange updates neighbours in. */
+        private static final EnumFacing[] UPDATE_ORDER = new EnumFacing[] {EnumFacing.WEST, EnumFacing.EAST, EnumFacing.DOWN, EnumFacing.UP, EnumFacing.NORTH, EnumFacing.SOUTH};
+        private final BlockRedstoneWire wire;
+        private final Object2IntMap<BlockPos> indices = new Object2IntOpenHashMap<BlockPos>();
+
+        /** The wires of the network in the order they were found, and their states. */
+        private final List<BlockPos> positions = Lists.<BlockPos>newArrayList();
+        private final List<IBlockState> states = Lists.<IBlockState>newArrayList();
+
+        /** For each wire, the wires that take power from it. The lists of earlier, larger networks are kept for reuse. */
+        private final List<IntList> readers = Lists.<IntList>newArrayList();
+
+        /** The wires raised to each power, strongest spread first. */
+        private final IntList[] byPower = new IntList[16];
+
+        /** The blocks to update, each with the first position it is updated from. */
+        private final Map<BlockPos, BlockPos> updates = new Object2ObjectLinkedOpenHashMap<BlockPos, BlockPos>();
+        private int[] powers = new int[64];
+        private World world;
+        private boolean running;
+
+        /** Solves the networks updated by this one's neighbour updates while it runs them. */
+        private BlockRedstoneWire.WireNetwork nested;
+
+        WireNetwork(BlockRedstoneWire wireIn)
+        {
+            this.wire = wireIn;
+            this.indices.defaultReturnValue(-1);
+
+            for (int i = 0; i < 16; ++i)
+            {
+                this.byPower[i] = new IntArrayList();
+            }
+        }
+
+        /**
+         * Updates the network of the wire at pos if that wire's power is out of date, and returns its new state.
+         */
+        public IBlockState update(World worldIn, BlockPos pos, IBlockState state)
+        {
+            if (this.running)
+            {
+                if (this.nested == null)
+                {
+                    this.nested = new BlockRedstoneWire.WireNetwork(this.wire);
+                }
+
+                return this.nested.update(worldIn, pos, state);
+            }
+            else
+            {
+                this.running = true;
+                this.world = worldIn;
+
+                try
+                {
+                    return this.updateNetwork(pos, state);
+                }
+                finally
+                {
+                    this.indices.clear();
+                    this.positions.clear();
+                    this.states.clear();
+                    this.updates.clear();
+
+                    for (int i = 0; i < 16; ++i)
+                    {
+                        this.byPower[i].clear();
+                    }
+
+                    this.world = null;
+                    this.running = false;
+                }
+            }
+        }
+
+        private IBlockState updateNetwork(BlockPos pos, IBlockState state)
+        {
+            IBlockState iblockstate = this.world.getBlockState(pos);
+
+            if (iblockstate.getBlock() != this.wire)
+            {
+                if (((Integer)state.getValue(POWER)).intValue() > 0)
+                {
+                    this.addUpdates(pos.toImmutable(), this.updates);
+                    this.runUpdates(this.updates);
+                }
+
+                return state;
+            }
+            else
+            {
+                int i = this.wire.getExternalPower(this.world, pos);
+
+                for (BlockPos blockpos : this.getConnections(pos))
+                {
+                    i = Math.max(i, ((Integer)this.world.getBlockState(blockpos).getValue(POWER)).intValue() - 1);
+                }
+
+                if (i == ((Integer)iblockstate.getValue(POWER)).intValue())
+                {
+                    return iblockstate;
+                }
+                else
+                {
+                    this.solve(pos);
+                    return this.world.getBlockState(pos);
+                }
+            }
+        }
+
+        private void solve(BlockPos pos)
+        {
+            this.indexOf(pos.toImmutable());
+
+            for (int i = 0; i < this.positions.size(); ++i)
+            {
+                for (BlockPos blockpos : this.getConnections(this.positions.get(i)))
+                {
+                    ((IntList)this.readers.get(this.indexOf(blockpos))).add(i);
+                }
+            }
+
+            int j = this.positions.size();
+
+            if (this.powers.length < j)
+            {
+                this.powers = new int[Math.max(j, this.powers.length * 2)];
+            }
+
+            int[] aint = this.powers;
+            IntList[] aintlist = this.byPower;
+
+            for (int l = 0; l < j; ++l)
+            {
+                aint[l] = this.wire.getExternalPower(this.world, this.positions.get(l));
+                aintlist[aint[l]].add(l);
+            }
+
+            for (int i1 = 15; i1 > 1; --i1)
+            {
+                IntList intlist = aintlist[i1];
+
+                for (int j1 = 0; j1 < intlist.size(); ++j1)
+                {
+                    int k1 = intlist.getInt(j1);
+
+                    if (aint[k1] == i1)
+                    {
+                        IntList intlist1 = this.readers.get(k1);
+
+                        for (int l1 = 0; l1 < intlist1.size(); ++l1)
+                        {
+                            int i2 = intlist1.getInt(l1);
+
+                            if (aint[i2] < i1 - 1)
+                            {
+                                aint[i2] = i1 - 1;
+                                aintlist[i1 - 1].add(i2);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (int j2 = 0; j2 < j; ++j2)
+            {
+                BlockPos blockpos1 = this.positions.get(j2);
+                IBlockState iblockstate = this.states.get(j2);
+
+                if (((Integer)iblockstate.getValue(POWER)).intValue() != aint[j2] && this.world.getBlockState(blockpos1) == iblockstate)
+                {
+                    this.world.setBlockState(blockpos1, iblockstate.withProperty(POWER, Integer.valueOf(aint[j2])), 2);
+                    this.addUpdates(blockpos1, this.updates);
+                }
+            }
+
+            this.runUpdates(this.updates);
+        }
+
+        /**
+         * Returns the index of the wire at pos, adding it to the network if it is new.
+         */
+        private int indexOf(BlockPos pos)
+        {
+            int i = this.indices.getInt(pos);
+
+            if (i < 0)
+            {
+                i = this.positions.size();
+                this.indices.put(pos, i);
+                this.positions.add(pos);
+                this.states.add(this.world.getBlockState(pos));
+
+                if (i < this.readers.size())
+                {
+                    ((IntList)this.readers.get(i)).clear();
+                }
+                else
+                {
+                    this.readers.add(new IntArrayList(4));
+                }
+            }
+
+            return i;
+        }
+
+        /**
+         * Returns the wires the wire at pos takes power from, the same ones calculateCurrentChanges looks at.
+         */
+        private List<BlockPos> getConnections(BlockPos pos)
+        {
+            List<BlockPos> list = Lists.<BlockPos>newArrayListWithCapacity(4);
+            boolean flag = this.world.getBlockState(pos.up()).isNormalCube();
+
+            for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
+            {
+                BlockPos blockpos = pos.offset(enumfacing);
+                boolean flag1 = this.world.getBlockState(blockpos).isNormalCube();
+                this.addConnection(blockpos, list);
+
+                if (flag1 && !flag)
+                {
+                    this.addConnection(blockpos.up(), list);
+                }
+                else if (!flag1)
+                {
+                    this.addConnection(blockpos.down(), list);
+                }
+            }
+
+            return list;
+        }
+
+        private void addConnection(BlockPos pos, List<BlockPos> list)
+        {
+            if (this.world.getBlockState(pos).getBlock() == this.wire)
+            {
+                list.add(pos);
+            }
+        }
+
+        /**
+         * Adds the blocks that vanilla wire updates when the wire at pos changes power: the neighbours of the wire and
+         * of each of its neighbours. Each block is kept with the first position it is updated from, and wires of the
+         * network are left out, as their power is already worked out.
+         */
+        private void addUpdates(BlockPos pos, Map<BlockPos, BlockPos> map)
+        {
+            this.addUpdatesAround(pos, map);
+
+            for (EnumFacing enumfacing : EnumFacing.values())
+            {
+                this.addUpdatesAround(pos.offset(enumfacing), map);
+            }
+        }
+
+        private void addUpdatesAround(BlockPos pos, Map<BlockPos, BlockPos> map)
+        {
+            for (EnumFacing enumfacing : UPDATE_ORDER)
+            {
+                BlockPos blockpos = pos.offset(enumfacing);
+
+                if (!this.indices.containsKey(blockpos) && !map.containsKey(blockpos))
+                {
+                    map.put(blockpos, pos);
+                }
+            }
+        }
+
+        private void runUpdates(Map<BlockPos, BlockPos> map)
+        {
+            for (Entry<BlockPos, BlockPos> entry : map.entrySet())
+            {
+                this.world.neighborChanged(entry.getKey(), this.wire, entry.getValue());
+            }
+        }
+    }
 }
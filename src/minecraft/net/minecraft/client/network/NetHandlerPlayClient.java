@@ -924,7 +924,11 @@ public class NetHandlerPlayClient implements INetHandlerPlayClient
             }
 
             this.client.effectRenderer.addEffect(new ParticleItemPickup(this.world, entity, entitylivingbase, 0.5F));
-            this.world.removeEntityFromWorld(packetIn.getCollectedItemEntityID());
+
+            if (!(entity instanceof EntityXPOrb) || ((EntityXPOrb)entity).getCount() <= 1)
+            {
+                this.world.removeEntityFromWorld(packetIn.getCollectedItemEntityID());
+            }
         }
     }
 
@@ -53,8 +53,8 @@ public class RenderXPOrb extends Render<EntityXPOrb>
             GlStateManager.translate(0.0F, 0.1F, 0.0F);
             GlStateManager.rotate(180.0F - this.renderManager.playerViewY, 0.0F, 1.0F, 0.0F);
             GlStateManager.rotate((float)(this.renderManager.options.thirdPersonView == 2 ? -1 : 1) * -this.renderManager.playerViewX, 1.0F, 0.0F, 0.0F);
-            float f7 = 0.3F;
-            GlStateManager.scale(0.3F, 0.3F, 0.3F);
+            float f7 = 0.3F * Math.min(1.0F + (float)(entity.getCount() - 1) * 0.1F, 2.0F);
+            GlStateManager.scale(f7, f7, f7);
             Tessellator tessellator = Tessellator.getInstance();
             BufferBuilder bufferbuilder = tessellator.getBuffer();
             bufferbuilder.begin(7, DefaultVertexFormats.POSITION_TEX_COLOR_NORMAL);
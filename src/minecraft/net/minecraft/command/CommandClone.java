@@ -14,6 +14,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BulkEditSession;
 import net.minecraft.world.NextTickListEntry;
 import net.minecraft.world.World;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
@@ -155,6 +156,8 @@ public class CommandClone extends CommandBase
                                 }
                             }
 
+                            BulkEditSession bulkeditsession = world.beginBulkEdit();
+
                             if (flag)
                             {
                                 for (BlockPos blockpos6 : deque)
@@ -166,12 +169,12 @@ public class CommandClone extends CommandBase
                                         ((IInventory)tileentity1).clear();
                                     }
 
-                                    world.setBlockState(blockpos6, Blocks.BARRIER.getDefaultState(), 2);
+                                    bulkeditsession.setBlockState(blockpos6, Blocks.BARRIER.getDefaultState(), 2);
                                 }
 
                                 for (BlockPos blockpos7 : deque)
                                 {
-                                    world.setBlockState(blockpos7, Blocks.AIR.getDefaultState(), 3);
+                                    bulkeditsession.setBlockState(blockpos7, Blocks.AIR.getDefaultState(), 3);
                                 }
                             }
 
@@ -190,14 +193,14 @@ public class CommandClone extends CommandBase
                                     ((IInventory)tileentity2).clear();
                                 }
 
-                                world.setBlockState(commandclone$staticclonedata.pos, Blocks.BARRIER.getDefaultState(), 2);
+                                bulkeditsession.setBlockState(commandclone$staticclonedata.pos, Blocks.BARRIER.getDefaultState(), 2);
                             }
 
                             i = 0;
 
                             for (CommandClone.StaticCloneData commandclone$staticclonedata1 : list3)
                             {
-                                if (world.setBlockState(commandclone$staticclonedata1.pos, commandclone$staticclonedata1.blockState, 2))
+                                if (bulkeditsession.setBlockState(commandclone$staticclonedata1.pos, commandclone$staticclonedata1.blockState, 2))
                                 {
                                     ++i;
                                 }
@@ -216,9 +219,11 @@ public class CommandClone extends CommandBase
                                     tileentity3.markDirty();
                                 }
 
-                                world.setBlockState(commandclone$staticclonedata2.pos, commandclone$staticclonedata2.blockState, 2);
+                                bulkeditsession.setBlockState(commandclone$staticclonedata2.pos, commandclone$staticclonedata2.blockState, 2);
                             }
 
+                            bulkeditsession.finish();
+
                             for (CommandClone.StaticCloneData commandclone$staticclonedata3 : list4)
                             {
                                 world.notifyNeighborsRespectDebug(commandclone$staticclonedata3.pos, commandclone$staticclonedata3.blockState.getBlock(), false);
@@ -14,6 +14,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BulkEditSession;
 import net.minecraft.world.World;
 
 public class CommandFill extends CommandBase
@@ -110,6 +111,7 @@ public class CommandFill extends CommandBase
                 }
 
                 List<BlockPos> list = Lists.<BlockPos>newArrayList();
+                BulkEditSession bulkeditsession = world.beginBulkEdit();
                 i = 0;
 
                 for (int l = blockpos2.getZ(); l <= blockpos3.getZ(); ++l)
@@ -149,7 +151,7 @@ public class CommandFill extends CommandBase
                                 {
                                     if ("hollow".equals(args[8]))
                                     {
-                                        world.setBlockState(blockpos4, Blocks.AIR.getDefaultState(), 2);
+                                        bulkeditsession.setBlockState(blockpos4, Blocks.AIR.getDefaultState(), 2);
                                         list.add(blockpos4);
                                     }
 
@@ -164,7 +166,7 @@ public class CommandFill extends CommandBase
                                 ((IInventory)tileentity1).clear();
                             }
 
-                            if (world.setBlockState(blockpos4, iblockstate, 2))
+                            if (bulkeditsession.setBlockState(blockpos4, iblockstate, 2))
                             {
                                 list.add(blockpos4);
                                 ++i;
@@ -186,6 +188,8 @@ public class CommandFill extends CommandBase
                     }
                 }
 
+                bulkeditsession.finish();
+
                 for (BlockPos blockpos5 : list)
                 {
                     Block block2 = world.getBlockState(blockpos5).getBlock();
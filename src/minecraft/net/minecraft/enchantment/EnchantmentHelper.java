@@ -25,18 +25,6 @@ import net.minecraft.util.math.MathHelper;
 
 public class EnchantmentHelper
 {
-    /**
-     * Used to calculate the extra armor of enchantments on armors equipped on player.
-     */
-    private static final EnchantmentHelper.ModifierDamage ENCHANTMENT_MODIFIER_DAMAGE = new EnchantmentHelper.ModifierDamage();
-
-    /**
-     * Used to calculate the (magic) extra damage done by enchantments on current equipped item of player.
-     */
-    private static final EnchantmentHelper.ModifierLiving ENCHANTMENT_MODIFIER_LIVING = new EnchantmentHelper.ModifierLiving();
-    private static final EnchantmentHelper.HurtIterator ENCHANTMENT_ITERATOR_HURT = new EnchantmentHelper.HurtIterator();
-    private static final EnchantmentHelper.DamageIterator ENCHANTMENT_ITERATOR_DAMAGE = new EnchantmentHelper.DamageIterator();
-
     /**
      * Returns the level of enchantment on the ItemStack passed.
      */
@@ -159,18 +147,20 @@ public class EnchantmentHelper
      */
     public static int getEnchantmentModifierDamage(Iterable<ItemStack> stacks, DamageSource source)
     {
-        ENCHANTMENT_MODIFIER_DAMAGE.damageModifier = 0;
-        ENCHANTMENT_MODIFIER_DAMAGE.source = source;
-        applyEnchantmentModifierArray(ENCHANTMENT_MODIFIER_DAMAGE, stacks);
-        return ENCHANTMENT_MODIFIER_DAMAGE.damageModifier;
+        EnchantmentHelper.ModifierDamage enchantmenthelper$modifierdamage = new EnchantmentHelper.ModifierDamage();
+        enchantmenthelper$modifierdamage.damageModifier = 0;
+        enchantmenthelper$modifierdamage.source = source;
+        applyEnchantmentModifierArray(enchantmenthelper$modifierdamage, stacks);
+        return enchantmenthelper$modifierdamage.damageModifier;
     }
 
     public static float getModifierForCreature(ItemStack stack, EnumCreatureAttribute creatureAttribute)
     {
-        ENCHANTMENT_MODIFIER_LIVING.livingModifier = 0.0F;
-        ENCHANTMENT_MODIFIER_LIVING.entityLiving = creatureAttribute;
-        applyEnchantmentModifier(ENCHANTMENT_MODIFIER_LIVING, stack);
-        return ENCHANTMENT_MODIFIER_LIVING.livingModifier;
+        EnchantmentHelper.ModifierLiving enchantmenthelper$modifierliving = new EnchantmentHelper.ModifierLiving();
+        enchantmenthelper$modifierliving.livingModifier = 0.0F;
+        enchantmenthelper$modifierliving.entityLiving = creatureAttribute;
+        applyEnchantmentModifier(enchantmenthelper$modifierliving, stack);
+        return enchantmenthelper$modifierliving.livingModifier;
     }
 
     public static float getSweepingDamageRatio(EntityLivingBase p_191527_0_)
@@ -181,33 +171,35 @@ public class EnchantmentHelper
 
     public static void applyThornEnchantments(EntityLivingBase p_151384_0_, Entity p_151384_1_)
     {
-        ENCHANTMENT_ITERATOR_HURT.attacker = p_151384_1_;
-        ENCHANTMENT_ITERATOR_HURT.user = p_151384_0_;
+        EnchantmentHelper.HurtIterator enchantmenthelper$hurtiterator = new EnchantmentHelper.HurtIterator();
+        enchantmenthelper$hurtiterator.attacker = p_151384_1_;
+        enchantmenthelper$hurtiterator.user = p_151384_0_;
 
         if (p_151384_0_ != null)
         {
-            applyEnchantmentModifierArray(ENCHANTMENT_ITERATOR_HURT, p_151384_0_.getEquipmentAndArmor());
+            applyEnchantmentModifierArray(enchantmenthelper$hurtiterator, p_151384_0_.getEquipmentAndArmor());
         }
 
         if (p_151384_1_ instanceof EntityPlayer)
         {
-            applyEnchantmentModifier(ENCHANTMENT_ITERATOR_HURT, p_151384_0_.getHeldItemMainhand());
+            applyEnchantmentModifier(enchantmenthelper$hurtiterator, p_151384_0_.getHeldItemMainhand());
         }
     }
 
     public static void applyArthropodEnchantments(EntityLivingBase p_151385_0_, Entity p_151385_1_)
     {
-        ENCHANTMENT_ITERATOR_DAMAGE.user = p_151385_0_;
-        ENCHANTMENT_ITERATOR_DAMAGE.target = p_151385_1_;
+        EnchantmentHelper.DamageIterator enchantmenthelper$damageiterator = new EnchantmentHelper.DamageIterator();
+        enchantmenthelper$damageiterator.user = p_151385_0_;
+        enchantmenthelper$damageiterator.target = p_151385_1_;
 
         if (p_151385_0_ != null)
         {
-            applyEnchantmentModifierArray(ENCHANTMENT_ITERATOR_DAMAGE, p_151385_0_.getEquipmentAndArmor());
+            applyEnchantmentModifierArray(enchantmenthelper$damageiterator, p_151385_0_.getEquipmentAndArmor());
         }
 
         if (p_151385_0_ instanceof EntityPlayer)
         {
-            applyEnchantmentModifier(ENCHANTMENT_ITERATOR_DAMAGE, p_151385_0_.getHeldItemMainhand());
+            applyEnchantmentModifier(enchantmenthelper$damageiterator, p_151385_0_.getHeldItemMainhand());
         }
     }
 
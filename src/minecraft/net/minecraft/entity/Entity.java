@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import net.minecraft.advancements.CriteriaTriggers;
 import net.minecraft.block.Block;
@@ -89,7 +90,7 @@ public abstract class Entity implements ICommandSender
     private static final List<ItemStack> EMPTY_EQUIPMENT = Collections.<ItemStack>emptyList();
     private static final AxisAlignedBB ZERO_AABB = new AxisAlignedBB(0.0D, 0.0D, 0.0D, 0.0D, 0.0D, 0.0D);
     private static double renderDistanceWeight = 1.0D;
-    private static int nextEntityID;
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger();
     private int entityId;
 
     /**
@@ -226,6 +227,9 @@ public abstract class Entity implements ICommandSender
 
     /** How many ticks has this entity had ran since being alive */
     public int ticksExisted;
+
+    /** The world time up to which this entity gets a full tick, whatever its distance from players. */
+    public long activeUntil;
     private int fire;
 
     /**
@@ -297,7 +301,7 @@ public abstract class Entity implements ICommandSender
 
     public Entity(World worldIn)
     {
-        this.entityId = nextEntityID++;
+        this.entityId = NEXT_ENTITY_ID.getAndIncrement();
         this.riddenByEntities = Lists.<Entity>newArrayList();
         this.boundingBox = ZERO_AABB;
         this.width = 0.6F;
@@ -507,6 +511,13 @@ public abstract class Entity implements ICommandSender
         }
     }
 
+    /**
+     * Called instead of onUpdate while no player is within the entity's activation range, to keep its timers going.
+     */
+    public void inactiveTick()
+    {
+    }
+
     /**
      * Called to update the entity's position/logic.
      */
@@ -2974,6 +2985,11 @@ public abstract class Entity implements ICommandSender
     {
         if (!this.world.isRemote && !this.isDead)
         {
+            if (((WorldServer)this.world).deferDimensionChange(this, dimensionIn))
+            {
+                return null;
+            }
+
             this.world.profiler.startSection("changeDimension");
             MinecraftServer minecraftserver = this.getServer();
             int i = this.dimension;
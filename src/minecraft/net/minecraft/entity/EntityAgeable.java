@@ -225,24 +225,38 @@ public abstract class EntityAgeable extends EntityCreature
         }
         else
         {
-            int i = this.getGrowingAge();
+            this.updateGrowingAge();
+        }
+    }
 
-            if (i < 0)
-            {
-                ++i;
-                this.setGrowingAge(i);
+    public void inactiveTick()
+    {
+        super.inactiveTick();
+        this.updateGrowingAge();
+    }
 
-                if (i == 0)
-                {
-                    this.onGrowingAdult();
-                }
-            }
-            else if (i > 0)
+    /**
+     * Moves the growing age one tick towards 0, growing the entity up when it gets there.
+     */
+    private void updateGrowingAge()
+    {
+        int i = this.getGrowingAge();
+
+        if (i < 0)
+        {
+            ++i;
+            this.setGrowingAge(i);
+
+            if (i == 0)
             {
-                --i;
-                this.setGrowingAge(i);
+                this.onGrowingAdult();
             }
         }
+        else if (i > 0)
+        {
+            --i;
+            this.setGrowingAge(i);
+        }
     }
 
     /**
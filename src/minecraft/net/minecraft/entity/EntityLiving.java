@@ -110,6 +110,13 @@ public abstract class EntityLiving extends EntityLivingBase
         super(worldIn);
         this.tasks = new EntityAITasks(worldIn != null && worldIn.profiler != null ? worldIn.profiler : null);
         this.targetTasks = new EntityAITasks(worldIn != null && worldIn.profiler != null ? worldIn.profiler : null);
+
+        if (worldIn != null && !worldIn.isRemote && worldIn.getGameRules().getBoolean("staggerGoalSelection"))
+        {
+            this.tasks.setTickOffset(this.getEntityId());
+            this.targetTasks.setTickOffset(this.getEntityId());
+        }
+
         this.lookHelper = new EntityLookHelper(this);
         this.moveHelper = new EntityMoveHelper(this);
         this.jumpHelper = new EntityJumpHelper(this);
@@ -520,7 +527,7 @@ public abstract class EntityLiving extends EntityLivingBase
             this.setCanPickUpLoot(compound.getBoolean("CanPickUpLoot"));
         }
 
-        this.persistenceRequired = compound.getBoolean("PersistenceRequired");
+        this.setPersistenceRequired(compound.getBoolean("PersistenceRequired"));
 
         if (compound.hasKey("ArmorItems", 9))
         {
@@ -770,7 +777,7 @@ public abstract class EntityLiving extends EntityLivingBase
                     this.inventoryArmorDropChances[entityequipmentslot.getIndex()] = 2.0F;
             }
 
-            this.persistenceRequired = true;
+            this.setPersistenceRequired(true);
             this.onItemPickup(itemEntity, itemstack.getCount());
             itemEntity.setDead();
         }
@@ -789,6 +796,16 @@ public abstract class EntityLiving extends EntityLivingBase
         return true;
     }
 
+    public void inactiveTick()
+    {
+        super.inactiveTick();
+
+        if (!this.persistenceRequired)
+        {
+            ++this.idleTime;
+        }
+    }
+
     /**
      * Makes the entity despawn if requirements are reached
      */
@@ -1309,7 +1326,20 @@ public abstract class EntityLiving extends EntityLivingBase
      */
     public void enablePersistence()
     {
-        this.persistenceRequired = true;
+        this.setPersistenceRequired(true);
+    }
+
+    private void setPersistenceRequired(boolean persistenceRequiredIn)
+    {
+        if (this.persistenceRequired != persistenceRequiredIn)
+        {
+            this.persistenceRequired = persistenceRequiredIn;
+
+            if (this.world instanceof WorldServer)
+            {
+                ((WorldServer)this.world).getMobCounter().onPersistenceChanged(this);
+            }
+        }
     }
 
     public void setDropChance(EntityEquipmentSlot slotIn, float chance)
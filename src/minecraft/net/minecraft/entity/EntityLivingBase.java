@@ -70,6 +70,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.EntityActivationRange;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import org.apache.logging.log4j.LogManager;
@@ -1017,6 +1018,7 @@ public abstract class EntityLivingBase extends Entity
         else
         {
             this.idleTime = 0;
+            EntityActivationRange.wakeUp(this);
 
             if (this.getHealth() <= 0.0F)
             {
@@ -1,18 +1,25 @@
 package net.minecraft.entity.ai;
 
-import com.google.common.collect.Sets;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.Arrays;
 import javax.annotation.Nullable;
 import net.minecraft.profiler.Profiler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Runs the goals of a mob. The goals and the running goals are kept in arrays, in the order they were added and
+ * started, and walked by index, and each goal's mutex bits are read once per goal selection rather than once per
+ * comparison.
+ */
 public class EntityAITasks
 {
     private static final Logger LOGGER = LogManager.getLogger();
-    private final Set<EntityAITasks.EntityAITaskEntry> taskEntries = Sets.<EntityAITasks.EntityAITaskEntry>newLinkedHashSet();
-    private final Set<EntityAITasks.EntityAITaskEntry> executingTaskEntries = Sets.<EntityAITasks.EntityAITaskEntry>newLinkedHashSet();
+    private EntityAITasks.EntityAITaskEntry[] taskEntries = new EntityAITasks.EntityAITaskEntry[8];
+    private int taskCount;
+
+    /** The running goals, in the order they were started. */
+    private EntityAITasks.EntityAITaskEntry[] executingTaskEntries = new EntityAITasks.EntityAITaskEntry[4];
+    private int executingCount;
 
     /** Instance of Profiler. */
     private final Profiler profiler;
@@ -30,7 +37,22 @@ public class EntityAITasks
      */
     public void addTask(int priority, EntityAIBase task)
     {
-        this.taskEntries.add(new EntityAITasks.EntityAITaskEntry(priority, task));
+        EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = new EntityAITasks.EntityAITaskEntry(priority, task);
+
+        for (int i = 0; i < this.taskCount; ++i)
+        {
+            if (this.taskEntries[i].equals(entityaitasks$entityaitaskentry))
+            {
+                return;
+            }
+        }
+
+        if (this.taskCount == this.taskEntries.length)
+        {
+            this.taskEntries = (EntityAITasks.EntityAITaskEntry[])Arrays.copyOf(this.taskEntries, this.taskCount * 2);
+        }
+
+        this.taskEntries[this.taskCount++] = entityaitasks$entityaitaskentry;
     }
 
     /**
@@ -38,11 +60,9 @@ public class EntityAITasks
      */
     public void removeTask(EntityAIBase task)
     {
-        Iterator<EntityAITasks.EntityAITaskEntry> iterator = this.taskEntries.iterator();
-
-        while (iterator.hasNext())
+        for (int i = 0; i < this.taskCount; ++i)
         {
-            EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = iterator.next();
+            EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = this.taskEntries[i];
             EntityAIBase entityaibase = entityaitasks$entityaitaskentry.action;
 
             if (entityaibase == task)
@@ -51,72 +71,118 @@ public class EntityAITasks
                 {
                     entityaitasks$entityaitaskentry.using = false;
                     entityaitasks$entityaitaskentry.action.resetTask();
-                    this.executingTaskEntries.remove(entityaitasks$entityaitaskentry);
+                    this.removeExecuting(entityaitasks$entityaitaskentry);
                 }
 
-                iterator.remove();
+                System.arraycopy(this.taskEntries, i + 1, this.taskEntries, i, this.taskCount - i - 1);
+                this.taskEntries[--this.taskCount] = null;
                 return;
             }
         }
     }
 
+    /**
+     * Spreads the ticks this looks for goals to start over the tick rate by the given number, so that mobs made at the
+     * same time do not all do it on the same tick.
+     */
+    public void setTickOffset(int offset)
+    {
+        this.tickCount = Math.floorMod(offset, this.tickRate);
+    }
+
     public void onUpdateTasks()
     {
         this.profiler.startSection("goalSetup");
 
         if (this.tickCount++ % this.tickRate == 0)
         {
-            for (EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry : this.taskEntries)
+            for (int i = 0; i < this.taskCount; ++i)
             {
+                this.taskEntries[i].mutexBits = this.taskEntries[i].action.getMutexBits();
+            }
+
+            for (int j = 0; j < this.taskCount; ++j)
+            {
+                EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = this.taskEntries[j];
+
                 if (entityaitasks$entityaitaskentry.using)
                 {
                     if (!this.canUse(entityaitasks$entityaitaskentry) || !this.canContinue(entityaitasks$entityaitaskentry))
                     {
                         entityaitasks$entityaitaskentry.using = false;
                         entityaitasks$entityaitaskentry.action.resetTask();
-                        this.executingTaskEntries.remove(entityaitasks$entityaitaskentry);
+                        this.removeExecuting(entityaitasks$entityaitaskentry);
                     }
                 }
                 else if (this.canUse(entityaitasks$entityaitaskentry) && entityaitasks$entityaitaskentry.action.shouldExecute())
                 {
                     entityaitasks$entityaitaskentry.using = true;
                     entityaitasks$entityaitaskentry.action.startExecuting();
-                    this.executingTaskEntries.add(entityaitasks$entityaitaskentry);
+                    this.addExecuting(entityaitasks$entityaitaskentry);
                 }
             }
         }
         else
         {
-            Iterator<EntityAITasks.EntityAITaskEntry> iterator = this.executingTaskEntries.iterator();
+            int k = 0;
 
-            while (iterator.hasNext())
+            for (int l = 0; l < this.executingCount; ++l)
             {
-                EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry1 = iterator.next();
+                EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry1 = this.executingTaskEntries[l];
 
                 if (!this.canContinue(entityaitasks$entityaitaskentry1))
                 {
                     entityaitasks$entityaitaskentry1.using = false;
                     entityaitasks$entityaitaskentry1.action.resetTask();
-                    iterator.remove();
+                }
+                else
+                {
+                    this.executingTaskEntries[k++] = entityaitasks$entityaitaskentry1;
                 }
             }
+
+            Arrays.fill(this.executingTaskEntries, k, this.executingCount, (Object)null);
+            this.executingCount = k;
         }
 
         this.profiler.endSection();
 
-        if (!this.executingTaskEntries.isEmpty())
+        if (this.executingCount > 0)
         {
             this.profiler.startSection("goalTick");
 
-            for (EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry2 : this.executingTaskEntries)
+            for (int i1 = 0; i1 < this.executingCount; ++i1)
             {
-                entityaitasks$entityaitaskentry2.action.updateTask();
+                this.executingTaskEntries[i1].action.updateTask();
             }
 
             this.profiler.endSection();
         }
     }
 
+    private void addExecuting(EntityAITasks.EntityAITaskEntry taskEntry)
+    {
+        if (this.executingCount == this.executingTaskEntries.length)
+        {
+            this.executingTaskEntries = (EntityAITasks.EntityAITaskEntry[])Arrays.copyOf(this.executingTaskEntries, this.executingCount * 2);
+        }
+
+        this.executingTaskEntries[this.executingCount++] = taskEntry;
+    }
+
+    private void removeExecuting(EntityAITasks.EntityAITaskEntry taskEntry)
+    {
+        for (int i = 0; i < this.executingCount; ++i)
+        {
+            if (this.executingTaskEntries[i] == taskEntry)
+            {
+                System.arraycopy(this.executingTaskEntries, i + 1, this.executingTaskEntries, i, this.executingCount - i - 1);
+                this.executingTaskEntries[--this.executingCount] = null;
+                return;
+            }
+        }
+    }
+
     /**
      * Determine if a specific AI Task should continue being executed.
      */
@@ -131,23 +197,25 @@ public class EntityAITasks
      */
     private boolean canUse(EntityAITasks.EntityAITaskEntry taskEntry)
     {
-        if (this.executingTaskEntries.isEmpty())
+        if (this.executingCount == 0)
         {
             return true;
         }
-        else if (this.isControlFlagDisabled(taskEntry.action.getMutexBits()))
+        else if (this.isControlFlagDisabled(taskEntry.mutexBits))
         {
             return false;
         }
         else
         {
-            for (EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry : this.executingTaskEntries)
+            for (int i = 0; i < this.executingCount; ++i)
             {
+                EntityAITasks.EntityAITaskEntry entityaitasks$entityaitaskentry = this.executingTaskEntries[i];
+
                 if (entityaitasks$entityaitaskentry != taskEntry)
                 {
                     if (taskEntry.priority >= entityaitasks$entityaitaskentry.priority)
                     {
-                        if (!this.areTasksCompatible(taskEntry, entityaitasks$entityaitaskentry))
+                        if ((taskEntry.mutexBits & entityaitasks$entityaitaskentry.mutexBits) != 0)
                         {
                             return false;
                         }
@@ -163,14 +231,6 @@ public class EntityAITasks
         }
     }
 
-    /**
-     * Returns whether two EntityAITaskEntries can be executed concurrently
-     */
-    private boolean areTasksCompatible(EntityAITasks.EntityAITaskEntry taskEntry1, EntityAITasks.EntityAITaskEntry taskEntry2)
-    {
-        return (taskEntry1.action.getMutexBits() & taskEntry2.action.getMutexBits()) == 0;
-    }
-
     public boolean isControlFlagDisabled(int p_188528_1_)
     {
         return (this.disabledControlFlags & p_188528_1_) > 0;
@@ -204,10 +264,14 @@ public class EntityAITasks
         public final int priority;
         public boolean using;
 
+        /** The mutex bits of the task as of the last goal selection. */
+        public int mutexBits;
+
         public EntityAITaskEntry(int priorityIn, EntityAIBase task)
         {
             this.priority = priorityIn;
             this.action = task;
+            this.mutexBits = task.getMutexBits();
         }
 
         public boolean equals(@Nullable Object p_equals_1_)
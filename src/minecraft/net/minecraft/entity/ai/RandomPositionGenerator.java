@@ -11,12 +11,6 @@ import net.minecraft.util.math.Vec3d;
 
 public class RandomPositionGenerator
 {
-    /**
-     * used to store a driection when the user passes a point to move towards or away from. WARNING: NEVER THREAD SAFE.
-     * MULTIPLE findTowards and findAway calls, will share this var
-     */
-    private static Vec3d staticVector = Vec3d.ZERO;
-
     @Nullable
 
     /**
@@ -40,8 +34,8 @@ public class RandomPositionGenerator
      */
     public static Vec3d findRandomTargetBlockTowards(EntityCreature entitycreatureIn, int xz, int y, Vec3d targetVec3)
     {
-        staticVector = targetVec3.subtract(entitycreatureIn.posX, entitycreatureIn.posY, entitycreatureIn.posZ);
-        return findRandomTargetBlock(entitycreatureIn, xz, y, staticVector);
+        Vec3d vec3d = targetVec3.subtract(entitycreatureIn.posX, entitycreatureIn.posY, entitycreatureIn.posZ);
+        return findRandomTargetBlock(entitycreatureIn, xz, y, vec3d);
     }
 
     @Nullable
@@ -51,8 +45,8 @@ public class RandomPositionGenerator
      */
     public static Vec3d findRandomTargetBlockAwayFrom(EntityCreature entitycreatureIn, int xz, int y, Vec3d targetVec3)
     {
-        staticVector = (new Vec3d(entitycreatureIn.posX, entitycreatureIn.posY, entitycreatureIn.posZ)).subtract(targetVec3);
-        return findRandomTargetBlock(entitycreatureIn, xz, y, staticVector);
+        Vec3d vec3d = (new Vec3d(entitycreatureIn.posX, entitycreatureIn.posY, entitycreatureIn.posZ)).subtract(targetVec3);
+        return findRandomTargetBlock(entitycreatureIn, xz, y, vec3d);
     }
 
     @Nullable
@@ -86,6 +86,24 @@ public class EntityItem extends Entity
         this.getDataManager().register(ITEM, ItemStack.EMPTY);
     }
 
+    public void inactiveTick()
+    {
+        if (this.pickupDelay > 0 && this.pickupDelay != 32767)
+        {
+            --this.pickupDelay;
+        }
+
+        if (this.age != -32768)
+        {
+            ++this.age;
+        }
+
+        if (this.age >= 6000)
+        {
+            this.setDead();
+        }
+    }
+
     /**
      * Called to update the entity's position/logic.
      */
@@ -138,7 +156,7 @@ public class EntityItem extends Entity
                     this.playSound(SoundEvents.ENTITY_GENERIC_BURN, 0.4F, 2.0F + this.rand.nextFloat() * 0.4F);
                 }
 
-                if (!this.world.isRemote)
+                if (!this.world.isRemote && this.world.getGameRules().getInt("itemMergeInterval") <= 0)
                 {
                     this.searchForOtherItemsNearby();
                 }
@@ -202,7 +220,7 @@ public class EntityItem extends Entity
      * Tries to merge this item with the item passed as the parameter. Returns true if successful. Either this item or
      * the other item will  be removed from the world.
      */
-    private boolean combineItems(EntityItem other)
+    public boolean combineItems(EntityItem other)
     {
         if (other == this)
         {
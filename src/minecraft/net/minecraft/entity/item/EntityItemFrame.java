@@ -154,7 +154,11 @@ public class EntityItemFrame extends EntityHanging
             if (stack.getItem() == Items.FILLED_MAP)
             {
                 MapData mapdata = ((ItemMap)stack.getItem()).getMapData(stack, this.world);
-                mapdata.mapDecorations.remove("frame-" + this.getEntityId());
+
+                synchronized (mapdata)
+                {
+                    mapdata.mapDecorations.remove("frame-" + this.getEntityId());
+                }
             }
 
             stack.setItemFrame((EntityItemFrame)null);
@@ -24,6 +24,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 
 public class EntityMinecartCommandBlock extends EntityMinecart
 {
@@ -147,7 +148,10 @@ public class EntityMinecartCommandBlock extends EntityMinecart
     {
         if (receivingPower && this.ticksExisted - this.activatorRailCooldown >= 4)
         {
-            this.getCommandBlockLogic().trigger(this.world);
+            ((WorldServer)this.world).runAtSafePoint(() ->
+            {
+                this.getCommandBlockLogic().trigger(this.world);
+            });
             this.activatorRailCooldown = this.ticksExisted;
         }
     }
@@ -9,6 +9,9 @@ import net.minecraft.init.Enchantments;
 import net.minecraft.init.SoundEvents;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.datasync.DataParameter;
+import net.minecraft.network.datasync.DataSerializers;
+import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
@@ -16,6 +19,9 @@ import net.minecraft.world.World;
 
 public class EntityXPOrb extends Entity
 {
+    /** How many orbs of the same value this orb stands for, when mergeXpOrbs has merged orbs into it. */
+    private static final DataParameter<Integer> COUNT = EntityDataManager.<Integer>createKey(EntityXPOrb.class, DataSerializers.VARINT);
+
     /**
      * A constantly increasing value that RenderXPOrb uses to control the colour shifting (Green / yellow)
      */
@@ -66,6 +72,7 @@ public class EntityXPOrb extends Entity
 
     protected void entityInit()
     {
+        this.getDataManager().register(COUNT, Integer.valueOf(1));
     }
 
     public int getBrightnessForRender()
@@ -85,6 +92,21 @@ public class EntityXPOrb extends Entity
         return j | k << 16;
     }
 
+    public void inactiveTick()
+    {
+        if (this.delayBeforeCanPickup > 0)
+        {
+            --this.delayBeforeCanPickup;
+        }
+
+        ++this.xpOrbAge;
+
+        if (this.xpOrbAge >= 6000)
+        {
+            this.setDead();
+        }
+    }
+
     /**
      * Called to update the entity's position/logic.
      */
@@ -150,6 +172,12 @@ public class EntityXPOrb extends Entity
         }
 
         this.move(MoverType.SELF, this.motionX, this.motionY, this.motionZ);
+
+        if (!this.world.isRemote && this.ticksExisted % 20 == 1 && this.world.getGameRules().getBoolean("mergeXpOrbs"))
+        {
+            this.mergeNearbyOrbs();
+        }
+
         float f = 0.98F;
 
         if (this.onGround)
@@ -175,6 +203,43 @@ public class EntityXPOrb extends Entity
         }
     }
 
+    /**
+     * Merges the orbs of the same value touching this one into it.
+     */
+    private void mergeNearbyOrbs()
+    {
+        for (EntityXPOrb entityxporb : this.world.getEntitiesWithinAABB(EntityXPOrb.class, this.getEntityBoundingBox().grow(0.5D)))
+        {
+            if (entityxporb != this && !entityxporb.isDead && entityxporb.xpValue == this.xpValue)
+            {
+                this.setCount(this.getCount() + entityxporb.getCount());
+                this.xpOrbAge = Math.min(this.xpOrbAge, entityxporb.xpOrbAge);
+                this.delayBeforeCanPickup = Math.max(this.delayBeforeCanPickup, entityxporb.delayBeforeCanPickup);
+                entityxporb.setDead();
+            }
+        }
+    }
+
+    /**
+     * Adds this orb, before it is spawned, to an orb of the same value it touches. Returns false if there is none, in
+     * which case this orb has to be spawned itself.
+     */
+    public boolean mergeIntoNearbyOrb()
+    {
+        for (EntityXPOrb entityxporb : this.world.getEntitiesWithinAABB(EntityXPOrb.class, this.getEntityBoundingBox().grow(0.5D)))
+        {
+            if (entityxporb != this && !entityxporb.isDead && entityxporb.xpValue == this.xpValue)
+            {
+                entityxporb.setCount(entityxporb.getCount() + this.getCount());
+                entityxporb.xpOrbAge = Math.min(entityxporb.xpOrbAge, this.xpOrbAge);
+                entityxporb.delayBeforeCanPickup = Math.max(entityxporb.delayBeforeCanPickup, this.delayBeforeCanPickup);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Returns if this entity is in water and will end up adding the waters velocity to the entity
      */
@@ -222,6 +287,7 @@ public class EntityXPOrb extends Entity
         compound.setShort("Health", (short)this.xpOrbHealth);
         compound.setShort("Age", (short)this.xpOrbAge);
         compound.setShort("Value", (short)this.xpValue);
+        compound.setInteger("Count", this.getCount());
     }
 
     /**
@@ -232,6 +298,7 @@ public class EntityXPOrb extends Entity
         this.xpOrbHealth = compound.getShort("Health");
         this.xpOrbAge = compound.getShort("Age");
         this.xpValue = compound.getShort("Value");
+        this.setCount(compound.hasKey("Count", 99) ? Math.max(compound.getInteger("Count"), 1) : 1);
     }
 
     /**
@@ -246,20 +313,28 @@ public class EntityXPOrb extends Entity
                 entityIn.xpCooldown = 2;
                 entityIn.onItemPickup(this, 1);
                 ItemStack itemstack = EnchantmentHelper.getEnchantedItem(Enchantments.MENDING, entityIn);
+                int i = this.xpValue;
 
                 if (!itemstack.isEmpty() && itemstack.isItemDamaged())
                 {
-                    int i = Math.min(this.xpToDurability(this.xpValue), itemstack.getItemDamage());
-                    this.xpValue -= this.durabilityToXp(i);
-                    itemstack.setItemDamage(itemstack.getItemDamage() - i);
+                    int j = Math.min(this.xpToDurability(i), itemstack.getItemDamage());
+                    i -= this.durabilityToXp(j);
+                    itemstack.setItemDamage(itemstack.getItemDamage() - j);
                 }
 
-                if (this.xpValue > 0)
+                if (i > 0)
                 {
-                    entityIn.addExperience(this.xpValue);
+                    entityIn.addExperience(i);
                 }
 
-                this.setDead();
+                if (this.getCount() > 1)
+                {
+                    this.setCount(this.getCount() - 1);
+                }
+                else
+                {
+                    this.setDead();
+                }
             }
         }
     }
@@ -282,6 +357,19 @@ public class EntityXPOrb extends Entity
         return this.xpValue;
     }
 
+    /**
+     * Returns how many orbs of the same value this orb stands for. Each is picked up separately.
+     */
+    public int getCount()
+    {
+        return ((Integer)this.getDataManager().get(COUNT)).intValue();
+    }
+
+    public void setCount(int countIn)
+    {
+        this.getDataManager().set(COUNT, Integer.valueOf(countIn));
+    }
+
     /**
      * Returns a number from 1 to 10 based on how much XP this orb is worth. This is used by RenderXPOrb to determine
      * what texture to use.
@@ -717,6 +717,11 @@ public class EntityPlayerMP extends EntityPlayer implements IContainerListener
     @Nullable
     public Entity changeDimension(int dimensionIn)
     {
+        if (this.getServerWorld().deferDimensionChange(this, dimensionIn))
+        {
+            return this;
+        }
+
         this.invulnerableDimensionChange = true;
 
         if (this.dimension == 0 && dimensionIn == -1)
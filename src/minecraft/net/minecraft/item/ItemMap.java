@@ -396,7 +396,10 @@ public class ItemMap extends ItemMapBase
 
             if (isSelected || entityIn instanceof EntityPlayer && ((EntityPlayer)entityIn).getHeldItemOffhand() == stack)
             {
-                this.updateMapData(worldIn, entityIn, mapdata);
+                synchronized (mapdata)
+                {
+                    this.updateMapData(worldIn, entityIn, mapdata);
+                }
             }
         }
     }
@@ -281,9 +281,10 @@ public class FlyingNodeProcessor extends WalkNodeProcessor
 
     public PathNodeType getPathNodeType(IBlockAccess blockaccessIn, int x, int y, int z, EntityLiving entitylivingIn, int xSize, int ySize, int zSize, boolean canBreakDoorsIn, boolean canEnterDoorsIn)
     {
-        EnumSet<PathNodeType> enumset = EnumSet.<PathNodeType>noneOf(PathNodeType.class);
+        EnumSet<PathNodeType> enumset = this.nodeTypes;
+        enumset.clear();
         PathNodeType pathnodetype = PathNodeType.BLOCKED;
-        BlockPos blockpos = new BlockPos(entitylivingIn);
+        BlockPos blockpos = this.mobPos.setPos(entitylivingIn);
         pathnodetype = this.getPathNodeType(blockaccessIn, x, y, z, xSize, ySize, zSize, canBreakDoorsIn, canEnterDoorsIn, enumset, pathnodetype, blockpos);
 
         if (enumset.contains(PathNodeType.FENCE))
@@ -324,10 +325,10 @@ public class FlyingNodeProcessor extends WalkNodeProcessor
 
         if (pathnodetype == PathNodeType.OPEN && y >= 1)
         {
-            Block block = blockaccessIn.getBlockState(new BlockPos(x, y - 1, z)).getBlock();
-            PathNodeType pathnodetype1 = this.getPathNodeTypeRaw(blockaccessIn, x, y - 1, z);
+            int i = PathNodeTypeCache.getRawType(blockaccessIn, x, y - 1, z, this.nodePos);
+            PathNodeType pathnodetype1 = PathNodeTypeCache.getNodeType(i);
 
-            if (pathnodetype1 != PathNodeType.DAMAGE_FIRE && block != Blocks.MAGMA && pathnodetype1 != PathNodeType.LAVA)
+            if (pathnodetype1 != PathNodeType.DAMAGE_FIRE && (i & PathNodeTypeCache.MAGMA) == 0 && pathnodetype1 != PathNodeType.LAVA)
             {
                 if (pathnodetype1 == PathNodeType.DAMAGE_CACTUS)
                 {
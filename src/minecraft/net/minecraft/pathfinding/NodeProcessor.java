@@ -1,7 +1,6 @@
 package net.minecraft.pathfinding;
 
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.util.IntHashMap;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.IBlockAccess;
 
@@ -9,7 +8,9 @@ public abstract class NodeProcessor
 {
     protected IBlockAccess blockaccess;
     protected EntityLiving entity;
-    protected final IntHashMap<PathPoint> pointMap = new IntHashMap<PathPoint>();
+
+    /** The points opened by the search, from the table of the thread searching. */
+    protected PathPointTable pointMap;
     protected int entitySizeX;
     protected int entitySizeY;
     protected int entitySizeZ;
@@ -21,7 +22,8 @@ public abstract class NodeProcessor
     {
         this.blockaccess = sourceIn;
         this.entity = mob;
-        this.pointMap.clearMap();
+        this.pointMap = PathPointTable.get();
+        this.pointMap.clear();
         this.entitySizeX = MathHelper.floor(mob.width + 1.0F);
         this.entitySizeY = MathHelper.floor(mob.height + 1.0F);
         this.entitySizeZ = MathHelper.floor(mob.width + 1.0F);
@@ -36,6 +38,7 @@ public abstract class NodeProcessor
     {
         this.blockaccess = null;
         this.entity = null;
+        this.pointMap = null;
     }
 
     /**
@@ -43,16 +46,7 @@ public abstract class NodeProcessor
      */
     protected PathPoint openPoint(int x, int y, int z)
     {
-        int i = PathPoint.makeHash(x, y, z);
-        PathPoint pathpoint = this.pointMap.lookup(i);
-
-        if (pathpoint == null)
-        {
-            pathpoint = new PathPoint(x, y, z);
-            this.pointMap.addKey(i, pathpoint);
-        }
-
-        return pathpoint;
+        return this.pointMap.openPoint(x, y, z);
     }
 
     public abstract PathPoint getStart();
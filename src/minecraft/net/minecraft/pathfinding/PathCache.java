@@ -0,0 +1,329 @@
+package net.minecraft.pathfinding;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+
+/**
+ * The paths found in a world over the last second, when the sharePaths rule is on, so mobs heading for the same cell,
+ * such as a crowd chasing a player or villagers walking to the same door, can share them. A mob standing where a path
+ * to its target starts gets a copy of it, and a mob standing on one further along gets the rest of it from there.
+ * Paths are only shared between mobs that search alike, and are dropped once a block near them changes shape.
+ *
+ * Navigators look paths up and add them while their region ticks and from pathfinding threads, so this is synchronized.
+ */
+public class PathCache
+{
+    private static final PathNodeType[] NODE_TYPES = PathNodeType.values();
+    private static final int MAX_PATHS = 256;
+    private static final long MAX_AGE = 20L;
+    private final World world;
+
+    /** The paths, by where they lead and who can follow them. */
+    private final Map<PathCache.Target, List<PathCache.Entry>> paths = Maps.<PathCache.Target, List<PathCache.Entry>>newHashMap();
+
+    /** The same paths, oldest first. */
+    private final ArrayDeque<PathCache.Entry> entries = new ArrayDeque<PathCache.Entry>();
+    private long hitCount;
+    private long splicedCount;
+    private long missCount;
+
+    public PathCache(World worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Returns the target of a search by the mob, or null if its searches are not shared, as it is not standing on the
+     * ground.
+     */
+    @Nullable
+    public static PathCache.Target getTarget(EntityLiving entityIn, NodeProcessor processor, double x, double y, double z, float maxDistance)
+    {
+        return entityIn.onGround && !entityIn.isInWater() ? new PathCache.Target(entityIn, processor, x, y, z, maxDistance) : null;
+    }
+
+    /**
+     * Returns a copy of a path to the target from where the mob stands, or null if none is known.
+     */
+    @Nullable
+    public synchronized Path getPath(PathCache.Target target, EntityLiving entityIn)
+    {
+        this.removeOldPaths();
+        List<PathCache.Entry> list = this.paths.get(target);
+
+        if (list != null)
+        {
+            int i = MathHelper.floor(entityIn.posX);
+            int j = MathHelper.floor(entityIn.getEntityBoundingBox().minY + 0.5D);
+            int k = MathHelper.floor(entityIn.posZ);
+
+            for (int l = list.size() - 1; l >= 0; --l)
+            {
+                PathPoint[] apathpoint = (list.get(l)).points;
+
+                for (int i1 = 0; i1 < apathpoint.length - 1; ++i1)
+                {
+                    PathPoint pathpoint = apathpoint[i1];
+
+                    if (pathpoint.x == i && pathpoint.y == j && pathpoint.z == k)
+                    {
+                        if (i1 == 0)
+                        {
+                            ++this.hitCount;
+                        }
+                        else
+                        {
+                            ++this.splicedCount;
+                        }
+
+                        return new Path(Arrays.copyOfRange(apathpoint, i1, apathpoint.length));
+                    }
+                }
+            }
+        }
+
+        ++this.missCount;
+        return null;
+    }
+
+    /**
+     * Adds a path just found to the target, if it gets there. Paths cut short by the search giving up are left out, as
+     * a mob setting off elsewhere along them may have found its way.
+     */
+    public synchronized void addPath(PathCache.Target target, Path pathIn)
+    {
+        PathPoint pathpoint = pathIn.getFinalPathPoint();
+
+        if (pathpoint == null || pathpoint.x != target.x || pathpoint.y != target.y || pathpoint.z != target.z)
+        {
+            return;
+        }
+
+        PathPoint[] apathpoint = new PathPoint[pathIn.getCurrentPathLength()];
+
+        for (int i = 0; i < apathpoint.length; ++i)
+        {
+            apathpoint[i] = pathIn.getPathPointFromIndex(i);
+        }
+
+        PathCache.Entry pathcache$entry = new PathCache.Entry(target, apathpoint, this.world.getTotalWorldTime());
+        List<PathCache.Entry> list = this.paths.get(target);
+
+        if (list == null)
+        {
+            list = Lists.<PathCache.Entry>newArrayListWithCapacity(2);
+            this.paths.put(target, list);
+        }
+
+        list.add(pathcache$entry);
+        this.entries.addLast(pathcache$entry);
+        this.removeOldPaths();
+    }
+
+    /**
+     * Drops the paths that pass close enough to the block for its change of shape to matter to the mobs following them.
+     */
+    public synchronized void onBlockChanged(BlockPos pos)
+    {
+        if (!this.entries.isEmpty())
+        {
+            Iterator<PathCache.Entry> iterator = this.entries.iterator();
+
+            while (iterator.hasNext())
+            {
+                PathCache.Entry pathcache$entry = iterator.next();
+
+                if (pathcache$entry.isNear(pos))
+                {
+                    iterator.remove();
+                    this.removeFromTarget(pathcache$entry);
+                }
+            }
+        }
+    }
+
+    private void removeOldPaths()
+    {
+        long i = this.world.getTotalWorldTime();
+
+        while (!this.entries.isEmpty() && (this.entries.size() > MAX_PATHS || i - (this.entries.peekFirst()).time > MAX_AGE))
+        {
+            this.removeFromTarget(this.entries.removeFirst());
+        }
+    }
+
+    private void removeFromTarget(PathCache.Entry entry)
+    {
+        List<PathCache.Entry> list = this.paths.get(entry.target);
+        list.remove(entry);
+
+        if (list.isEmpty())
+        {
+            this.paths.remove(entry.target);
+        }
+    }
+
+    /**
+     * How many paths were handed out whole.
+     */
+    public long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    /**
+     * How many paths were handed out from a point further along.
+     */
+    public long getSplicedCount()
+    {
+        return this.splicedCount;
+    }
+
+    /**
+     * How many searches found no path to share and were run.
+     */
+    public long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    static class Entry
+    {
+        private final PathCache.Target target;
+        private final PathPoint[] points;
+        private final long time;
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int maxX;
+        private final int maxY;
+        private final int maxZ;
+
+        public Entry(PathCache.Target targetIn, PathPoint[] pointsIn, long timeIn)
+        {
+            this.target = targetIn;
+            this.points = pointsIn;
+            this.time = timeIn;
+            int i = Integer.MAX_VALUE;
+            int j = Integer.MAX_VALUE;
+            int k = Integer.MAX_VALUE;
+            int l = Integer.MIN_VALUE;
+            int i1 = Integer.MIN_VALUE;
+            int j1 = Integer.MIN_VALUE;
+
+            for (PathPoint pathpoint : pointsIn)
+            {
+                i = Math.min(i, pathpoint.x);
+                j = Math.min(j, pathpoint.y);
+                k = Math.min(k, pathpoint.z);
+                l = Math.max(l, pathpoint.x);
+                i1 = Math.max(i1, pathpoint.y);
+                j1 = Math.max(j1, pathpoint.z);
+            }
+
+            this.minX = i - 1;
+            this.minY = j - 1 - targetIn.maxFallHeight;
+            this.minZ = k - 1;
+            this.maxX = l + targetIn.sizeX;
+            this.maxY = i1 + targetIn.sizeY;
+            this.maxZ = j1 + targetIn.sizeX;
+        }
+
+        /**
+         * Whether the block is within reach of the mobs' bodies, the blocks they step on and the drops they check,
+         * anywhere along the path.
+         */
+        public boolean isNear(BlockPos pos)
+        {
+            return pos.getX() >= this.minX && pos.getX() <= this.maxX && pos.getY() >= this.minY && pos.getY() <= this.maxY && pos.getZ() >= this.minZ && pos.getZ() <= this.maxZ;
+        }
+    }
+
+    /**
+     * Where a search leads, and everything about the mob searching that the search depends on.
+     */
+    public static class Target
+    {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final float maxDistance;
+        private final Class<?> processorClass;
+        private final boolean canEnterDoors;
+        private final boolean canOpenDoors;
+        private final boolean canSwim;
+        private final float width;
+        private final float height;
+        private final int sizeX;
+        private final int sizeY;
+        private final int stepHeight;
+        private final int maxFallHeight;
+        private final float[] priorities;
+        private final int hash;
+
+        private Target(EntityLiving entityIn, NodeProcessor processor, double xIn, double yIn, double zIn, float maxDistanceIn)
+        {
+            this.x = MathHelper.floor(xIn);
+            this.y = MathHelper.floor(yIn);
+            this.z = MathHelper.floor(zIn);
+            this.maxDistance = maxDistanceIn;
+            this.processorClass = processor.getClass();
+            this.canEnterDoors = processor.getCanEnterDoors();
+            this.canOpenDoors = processor.getCanOpenDoors();
+            this.canSwim = processor.getCanSwim();
+            this.width = entityIn.width;
+            this.height = entityIn.height;
+            this.sizeX = MathHelper.floor(entityIn.width + 1.0F);
+            this.sizeY = MathHelper.floor(entityIn.height + 1.0F);
+            this.stepHeight = MathHelper.floor(Math.max(1.0F, entityIn.stepHeight));
+            this.maxFallHeight = entityIn.getMaxFallHeight();
+            this.priorities = new float[NODE_TYPES.length];
+
+            for (int i = 0; i < NODE_TYPES.length; ++i)
+            {
+                this.priorities[i] = entityIn.getPathPriority(NODE_TYPES[i]);
+            }
+
+            int j = this.x;
+            j = 31 * j + this.y;
+            j = 31 * j + this.z;
+            j = 31 * j + Float.floatToIntBits(this.maxDistance);
+            j = 31 * j + this.processorClass.hashCode();
+            j = 31 * j + Float.floatToIntBits(this.width);
+            j = 31 * j + Float.floatToIntBits(this.height);
+            this.hash = 31 * j + Arrays.hashCode(this.priorities);
+        }
+
+        public boolean equals(Object p_equals_1_)
+        {
+            if (this == p_equals_1_)
+            {
+                return true;
+            }
+            else if (!(p_equals_1_ instanceof PathCache.Target))
+            {
+                return false;
+            }
+            else
+            {
+                PathCache.Target pathcache$target = (PathCache.Target)p_equals_1_;
+                return this.hash == pathcache$target.hash && this.x == pathcache$target.x && this.y == pathcache$target.y && this.z == pathcache$target.z && this.maxDistance == pathcache$target.maxDistance && this.processorClass == pathcache$target.processorClass && this.canEnterDoors == pathcache$target.canEnterDoors && this.canOpenDoors == pathcache$target.canOpenDoors && this.canSwim == pathcache$target.canSwim && this.width == pathcache$target.width && this.height == pathcache$target.height && this.stepHeight == pathcache$target.stepHeight && this.maxFallHeight == pathcache$target.maxFallHeight && Arrays.equals(this.priorities, pathcache$target.priorities);
+            }
+        }
+
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+}
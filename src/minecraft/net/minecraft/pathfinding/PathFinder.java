@@ -36,7 +36,7 @@ public class PathFinder
     }
 
     @Nullable
-    private Path findPath(IBlockAccess worldIn, EntityLiving entitylivingIn, double x, double y, double z, float maxDistance)
+    Path findPath(IBlockAccess worldIn, EntityLiving entitylivingIn, double x, double y, double z, float maxDistance)
     {
         this.path.clearPath();
         this.nodeProcessor.init(worldIn, entitylivingIn);
@@ -123,7 +123,8 @@ public class PathFinder
     }
 
     /**
-     * Returns a new PathEntity for a given start and end point
+     * Returns a new PathEntity for a given start and end point, made of copies of the points, as the searched ones are
+     * handed out again by the next search.
      */
     private Path createPath(PathPoint start, PathPoint end)
     {
@@ -136,12 +137,16 @@ public class PathFinder
 
         PathPoint[] apathpoint = new PathPoint[i];
         PathPoint pathpoint1 = end;
-        --i;
 
-        for (apathpoint[i] = end; pathpoint1.previous != null; apathpoint[i] = pathpoint1)
+        for (int j = i - 1; j >= 0; --j)
         {
+            apathpoint[j] = pathpoint1.cloneMove(pathpoint1.x, pathpoint1.y, pathpoint1.z);
             pathpoint1 = pathpoint1.previous;
-            --i;
+        }
+
+        for (int k = 0; k < i; ++k)
+        {
+            apathpoint[k].previous = k > 0 ? apathpoint[k - 1] : null;
         }
 
         return new Path(apathpoint);
@@ -1,5 +1,6 @@
 package net.minecraft.pathfinding;
 
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -13,7 +14,9 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.ChunkCache;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 
 public abstract class PathNavigate
 {
@@ -53,6 +56,13 @@ public abstract class PathNavigate
     private BlockPos targetPos;
     private final PathFinder pathFinder;
 
+    /** The path asked to be found off the main thread, or null. Only the latest request is handed over. */
+    @Nullable
+    PathRequest pathRequest;
+
+    /** Set while a search is run to ask for its path to be found off the main thread. */
+    private boolean findingAsync;
+
     public PathNavigate(EntityLiving entityIn, World worldIn)
     {
         this.entity = entityIn;
@@ -94,8 +104,28 @@ public abstract class PathNavigate
         {
             if (this.targetPos != null)
             {
+                Path path = this.currentPath;
                 this.currentPath = null;
-                this.currentPath = this.getPathToPos(this.targetPos);
+
+                if (this.canFindPathAsync())
+                {
+                    PathRequest pathrequest = this.pathRequest;
+                    Path path1 = this.findPathAsync(() -> this.getPathToPos(this.targetPos));
+
+                    if (this.pathRequest != null && this.pathRequest != pathrequest)
+                    {
+                        this.currentPath = path;
+                    }
+                    else
+                    {
+                        this.currentPath = path1;
+                    }
+                }
+                else
+                {
+                    this.currentPath = this.getPathToPos(this.targetPos);
+                }
+
                 this.lastTimeUpdated = this.world.getTotalWorldTime();
                 this.tryUpdatePath = false;
             }
@@ -138,8 +168,7 @@ public abstract class PathNavigate
             this.world.profiler.startSection("pathfind");
             BlockPos blockpos = new BlockPos(this.entity);
             int i = (int)(f + 8.0F);
-            ChunkCache chunkcache = new ChunkCache(this.world, blockpos.add(-i, -i, -i), blockpos.add(i, i, i), 0);
-            Path path = this.pathFinder.findPath(chunkcache, this.entity, this.targetPos, f);
+            Path path = this.findPath(blockpos, i, (double)((float)this.targetPos.getX() + 0.5F), (double)((float)this.targetPos.getY() + 0.5F), (double)((float)this.targetPos.getZ() + 0.5F), f);
             this.world.profiler.endSection();
             return path;
         }
@@ -171,20 +200,165 @@ public abstract class PathNavigate
                 this.world.profiler.startSection("pathfind");
                 BlockPos blockpos1 = (new BlockPos(this.entity)).up();
                 int i = (int)(f + 16.0F);
-                ChunkCache chunkcache = new ChunkCache(this.world, blockpos1.add(-i, -i, -i), blockpos1.add(i, i, i), 0);
-                Path path = this.pathFinder.findPath(chunkcache, this.entity, entityIn, f);
+                Path path = this.findPath(blockpos1, i, entityIn.posX, entityIn.getEntityBoundingBox().minY, entityIn.posZ, f);
                 this.world.profiler.endSection();
                 return path;
             }
         }
     }
 
+    /**
+     * Finds a path within the given range of the center, searching the blocks around it unless a shared path will do.
+     */
+    @Nullable
+    private Path findPath(BlockPos center, int range, double x, double y, double z, float maxDistance)
+    {
+        PathCache.Target pathcache$target = null;
+
+        if (this.canSharePaths())
+        {
+            pathcache$target = PathCache.getTarget(this.entity, this.nodeProcessor, x, y, z, maxDistance);
+
+            if (pathcache$target != null)
+            {
+                Path path = ((WorldServer)this.world).getPathCache().getPath(pathcache$target, this.entity);
+
+                if (path != null)
+                {
+                    this.pathRequest = null;
+                    return path;
+                }
+            }
+        }
+
+        ChunkCache chunkcache = new ChunkCache(this.world, center.add(-range, -range, -range), center.add(range, range, range), 0);
+
+        if (this.findingAsync)
+        {
+            this.pathRequest = new PathRequest(this, chunkcache, x, y, z, maxDistance);
+            this.pathRequest.cacheTarget = pathcache$target;
+            ((WorldServer)this.world).getPathfindingScheduler().add(this.pathRequest);
+            return null;
+        }
+        else
+        {
+            return this.findPath(chunkcache, x, y, z, maxDistance, pathcache$target);
+        }
+    }
+
+    /**
+     * Finds the path asked for. Called off the main thread while the world is not being changed.
+     */
+    @Nullable
+    Path findPath(PathRequest request)
+    {
+        return this.findPath(request.blockAccess, request.x, request.y, request.z, request.maxDistance, request.cacheTarget);
+    }
+
+    /**
+     * Finds the path, and shares it under the target if there is one.
+     */
+    @Nullable
+    private Path findPath(IBlockAccess blockAccess, double x, double y, double z, float maxDistance, @Nullable PathCache.Target cacheTarget)
+    {
+        Path path = this.pathFinder.findPath(blockAccess, this.entity, x, y, z, maxDistance);
+
+        if (path != null && cacheTarget != null)
+        {
+            ((WorldServer)this.world).getPathCache().addPath(cacheTarget, path);
+        }
+
+        return path;
+    }
+
+    /**
+     * Whether paths found are shared with other mobs heading the same way.
+     */
+    protected boolean canSharePaths()
+    {
+        return !this.world.isRemote && this.world.getGameRules().getBoolean("sharePaths");
+    }
+
+    /**
+     * Called on the main thread with the path found for the latest request.
+     */
+    void onPathFound(PathRequest request)
+    {
+        if (!request.setPath)
+        {
+            this.currentPath = request.path;
+        }
+        else if (request.path != null || !request.keepPathOnFailure)
+        {
+            this.setPath(request.path, request.speed);
+        }
+    }
+
+    /**
+     * Whether paths asked for with tryMoveTo and updatePath are found off the main thread.
+     */
+    protected boolean canFindPathAsync()
+    {
+        return !this.world.isRemote && this.world.getGameRules().getBoolean("asyncPathfinding");
+    }
+
+    /**
+     * Runs the search, asking for the path to be found off the main thread rather than finding it now.
+     */
+    @Nullable
+    private Path findPathAsync(Supplier<Path> search)
+    {
+        this.findingAsync = true;
+
+        try
+        {
+            return search.get();
+        }
+        finally
+        {
+            this.findingAsync = false;
+        }
+    }
+
+    /**
+     * Asks for the path the search looks for to be found off the main thread, to be set once found, and returns true
+     * if it was asked for. Otherwise sets the path the search returned and returns whether it could.
+     */
+    private boolean requestPath(Supplier<Path> search, double speedIn, boolean keepPathOnFailure)
+    {
+        PathRequest pathrequest = this.pathRequest;
+        Path path = this.findPathAsync(search);
+
+        if (this.pathRequest != null && this.pathRequest != pathrequest)
+        {
+            this.pathRequest.speed = speedIn;
+            this.pathRequest.setPath = true;
+            this.pathRequest.keepPathOnFailure = keepPathOnFailure;
+            return true;
+        }
+        else if (path == null && keepPathOnFailure)
+        {
+            return false;
+        }
+        else
+        {
+            return this.setPath(path, speedIn);
+        }
+    }
+
     /**
      * Try to find and set a path to XYZ. Returns true if successful. Args : x, y, z, speed
      */
     public boolean tryMoveToXYZ(double x, double y, double z, double speedIn)
     {
-        return this.setPath(this.getPathToXYZ(x, y, z), speedIn);
+        if (this.canFindPathAsync())
+        {
+            return this.requestPath(() -> this.getPathToXYZ(x, y, z), speedIn, false);
+        }
+        else
+        {
+            return this.setPath(this.getPathToXYZ(x, y, z), speedIn);
+        }
     }
 
     /**
@@ -192,8 +366,15 @@ public abstract class PathNavigate
      */
     public boolean tryMoveToEntityLiving(Entity entityIn, double speedIn)
     {
-        Path path = this.getPathToEntityLiving(entityIn);
-        return path != null && this.setPath(path, speedIn);
+        if (this.canFindPathAsync())
+        {
+            return this.requestPath(() -> this.getPathToEntityLiving(entityIn), speedIn, true);
+        }
+        else
+        {
+            Path path = this.getPathToEntityLiving(entityIn);
+            return path != null && this.setPath(path, speedIn);
+        }
     }
 
     /**
@@ -380,6 +561,7 @@ public abstract class PathNavigate
     public void clearPath()
     {
         this.currentPath = null;
+        this.pathRequest = null;
     }
 
     protected abstract Vec3d getEntityPosition();
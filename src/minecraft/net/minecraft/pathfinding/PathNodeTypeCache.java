@@ -0,0 +1,171 @@
+package net.minecraft.pathfinding;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockDoor;
+import net.minecraft.block.BlockFence;
+import net.minecraft.block.BlockFenceGate;
+import net.minecraft.block.BlockRailBase;
+import net.minecraft.block.BlockWall;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.ChunkCache;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * The raw path node types of blocks, which only depend on their state: worked out once per block state for all
+ * worlds, and kept per block by the chunk sections for the rest of the tick, so that the node processors looking at
+ * the same blocks again and again, within a search and across the searches of a tick, only read a byte.
+ *
+ * A raw type is packed with 1 added to its ordinal, so 0 means not worked out yet, and with MAGMA set for magma
+ * blocks, which walking mobs treat as fire when standing on them.
+ */
+public class PathNodeTypeCache
+{
+    private static final PathNodeType[] NODE_TYPES = PathNodeType.values();
+    public static final int MAGMA = 64;
+    private static final int OPEN = PathNodeType.OPEN.ordinal() + 1;
+
+    /** The packed raw types of the block states seen so far, replaced rather than changed as states are added. */
+    private static volatile Map<IBlockState, Integer> stateTypes = new IdentityHashMap<IBlockState, Integer>();
+
+    /**
+     * Returns the packed raw type of the block at the given coordinates. Blocks read through a chunk cache are looked up
+     * in the types their chunk section kept this tick.
+     */
+    public static int getRawType(IBlockAccess blockaccessIn, int x, int y, int z, BlockPos.MutableBlockPos pos)
+    {
+        if (blockaccessIn instanceof ChunkCache)
+        {
+            if (y < 0 || y >= 256)
+            {
+                return OPEN;
+            }
+
+            Chunk chunk = ((ChunkCache)blockaccessIn).getChunk(x >> 4, z >> 4);
+
+            if (chunk == null)
+            {
+                return OPEN;
+            }
+            else if (chunk.getWorld().getWorldType() != WorldType.DEBUG_ALL_BLOCK_STATES)
+            {
+                ExtendedBlockStorage extendedblockstorage = chunk.getBlockStorageArray()[y >> 4];
+
+                if (extendedblockstorage == Chunk.NULL_BLOCK_STORAGE)
+                {
+                    return OPEN;
+                }
+
+                byte[] abyte = extendedblockstorage.getPathNodeTypes(chunk.getWorld().getTotalWorldTime());
+                int i = (y & 15) << 8 | (z & 15) << 4 | x & 15;
+                int j = abyte[i];
+
+                if (j == 0)
+                {
+                    j = getRawType(blockaccessIn, pos.setPos(x, y, z), extendedblockstorage.get(x & 15, y & 15, z & 15));
+                    abyte[i] = (byte)j;
+                }
+
+                return j;
+            }
+        }
+
+        pos.setPos(x, y, z);
+        return getRawType(blockaccessIn, pos, blockaccessIn.getBlockState(pos));
+    }
+
+    public static PathNodeType getNodeType(int rawType)
+    {
+        return NODE_TYPES[(rawType & ~MAGMA) - 1];
+    }
+
+    /**
+     * Returns the packed raw type of the given state.
+     */
+    private static int getRawType(IBlockAccess blockaccessIn, BlockPos pos, IBlockState state)
+    {
+        Integer integer = stateTypes.get(state);
+
+        if (integer == null)
+        {
+            integer = Integer.valueOf(getPathNodeTypeRaw(blockaccessIn, pos, state).ordinal() + 1 | (state.getBlock() == Blocks.MAGMA ? MAGMA : 0));
+
+            synchronized (PathNodeTypeCache.class)
+            {
+                Map<IBlockState, Integer> map = new IdentityHashMap<IBlockState, Integer>(stateTypes);
+                map.put(state, integer);
+                stateTypes = map;
+            }
+        }
+
+        return integer.intValue();
+    }
+
+    private static PathNodeType getPathNodeTypeRaw(IBlockAccess blockaccessIn, BlockPos pos, IBlockState state)
+    {
+        Block block = state.getBlock();
+        Material material = state.getMaterial();
+
+        if (material == Material.AIR)
+        {
+            return PathNodeType.OPEN;
+        }
+        else if (block != Blocks.TRAPDOOR && block != Blocks.IRON_TRAPDOOR && block != Blocks.WATERLILY)
+        {
+            if (block == Blocks.FIRE)
+            {
+                return PathNodeType.DAMAGE_FIRE;
+            }
+            else if (block == Blocks.CACTUS)
+            {
+                return PathNodeType.DAMAGE_CACTUS;
+            }
+            else if (block instanceof BlockDoor && material == Material.WOOD && !((Boolean)state.getValue(BlockDoor.OPEN)).booleanValue())
+            {
+                return PathNodeType.DOOR_WOOD_CLOSED;
+            }
+            else if (block instanceof BlockDoor && material == Material.IRON && !((Boolean)state.getValue(BlockDoor.OPEN)).booleanValue())
+            {
+                return PathNodeType.DOOR_IRON_CLOSED;
+            }
+            else if (block instanceof BlockDoor && ((Boolean)state.getValue(BlockDoor.OPEN)).booleanValue())
+            {
+                return PathNodeType.DOOR_OPEN;
+            }
+            else if (block instanceof BlockRailBase)
+            {
+                return PathNodeType.RAIL;
+            }
+            else if (!(block instanceof BlockFence) && !(block instanceof BlockWall) && (!(block instanceof BlockFenceGate) || ((Boolean)state.getValue(BlockFenceGate.OPEN)).booleanValue()))
+            {
+                if (material == Material.WATER)
+                {
+                    return PathNodeType.WATER;
+                }
+                else if (material == Material.LAVA)
+                {
+                    return PathNodeType.LAVA;
+                }
+                else
+                {
+                    return block.isPassable(blockaccessIn, pos) ? PathNodeType.OPEN : PathNodeType.BLOCKED;
+                }
+            }
+            else
+            {
+                return PathNodeType.FENCE;
+            }
+        }
+        else
+        {
+            return PathNodeType.TRAPDOOR;
+        }
+    }
+}
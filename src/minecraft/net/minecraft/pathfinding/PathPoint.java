@@ -6,16 +6,16 @@ import net.minecraft.util.math.MathHelper;
 public class PathPoint
 {
     /** The x coordinate of this point */
-    public final int x;
+    public int x;
 
     /** The y coordinate of this point */
-    public final int y;
+    public int y;
 
     /** The z coordinate of this point */
-    public final int z;
+    public int z;
 
     /** A hash of the coordinates used to identify this point */
-    private final int hash;
+    private int hash;
 
     /** The index of this point in its assigned path */
     public int index = -1;
@@ -47,6 +47,27 @@ public class PathPoint
         this.hash = makeHash(x, y, z);
     }
 
+    /**
+     * Makes this a fresh point at the given coordinates, for PathPointTable to hand out again.
+     */
+    void reset(int x, int y, int z)
+    {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.hash = makeHash(x, y, z);
+        this.index = -1;
+        this.totalPathDistance = 0.0F;
+        this.distanceToNext = 0.0F;
+        this.distanceToTarget = 0.0F;
+        this.previous = null;
+        this.visited = false;
+        this.distanceFromOrigin = 0.0F;
+        this.cost = 0.0F;
+        this.costMalus = 0.0F;
+        this.nodeType = PathNodeType.BLOCKED;
+    }
+
     public PathPoint cloneMove(int x, int y, int z)
     {
         PathPoint pathpoint = new PathPoint(x, y, z);
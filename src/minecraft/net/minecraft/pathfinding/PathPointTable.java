@@ -0,0 +1,116 @@
+package net.minecraft.pathfinding;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import java.util.Arrays;
+
+/**
+ * The points a search has opened, by their hash, in an open addressing table. The points are kept and handed out again
+ * by later searches, so a search only allocates points while it opens more than any search before it. Emptying the
+ * table just starts a new generation; slots stamped with an older one are free.
+ *
+ * There is one table per thread, shared by the node processors searching on it, as a search runs start to finish on
+ * one thread. Points handed out are only valid until the next search on the thread, so paths are built from copies.
+ */
+public class PathPointTable
+{
+    private static final ThreadLocal<PathPointTable> TABLES = new ThreadLocal<PathPointTable>()
+    {
+        protected PathPointTable initialValue()
+        {
+            return new PathPointTable();
+        }
+    };
+    private PathPoint[] points = new PathPoint[256];
+    private int pointCount;
+    private int[] slots = new int[512];
+    private int[] generations = new int[512];
+    private int generation = 1;
+    private int mask = 511;
+
+    public static PathPointTable get()
+    {
+        return TABLES.get();
+    }
+
+    public void clear()
+    {
+        this.pointCount = 0;
+
+        if (++this.generation == 0)
+        {
+            Arrays.fill(this.generations, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Returns the point opened at the given coordinates in this search, or a fresh one.
+     */
+    public PathPoint openPoint(int x, int y, int z)
+    {
+        int i = PathPoint.makeHash(x, y, z);
+        int j = HashCommon.mix(i) & this.mask;
+
+        while (this.generations[j] == this.generation)
+        {
+            PathPoint pathpoint = this.points[this.slots[j]];
+
+            if (pathpoint.hashCode() == i)
+            {
+                return pathpoint;
+            }
+
+            j = j + 1 & this.mask;
+        }
+
+        if (this.pointCount == this.points.length)
+        {
+            PathPoint[] apathpoint = new PathPoint[this.pointCount << 1];
+            System.arraycopy(this.points, 0, apathpoint, 0, this.pointCount);
+            this.points = apathpoint;
+        }
+
+        PathPoint pathpoint1 = this.points[this.pointCount];
+
+        if (pathpoint1 == null)
+        {
+            pathpoint1 = new PathPoint(x, y, z);
+            this.points[this.pointCount] = pathpoint1;
+        }
+        else
+        {
+            pathpoint1.reset(x, y, z);
+        }
+
+        this.generations[j] = this.generation;
+        this.slots[j] = this.pointCount++;
+
+        if (this.pointCount * 2 > this.slots.length)
+        {
+            this.rehash(this.slots.length << 1);
+        }
+
+        return pathpoint1;
+    }
+
+    private void rehash(int size)
+    {
+        this.slots = new int[size];
+        this.generations = new int[size];
+        this.generation = 1;
+        this.mask = size - 1;
+
+        for (int i = 0; i < this.pointCount; ++i)
+        {
+            int j = HashCommon.mix(this.points[i].hashCode()) & this.mask;
+
+            while (this.generations[j] == this.generation)
+            {
+                j = j + 1 & this.mask;
+            }
+
+            this.generations[j] = this.generation;
+            this.slots[j] = i;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.minecraft.pathfinding;
+
+import javax.annotation.Nullable;
+import net.minecraft.world.IBlockAccess;
+
+/**
+ * A path asked for by a navigator, to be found off the main thread by the PathfindingScheduler of its world.
+ */
+public class PathRequest
+{
+    final PathNavigate navigator;
+    final IBlockAccess blockAccess;
+    final double x;
+    final double y;
+    final double z;
+    final float maxDistance;
+    final long requestTime = System.nanoTime();
+
+    /** The speed to follow the path at, when it is set as tryMoveTo does. */
+    double speed;
+
+    /** Whether the path is set as tryMoveTo does, rather than replacing the current one as updatePath does. */
+    boolean setPath;
+
+    /** Whether the current path is kept when no path was found, as tryMoveToEntityLiving does. */
+    boolean keepPathOnFailure;
+
+    /** Where the path is shared once found, or null if it is not. */
+    @Nullable
+    PathCache.Target cacheTarget;
+    @Nullable
+    Path path;
+    long searchTime;
+
+    PathRequest(PathNavigate navigatorIn, IBlockAccess blockAccessIn, double xIn, double yIn, double zIn, float maxDistanceIn)
+    {
+        this.navigator = navigatorIn;
+        this.blockAccess = blockAccessIn;
+        this.x = xIn;
+        this.y = yIn;
+        this.z = zIn;
+        this.maxDistance = maxDistanceIn;
+    }
+
+    /**
+     * Finds the path, unless the navigator has asked for another one since.
+     */
+    void findPath()
+    {
+        if (this.navigator.pathRequest == this)
+        {
+            long i = System.nanoTime();
+            this.path = this.navigator.findPath(this);
+            this.searchTime = System.nanoTime() - i;
+        }
+    }
+}
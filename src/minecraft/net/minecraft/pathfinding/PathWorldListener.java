@@ -12,16 +12,30 @@ import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.RegionTickScheduler;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 
 public class PathWorldListener implements IWorldEventListener
 {
     private final List<PathNavigate> navigations = Lists.<PathNavigate>newArrayList();
 
+    /**
+     * Has navigators whose path may have been cut by the changed block find a new one, and drops the shared paths it
+     * may have cut. While a region is ticking, the navigators of entities outside that region are looked at once the
+     * regions are done.
+     */
     public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags)
     {
         if (this.didBlockChange(worldIn, pos, oldState, newState))
         {
+            List<PathNavigate> list = null;
+
+            if (worldIn instanceof WorldServer)
+            {
+                ((WorldServer)worldIn).getPathCache().onBlockChanged(pos);
+            }
+
             int i = 0;
 
             for (int j = this.navigations.size(); i < j; ++i)
@@ -30,21 +44,51 @@ public class PathWorldListener implements IWorldEventListener
 
                 if (pathnavigate != null && !pathnavigate.canUpdatePathOnTimeout())
                 {
-                    Path path = pathnavigate.getPath();
-
-                    if (path != null && !path.isFinished() && path.getCurrentPathLength() != 0)
+                    if (RegionTickScheduler.isOwnedHere(worldIn, pathnavigate.entity.chunkCoordX, pathnavigate.entity.chunkCoordZ))
                     {
-                        PathPoint pathpoint = pathnavigate.currentPath.getFinalPathPoint();
-                        double d0 = pos.distanceSq(((double)pathpoint.x + pathnavigate.entity.posX) / 2.0D, ((double)pathpoint.y + pathnavigate.entity.posY) / 2.0D, ((double)pathpoint.z + pathnavigate.entity.posZ) / 2.0D);
-                        int k = (path.getCurrentPathLength() - path.getCurrentPathIndex()) * (path.getCurrentPathLength() - path.getCurrentPathIndex());
-
-                        if (d0 < (double)k)
+                        this.updatePathIfCut(pathnavigate, pos);
+                    }
+                    else
+                    {
+                        if (list == null)
                         {
-                            pathnavigate.updatePath();
+                            list = Lists.<PathNavigate>newArrayList();
                         }
+
+                        list.add(pathnavigate);
                     }
                 }
             }
+
+            if (list != null)
+            {
+                List<PathNavigate> list1 = list;
+                BlockPos blockpos = pos.toImmutable();
+                ((WorldServer)worldIn).runAtSafePoint(() ->
+                {
+                    for (PathNavigate pathnavigate1 : list1)
+                    {
+                        this.updatePathIfCut(pathnavigate1, blockpos);
+                    }
+                });
+            }
+        }
+    }
+
+    private void updatePathIfCut(PathNavigate navigator, BlockPos pos)
+    {
+        Path path = navigator.getPath();
+
+        if (path != null && !path.isFinished() && path.getCurrentPathLength() != 0)
+        {
+            PathPoint pathpoint = navigator.currentPath.getFinalPathPoint();
+            double d0 = pos.distanceSq(((double)pathpoint.x + navigator.entity.posX) / 2.0D, ((double)pathpoint.y + navigator.entity.posY) / 2.0D, ((double)pathpoint.z + navigator.entity.posZ) / 2.0D);
+            int i = (path.getCurrentPathLength() - path.getCurrentPathIndex()) * (path.getCurrentPathLength() - path.getCurrentPathIndex());
+
+            if (d0 < (double)i)
+            {
+                navigator.updatePath();
+            }
         }
     }
 
@@ -0,0 +1,188 @@
+package net.minecraft.pathfinding;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.minecraft.crash.CrashReport;
+import net.minecraft.util.ReportedException;
+import net.minecraft.world.WorldServer;
+
+/**
+ * Finds the paths navigators ask for with tryMoveTo and updatePath when the asyncPathfinding rule is on. Requests are
+ * made during the tick with the same chunk cache as before, and found in parallel once the world is done updating
+ * entities and block entities, while nothing changes the world, so the cache is a still snapshot of the blocks around
+ * the mob. Each path is then handed to its navigator on the main thread, unless the navigator has since asked for
+ * another path, been cleared, or its mob has died or left the world. Until then the mob keeps following its previous
+ * path.
+ */
+public class PathfindingScheduler
+{
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, (new ThreadFactoryBuilder()).setNameFormat("Pathfinding #%d").setDaemon(true).build());
+    private final WorldServer world;
+
+    /** The requests waiting to be found, in the order they were made. Regions may add to it while they tick. */
+    private final List<PathRequest> requests = Lists.<PathRequest>newArrayList();
+    private long pathCount;
+    private long droppedCount;
+    private long totalLatency;
+    private long totalSearchTime;
+    private int maxQueueDepth;
+
+    public PathfindingScheduler(WorldServer worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    public void add(PathRequest request)
+    {
+        synchronized (this.requests)
+        {
+            this.requests.add(request);
+        }
+    }
+
+    /**
+     * Finds the paths asked for since the last call and hands them to their navigators.
+     */
+    public void findPaths()
+    {
+        List<PathRequest> list;
+
+        synchronized (this.requests)
+        {
+            if (this.requests.isEmpty())
+            {
+                return;
+            }
+
+            list = Lists.newArrayList(this.requests);
+            this.requests.clear();
+        }
+
+        this.maxQueueDepth = Math.max(this.maxQueueDepth, list.size());
+        int i = Math.min(THREADS, list.size());
+        List<Future<?>> list1 = Lists.<Future<?>>newArrayListWithCapacity(i);
+
+        for (int j = 0; j < i; ++j)
+        {
+            List<PathRequest> list2 = list.subList(list.size() * j / i, list.size() * (j + 1) / i);
+            list1.add(EXECUTOR.submit(() ->
+            {
+                for (int i1 = 0; i1 < list2.size(); ++i1)
+                {
+                    list2.get(i1).findPath();
+                }
+            }));
+        }
+
+        Throwable throwable = null;
+
+        for (int k = 0; k < list1.size(); ++k)
+        {
+            try
+            {
+                Uninterruptibles.getUninterruptibly(list1.get(k));
+            }
+            catch (ExecutionException executionexception)
+            {
+                if (throwable == null)
+                {
+                    throwable = executionexception.getCause();
+                }
+            }
+        }
+
+        if (throwable != null)
+        {
+            for (int l = 0; l < list.size(); ++l)
+            {
+                list.get(l).navigator.pathRequest = null;
+            }
+
+            throw throwable instanceof ReportedException ? (ReportedException)throwable : new ReportedException(CrashReport.makeCrashReport(throwable, "Exception finding paths"));
+        }
+        else
+        {
+            long k1 = System.nanoTime();
+
+            for (int l1 = 0; l1 < list.size(); ++l1)
+            {
+                PathRequest pathrequest = list.get(l1);
+                PathNavigate pathnavigate = pathrequest.navigator;
+
+                if (pathnavigate.pathRequest == pathrequest)
+                {
+                    pathnavigate.pathRequest = null;
+
+                    if (!pathnavigate.entity.isDead && pathnavigate.entity.world == this.world)
+                    {
+                        pathnavigate.onPathFound(pathrequest);
+                        ++this.pathCount;
+                        this.totalLatency += k1 - pathrequest.requestTime;
+                        this.totalSearchTime += pathrequest.searchTime;
+                        continue;
+                    }
+                }
+
+                ++this.droppedCount;
+            }
+        }
+    }
+
+    /**
+     * How many requests are waiting to be found.
+     */
+    public int getQueueDepth()
+    {
+        synchronized (this.requests)
+        {
+            return this.requests.size();
+        }
+    }
+
+    /**
+     * The most requests that have been waiting to be found at once.
+     */
+    public int getMaxQueueDepth()
+    {
+        return this.maxQueueDepth;
+    }
+
+    /**
+     * How many paths have been handed to their navigators.
+     */
+    public long getPathCount()
+    {
+        return this.pathCount;
+    }
+
+    /**
+     * How many requests were dropped because their navigator asked for another path, was cleared, or lost its mob.
+     */
+    public long getDroppedCount()
+    {
+        return this.droppedCount;
+    }
+
+    /**
+     * The average time, in nanoseconds, from a request being made to its path being handed to its navigator.
+     */
+    public long getAverageLatency()
+    {
+        return this.pathCount == 0L ? 0L : this.totalLatency / this.pathCount;
+    }
+
+    /**
+     * The average time, in nanoseconds, spent finding a path.
+     */
+    public long getAverageSearchTime()
+    {
+        return this.pathCount == 0L ? 0L : this.totalSearchTime / this.pathCount;
+    }
+}
@@ -5,13 +5,8 @@ import java.util.EnumSet;
 import java.util.Set;
 import javax.annotation.Nullable;
 import net.minecraft.block.Block;
-import net.minecraft.block.BlockDoor;
-import net.minecraft.block.BlockFence;
-import net.minecraft.block.BlockFenceGate;
 import net.minecraft.block.BlockRailBase;
-import net.minecraft.block.BlockWall;
 import net.minecraft.block.material.Material;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
@@ -24,6 +19,11 @@ public class WalkNodeProcessor extends NodeProcessor
 {
     protected float avoidsWater;
 
+    /** The node types found in the space the mob takes up, reused by getPathNodeType. */
+    protected final EnumSet<PathNodeType> nodeTypes = EnumSet.<PathNodeType>noneOf(PathNodeType.class);
+    protected final BlockPos.MutableBlockPos mobPos = new BlockPos.MutableBlockPos();
+    protected final BlockPos.MutableBlockPos nodePos = new BlockPos.MutableBlockPos();
+
     public void init(IBlockAccess sourceIn, EntityLiving mob)
     {
         super.init(sourceIn, mob);
@@ -116,7 +116,7 @@ public class WalkNodeProcessor extends NodeProcessor
             j = MathHelper.floor(Math.max(1.0F, this.entity.stepHeight));
         }
 
-        BlockPos blockpos = (new BlockPos(currentPoint.x, currentPoint.y, currentPoint.z)).down();
+        BlockPos blockpos = this.nodePos.setPos(currentPoint.x, currentPoint.y - 1, currentPoint.z);
         double d0 = (double)currentPoint.y - (1.0D - this.blockaccess.getBlockState(blockpos).getBoundingBox(this.blockaccess, blockpos).maxY);
         PathPoint pathpoint = this.getSafePoint(currentPoint.x, currentPoint.y, currentPoint.z + 1, j, d0, EnumFacing.SOUTH);
         PathPoint pathpoint1 = this.getSafePoint(currentPoint.x - 1, currentPoint.y, currentPoint.z, j, d0, EnumFacing.WEST);
@@ -199,8 +199,7 @@ public class WalkNodeProcessor extends NodeProcessor
     private PathPoint getSafePoint(int x, int y, int z, int p_186332_4_, double p_186332_5_, EnumFacing facing)
     {
         PathPoint pathpoint = null;
-        BlockPos blockpos = new BlockPos(x, y, z);
-        BlockPos blockpos1 = blockpos.down();
+        BlockPos blockpos1 = this.nodePos.setPos(x, y - 1, z);
         double d0 = (double)y - (1.0D - this.blockaccess.getBlockState(blockpos1).getBoundingBox(this.blockaccess, blockpos1).maxY);
 
         if (d0 - p_186332_5_ > 1.125D)
@@ -235,6 +234,7 @@ public class WalkNodeProcessor extends NodeProcessor
                         double d2 = (double)(x - facing.getXOffset()) + 0.5D;
                         double d3 = (double)(z - facing.getZOffset()) + 0.5D;
                         AxisAlignedBB axisalignedbb = new AxisAlignedBB(d2 - d1, (double)y + 0.001D, d3 - d1, d2 + d1, (double)((float)y + this.entity.height), d3 + d1);
+                        BlockPos blockpos = new BlockPos(x, y, z);
                         AxisAlignedBB axisalignedbb1 = this.blockaccess.getBlockState(blockpos).getBoundingBox(this.blockaccess, blockpos);
                         AxisAlignedBB axisalignedbb2 = axisalignedbb.expand(0.0D, axisalignedbb1.maxY - 0.002D, 0.0D);
 
@@ -303,10 +303,11 @@ public class WalkNodeProcessor extends NodeProcessor
 
     public PathNodeType getPathNodeType(IBlockAccess blockaccessIn, int x, int y, int z, EntityLiving entitylivingIn, int xSize, int ySize, int zSize, boolean canBreakDoorsIn, boolean canEnterDoorsIn)
     {
-        EnumSet<PathNodeType> enumset = EnumSet.<PathNodeType>noneOf(PathNodeType.class);
+        EnumSet<PathNodeType> enumset = this.nodeTypes;
+        enumset.clear();
         PathNodeType pathnodetype = PathNodeType.BLOCKED;
         double d0 = (double)entitylivingIn.width / 2.0D;
-        BlockPos blockpos = new BlockPos(entitylivingIn);
+        BlockPos blockpos = this.mobPos.setPos(entitylivingIn);
         pathnodetype = this.getPathNodeType(blockaccessIn, x, y, z, xSize, ySize, zSize, canBreakDoorsIn, canEnterDoorsIn, enumset, pathnodetype, blockpos);
 
         if (enumset.contains(PathNodeType.FENCE))
@@ -398,11 +399,11 @@ public class WalkNodeProcessor extends NodeProcessor
 
         if (pathnodetype == PathNodeType.OPEN && y >= 1)
         {
-            Block block = blockaccessIn.getBlockState(new BlockPos(x, y - 1, z)).getBlock();
-            PathNodeType pathnodetype1 = this.getPathNodeTypeRaw(blockaccessIn, x, y - 1, z);
+            int i = PathNodeTypeCache.getRawType(blockaccessIn, x, y - 1, z, this.nodePos);
+            PathNodeType pathnodetype1 = PathNodeTypeCache.getNodeType(i);
             pathnodetype = pathnodetype1 != PathNodeType.WALKABLE && pathnodetype1 != PathNodeType.OPEN && pathnodetype1 != PathNodeType.WATER && pathnodetype1 != PathNodeType.LAVA ? PathNodeType.WALKABLE : PathNodeType.OPEN;
 
-            if (pathnodetype1 == PathNodeType.DAMAGE_FIRE || block == Blocks.MAGMA)
+            if (pathnodetype1 == PathNodeType.DAMAGE_FIRE || (i & PathNodeTypeCache.MAGMA) != 0)
             {
                 pathnodetype = PathNodeType.DAMAGE_FIRE;
             }
@@ -419,8 +420,6 @@ public class WalkNodeProcessor extends NodeProcessor
 
     public PathNodeType checkNeighborBlocks(IBlockAccess p_193578_1_, int p_193578_2_, int p_193578_3_, int p_193578_4_, PathNodeType p_193578_5_)
     {
-        BlockPos.PooledMutableBlockPos blockpos$pooledmutableblockpos = BlockPos.PooledMutableBlockPos.retain();
-
         if (p_193578_5_ == PathNodeType.WALKABLE)
         {
             for (int i = -1; i <= 1; ++i)
@@ -429,13 +428,13 @@ public class WalkNodeProcessor extends NodeProcessor
                 {
                     if (i != 0 || j != 0)
                     {
-                        Block block = p_193578_1_.getBlockState(blockpos$pooledmutableblockpos.setPos(i + p_193578_2_, p_193578_3_, j + p_193578_4_)).getBlock();
+                        PathNodeType pathnodetype = this.getPathNodeTypeRaw(p_193578_1_, i + p_193578_2_, p_193578_3_, j + p_193578_4_);
 
-                        if (block == Blocks.CACTUS)
+                        if (pathnodetype == PathNodeType.DAMAGE_CACTUS)
                         {
                             p_193578_5_ = PathNodeType.DANGER_CACTUS;
                         }
-                        else if (block == Blocks.FIRE)
+                        else if (pathnodetype == PathNodeType.DAMAGE_FIRE)
                         {
                             p_193578_5_ = PathNodeType.DANGER_FIRE;
                         }
@@ -444,70 +443,11 @@ public class WalkNodeProcessor extends NodeProcessor
             }
         }
 
-        blockpos$pooledmutableblockpos.release();
         return p_193578_5_;
     }
 
     protected PathNodeType getPathNodeTypeRaw(IBlockAccess p_189553_1_, int p_189553_2_, int p_189553_3_, int p_189553_4_)
     {
-        BlockPos blockpos = new BlockPos(p_189553_2_, p_189553_3_, p_189553_4_);
-        IBlockState iblockstate = p_189553_1_.getBlockState(blockpos);
-        Block block = iblockstate.getBlock();
-        Material material = iblockstate.getMaterial();
-
-        if (material == Material.AIR)
-        {
-            return PathNodeType.OPEN;
-        }
-        else if (block != Blocks.TRAPDOOR && block != Blocks.IRON_TRAPDOOR && block != Blocks.WATERLILY)
-        {
-            if (block == Blocks.FIRE)
-            {
-                return PathNodeType.DAMAGE_FIRE;
-            }
-            else if (block == Blocks.CACTUS)
-            {
-                return PathNodeType.DAMAGE_CACTUS;
-            }
-            else if (block instanceof BlockDoor && material == Material.WOOD && !((Boolean)iblockstate.getValue(BlockDoor.OPEN)).booleanValue())
-            {
-                return PathNodeType.DOOR_WOOD_CLOSED;
-            }
-            else if (block instanceof BlockDoor && material == Material.IRON && !((Boolean)iblockstate.getValue(BlockDoor.OPEN)).booleanValue())
-            {
-                return PathNodeType.DOOR_IRON_CLOSED;
-            }
-            else if (block instanceof BlockDoor && ((Boolean)iblockstate.getValue(BlockDoor.OPEN)).booleanValue())
-            {
-                return PathNodeType.DOOR_OPEN;
-            }
-            else if (block instanceof BlockRailBase)
-            {
-                return PathNodeType.RAIL;
-            }
-            else if (!(block instanceof BlockFence) && !(block instanceof BlockWall) && (!(block instanceof BlockFenceGate) || ((Boolean)iblockstate.getValue(BlockFenceGate.OPEN)).booleanValue()))
-            {
-                if (material == Material.WATER)
-                {
-                    return PathNodeType.WATER;
-                }
-                else if (material == Material.LAVA)
-                {
-                    return PathNodeType.LAVA;
-                }
-                else
-                {
-                    return block.isPassable(p_189553_1_, blockpos) ? PathNodeType.OPEN : PathNodeType.BLOCKED;
-                }
-            }
-            else
-            {
-                return PathNodeType.FENCE;
-            }
-        }
-        else
-        {
-            return PathNodeType.TRAPDOOR;
-        }
+        return PathNodeTypeCache.getNodeType(PathNodeTypeCache.getRawType(p_189553_1_, p_189553_2_, p_189553_3_, p_189553_4_, this.nodePos));
     }
 }
@@ -41,7 +41,10 @@ public class Score
         }
         else
         {
-            this.setScorePoints(this.getScorePoints() + amount);
+            synchronized (this.scoreboard)
+            {
+                this.setScorePoints(this.getScorePoints() + amount);
+            }
         }
     }
 
@@ -53,7 +56,10 @@ public class Score
         }
         else
         {
-            this.setScorePoints(this.getScorePoints() - amount);
+            synchronized (this.scoreboard)
+            {
+                this.setScorePoints(this.getScorePoints() - amount);
+            }
         }
     }
 
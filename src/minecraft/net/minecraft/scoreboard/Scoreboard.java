@@ -28,7 +28,7 @@ public class Scoreboard
     /**
      * Returns a ScoreObjective for the objective name
      */
-    public ScoreObjective getObjective(String name)
+    public synchronized ScoreObjective getObjective(String name)
     {
         return this.scoreObjectives.get(name);
     }
@@ -36,7 +36,7 @@ public class Scoreboard
     /**
      * Create and returns the score objective for the given name and ScoreCriteria
      */
-    public ScoreObjective addScoreObjective(String name, IScoreCriteria criteria)
+    public synchronized ScoreObjective addScoreObjective(String name, IScoreCriteria criteria)
     {
         if (name.length() > 16)
         {
@@ -69,7 +69,7 @@ public class Scoreboard
         }
     }
 
-    public Collection<ScoreObjective> getObjectivesFromCriteria(IScoreCriteria criteria)
+    public synchronized Collection<ScoreObjective> getObjectivesFromCriteria(IScoreCriteria criteria)
     {
         Collection<ScoreObjective> collection = (Collection)this.scoreObjectiveCriterias.get(criteria);
         return collection == null ? Lists.newArrayList() : Lists.newArrayList(collection);
@@ -78,7 +78,7 @@ public class Scoreboard
     /**
      * Returns if the entity has the given ScoreObjective
      */
-    public boolean entityHasObjective(String name, ScoreObjective objective)
+    public synchronized boolean entityHasObjective(String name, ScoreObjective objective)
     {
         Map<ScoreObjective, Score> map = (Map)this.entitiesScoreObjectives.get(name);
 
@@ -96,7 +96,7 @@ public class Scoreboard
     /**
      * Get a player's score or create it if it does not exist
      */
-    public Score getOrCreateScore(String username, ScoreObjective objective)
+    public synchronized Score getOrCreateScore(String username, ScoreObjective objective)
     {
         if (username.length() > 40)
         {
@@ -124,7 +124,7 @@ public class Scoreboard
         }
     }
 
-    public Collection<Score> getSortedScores(ScoreObjective objective)
+    public synchronized Collection<Score> getSortedScores(ScoreObjective objective)
     {
         List<Score> list = Lists.<Score>newArrayList();
 
@@ -142,20 +142,20 @@ public class Scoreboard
         return list;
     }
 
-    public Collection<ScoreObjective> getScoreObjectives()
+    public synchronized Collection<ScoreObjective> getScoreObjectives()
     {
-        return this.scoreObjectives.values();
+        return Lists.newArrayList(this.scoreObjectives.values());
     }
 
-    public Collection<String> getObjectiveNames()
+    public synchronized Collection<String> getObjectiveNames()
     {
-        return this.entitiesScoreObjectives.keySet();
+        return Lists.newArrayList(this.entitiesScoreObjectives.keySet());
     }
 
     /**
      * Remove the given ScoreObjective for the given Entity name.
      */
-    public void removeObjectiveFromEntity(String name, ScoreObjective objective)
+    public synchronized void removeObjectiveFromEntity(String name, ScoreObjective objective)
     {
         if (objective == null)
         {
@@ -191,7 +191,7 @@ public class Scoreboard
         }
     }
 
-    public Collection<Score> getScores()
+    public synchronized Collection<Score> getScores()
     {
         Collection<Map<ScoreObjective, Score>> collection = this.entitiesScoreObjectives.values();
         List<Score> list = Lists.<Score>newArrayList();
@@ -204,7 +204,7 @@ public class Scoreboard
         return list;
     }
 
-    public Map<ScoreObjective, Score> getObjectivesForEntity(String name)
+    public synchronized Map<ScoreObjective, Score> getObjectivesForEntity(String name)
     {
         Map<ScoreObjective, Score> map = (Map)this.entitiesScoreObjectives.get(name);
 
@@ -216,7 +216,7 @@ public class Scoreboard
         return map;
     }
 
-    public void removeObjective(ScoreObjective objective)
+    public synchronized void removeObjective(ScoreObjective objective)
     {
         this.scoreObjectives.remove(objective.getName());
 
@@ -246,7 +246,7 @@ public class Scoreboard
     /**
      * 0 is tab menu, 1 is sidebar, 2 is below name
      */
-    public void setObjectiveInDisplaySlot(int objectiveSlot, ScoreObjective objective)
+    public synchronized void setObjectiveInDisplaySlot(int objectiveSlot, ScoreObjective objective)
     {
         this.objectiveDisplaySlots[objectiveSlot] = objective;
     }
@@ -256,7 +256,7 @@ public class Scoreboard
     /**
      * 0 is tab menu, 1 is sidebar, 2 is below name
      */
-    public ScoreObjective getObjectiveInDisplaySlot(int slotIn)
+    public synchronized ScoreObjective getObjectiveInDisplaySlot(int slotIn)
     {
         return this.objectiveDisplaySlots[slotIn];
     }
@@ -264,12 +264,12 @@ public class Scoreboard
     /**
      * Retrieve the ScorePlayerTeam instance identified by the passed team name
      */
-    public ScorePlayerTeam getTeam(String teamName)
+    public synchronized ScorePlayerTeam getTeam(String teamName)
     {
         return this.teams.get(teamName);
     }
 
-    public ScorePlayerTeam createTeam(String name)
+    public synchronized ScorePlayerTeam createTeam(String name)
     {
         if (name.length() > 16)
         {
@@ -296,7 +296,7 @@ public class Scoreboard
     /**
      * Removes the team from the scoreboard, updates all player memberships and broadcasts the deletion to all players
      */
-    public void removeTeam(ScorePlayerTeam playerTeam)
+    public synchronized void removeTeam(ScorePlayerTeam playerTeam)
     {
         this.teams.remove(playerTeam.getName());
 
@@ -311,7 +311,7 @@ public class Scoreboard
     /**
      * Adds a player to the given team
      */
-    public boolean addPlayerToTeam(String player, String newTeam)
+    public synchronized boolean addPlayerToTeam(String player, String newTeam)
     {
         if (player.length() > 40)
         {
@@ -336,7 +336,7 @@ public class Scoreboard
         }
     }
 
-    public boolean removePlayerFromTeams(String playerName)
+    public synchronized boolean removePlayerFromTeams(String playerName)
     {
         ScorePlayerTeam scoreplayerteam = this.getPlayersTeam(playerName);
 
@@ -355,7 +355,7 @@ public class Scoreboard
      * Removes the given username from the given ScorePlayerTeam. If the player is not on the team then an
      * IllegalStateException is thrown.
      */
-    public void removePlayerFromTeam(String username, ScorePlayerTeam playerTeam)
+    public synchronized void removePlayerFromTeam(String username, ScorePlayerTeam playerTeam)
     {
         if (this.getPlayersTeam(username) != playerTeam)
         {
@@ -368,14 +368,14 @@ public class Scoreboard
         }
     }
 
-    public Collection<String> getTeamNames()
+    public synchronized Collection<String> getTeamNames()
     {
-        return this.teams.keySet();
+        return Lists.newArrayList(this.teams.keySet());
     }
 
-    public Collection<ScorePlayerTeam> getTeams()
+    public synchronized Collection<ScorePlayerTeam> getTeams()
     {
-        return this.teams.values();
+        return Lists.newArrayList(this.teams.values());
     }
 
     @Nullable
@@ -383,7 +383,7 @@ public class Scoreboard
     /**
      * Gets the ScorePlayerTeam object for the given username.
      */
-    public ScorePlayerTeam getPlayersTeam(String username)
+    public synchronized ScorePlayerTeam getPlayersTeam(String username)
     {
         return this.teamMemberships.get(username);
     }
@@ -513,7 +513,7 @@ public class Scoreboard
         return displaySlots;
     }
 
-    public void removeEntity(Entity entityIn)
+    public synchronized void removeEntity(Entity entityIn)
     {
         if (entityIn != null && !(entityIn instanceof EntityPlayer) && !entityIn.isEntityAlive())
         {
@@ -5,6 +5,8 @@ import com.google.common.collect.Queues;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.GameProfileRepository;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
@@ -31,7 +33,10 @@ import java.util.Queue;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -87,6 +92,9 @@ public abstract class MinecraftServer implements ICommandSender, Runnable, IThre
 {
     private static final Logger LOGGER = LogManager.getLogger();
     public static final File USER_CACHE_FILE = new File("usercache.json");
+
+    /** Ticks the dimensions other than the overworld when they are ticked concurrently. */
+    private static final ExecutorService DIMENSION_TICK_EXECUTOR = Executors.newCachedThreadPool((new ThreadFactoryBuilder()).setNameFormat("Dimension Tick #%d").setDaemon(true).build());
     private final ISaveFormat anvilConverterForAnvilFile;
 
     /** The PlayerUsageSnooper instance. */
@@ -759,57 +767,36 @@ public abstract class MinecraftServer implements ICommandSender, Runnable, IThre
 
         this.profiler.endStartSection("levels");
 
-        for (int j = 0; j < this.worlds.length; ++j)
+        if (this.worlds.length > 1 && !this.profiler.profilingEnabled && this.worlds[0].getGameRules().getBoolean("concurrentDimensionTicking"))
         {
-            long i = System.nanoTime();
-
-            if (j == 0 || this.getAllowNether())
+            this.tickDimensionsConcurrently();
+        }
+        else
+        {
+            for (int j = 0; j < this.worlds.length; ++j)
             {
-                WorldServer worldserver = this.worlds[j];
-                this.profiler.func_194340_a(() ->
-                {
-                    return worldserver.getWorldInfo().getWorldName();
-                });
+                long i = System.nanoTime();
 
-                if (this.tickCounter % 20 == 0)
+                if (j == 0 || this.getAllowNether())
                 {
-                    this.profiler.startSection("timeSync");
-                    this.playerList.sendPacketToAllPlayersInDimension(new SPacketTimeUpdate(worldserver.getTotalWorldTime(), worldserver.getWorldTime(), worldserver.getGameRules().getBoolean("doDaylightCycle")), worldserver.provider.getDimensionType().getId());
+                    WorldServer worldserver = this.worlds[j];
+                    this.profiler.func_194340_a(() ->
+                    {
+                        return worldserver.getWorldInfo().getWorldName();
+                    });
+                    this.sendTimeUpdate(worldserver);
+                    this.profiler.startSection("tick");
+                    this.tickWorld(worldserver);
+                    this.updateWorldEntities(worldserver);
+                    this.profiler.endSection();
+                    this.profiler.startSection("tracker");
+                    worldserver.getEntityTracker().tick();
+                    this.profiler.endSection();
                     this.profiler.endSection();
                 }
 
-                this.profiler.startSection("tick");
-
-                try
-                {
-                    worldserver.tick();
-                }
-                catch (Throwable throwable1)
-                {
-                    CrashReport crashreport = CrashReport.makeCrashReport(throwable1, "Exception ticking world");
-                    worldserver.addWorldInfoToCrashReport(crashreport);
-                    throw new ReportedException(crashreport);
-                }
-
-                try
-                {
-                    worldserver.updateEntities();
-                }
-                catch (Throwable throwable)
-                {
-                    CrashReport crashreport1 = CrashReport.makeCrashReport(throwable, "Exception ticking world entities");
-                    worldserver.addWorldInfoToCrashReport(crashreport1);
-                    throw new ReportedException(crashreport1);
-                }
-
-                this.profiler.endSection();
-                this.profiler.startSection("tracker");
-                worldserver.getEntityTracker().tick();
-                this.profiler.endSection();
-                this.profiler.endSection();
+                this.timeOfLastDimensionTick[j][this.tickCounter % 100] = System.nanoTime() - i;
             }
-
-            this.timeOfLastDimensionTick[j][this.tickCounter % 100] = System.nanoTime() - i;
         }
 
         this.profiler.endStartSection("connection");
@@ -828,6 +815,128 @@ public abstract class MinecraftServer implements ICommandSender, Runnable, IThre
         this.profiler.endSection();
     }
 
+    /**
+     * Ticks every dimension on its own thread, for the concurrentDimensionTicking rule. The overworld's world tick runs
+     * first by itself, as the other dimensions take their time and weather from it. Dimension changes, command blocks
+     * and functions asked for while the dimensions tick are held back by each world and run here afterwards, one world
+     * at a time, so the player list, scoreboard and function manager only change while nothing else is ticking.
+     */
+    private void tickDimensionsConcurrently()
+    {
+        int i = this.tickCounter % 100;
+        long j = System.nanoTime();
+        WorldServer worldserver = this.worlds[0];
+        this.sendTimeUpdate(worldserver);
+        this.tickWorld(worldserver);
+        long k = System.nanoTime() - j;
+        List<Future<Long>> list = Lists.<Future<Long>>newArrayList();
+
+        for (int l = 0; l < this.worlds.length; ++l)
+        {
+            this.worlds[l].setTickingConcurrently(true);
+
+            if (l > 0 && this.getAllowNether())
+            {
+                WorldServer worldserver1 = this.worlds[l];
+                list.add(DIMENSION_TICK_EXECUTOR.submit(() ->
+                {
+                    long i1 = System.nanoTime();
+                    this.sendTimeUpdate(worldserver1);
+                    this.tickWorld(worldserver1);
+                    this.updateWorldEntities(worldserver1);
+                    worldserver1.getEntityTracker().tick();
+                    return System.nanoTime() - i1;
+                }));
+            }
+        }
+
+        Throwable throwable = null;
+
+        try
+        {
+            j = System.nanoTime();
+            this.updateWorldEntities(worldserver);
+            worldserver.getEntityTracker().tick();
+            this.timeOfLastDimensionTick[0][i] = k + System.nanoTime() - j;
+        }
+        catch (Throwable throwable1)
+        {
+            throwable = throwable1;
+        }
+
+        for (int j1 = 0; j1 < list.size(); ++j1)
+        {
+            try
+            {
+                this.timeOfLastDimensionTick[j1 + 1][i] = ((Long)Uninterruptibles.getUninterruptibly(list.get(j1))).longValue();
+            }
+            catch (ExecutionException executionexception)
+            {
+                if (throwable == null)
+                {
+                    throwable = executionexception.getCause();
+                }
+            }
+        }
+
+        if (throwable != null)
+        {
+            for (WorldServer worldserver2 : this.worlds)
+            {
+                worldserver2.setTickingConcurrently(false);
+            }
+
+            throw throwable instanceof ReportedException ? (ReportedException)throwable : new ReportedException(CrashReport.makeCrashReport(throwable, "Exception ticking dimensions"));
+        }
+
+        this.profiler.startSection("safePoint");
+
+        for (WorldServer worldserver3 : this.worlds)
+        {
+            worldserver3.runSafePointTasks();
+        }
+
+        this.profiler.endSection();
+    }
+
+    private void sendTimeUpdate(WorldServer worldIn)
+    {
+        if (this.tickCounter % 20 == 0)
+        {
+            this.profiler.startSection("timeSync");
+            this.playerList.sendPacketToAllPlayersInDimension(new SPacketTimeUpdate(worldIn.getTotalWorldTime(), worldIn.getWorldTime(), worldIn.getGameRules().getBoolean("doDaylightCycle")), worldIn.provider.getDimensionType().getId());
+            this.profiler.endSection();
+        }
+    }
+
+    private void tickWorld(WorldServer worldIn)
+    {
+        try
+        {
+            worldIn.tick();
+        }
+        catch (Throwable throwable)
+        {
+            CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception ticking world");
+            worldIn.addWorldInfoToCrashReport(crashreport);
+            throw new ReportedException(crashreport);
+        }
+    }
+
+    private void updateWorldEntities(WorldServer worldIn)
+    {
+        try
+        {
+            worldIn.updateEntities();
+        }
+        catch (Throwable throwable)
+        {
+            CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception ticking world entities");
+            worldIn.addWorldInfoToCrashReport(crashreport);
+            throw new ReportedException(crashreport);
+        }
+    }
+
     public boolean getAllowNether()
     {
         return true;
@@ -479,7 +479,10 @@ public class PlayerChunkMap
      */
     public void entryChanged(PlayerChunkMapEntry entry)
     {
-        this.dirtyEntries.add(entry);
+        synchronized (this.dirtyEntries)
+        {
+            this.dirtyEntries.add(entry);
+        }
     }
 
     public void removeEntry(PlayerChunkMapEntry entry)
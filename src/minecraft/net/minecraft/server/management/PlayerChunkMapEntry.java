@@ -120,16 +120,22 @@ public class PlayerChunkMapEntry
         {
             return false;
         }
-        else if (!this.chunk.isPopulated())
-        {
-            return false;
-        }
         else
         {
+            if (!this.chunk.isLightPopulated())
+            {
+                this.playerChunkMap.getWorldServer().getChunkLightingWorker().publishResults();
+            }
+
+            if (!this.chunk.isPopulated())
+            {
+                return false;
+            }
+
             this.changes = 0;
             this.changedSectionFilter = 0;
             this.sentToPlayers = true;
-            Packet<?> packet = new SPacketChunkData(this.chunk, 65535);
+            Packet<?> packet = this.createChunkPacket(65535);
 
             for (EntityPlayerMP entityplayermp : this.players)
             {
@@ -149,11 +155,20 @@ public class PlayerChunkMapEntry
     {
         if (this.sentToPlayers)
         {
-            player.connection.sendPacket(new SPacketChunkData(this.chunk, 65535));
+            player.connection.sendPacket(this.createChunkPacket(65535));
             this.playerChunkMap.getWorldServer().getEntityTracker().sendLeashedEntitiesInChunk(player, this.chunk);
         }
     }
 
+    /**
+     * Runs any queued light checks first, so the light sent matches the blocks.
+     */
+    private Packet<?> createChunkPacket(int changedSectionFilter)
+    {
+        this.playerChunkMap.getWorldServer().getLightingEngine().processAllUpdates();
+        return new SPacketChunkData(this.chunk, changedSectionFilter);
+    }
+
     public void updateChunkInhabitedTime()
     {
         long i = this.playerChunkMap.getWorldServer().getTotalWorldTime();
@@ -194,6 +209,18 @@ public class PlayerChunkMapEntry
         }
     }
 
+    /**
+     * Sends the given sections to the players watching this chunk in one packet, for blocks that were changed without
+     * being marked one at a time.
+     */
+    public void sectionsChanged(int sectionMask)
+    {
+        if (this.sentToPlayers && this.chunk != null)
+        {
+            this.sendPacket(this.createChunkPacket(sectionMask));
+        }
+    }
+
     public void sendPacket(Packet<?> packetIn)
     {
         if (this.sentToPlayers)
@@ -226,7 +253,7 @@ public class PlayerChunkMapEntry
                 }
                 else if (this.changes == 64)
                 {
-                    this.sendPacket(new SPacketChunkData(this.chunk, this.changedSectionFilter));
+                    this.sendPacket(this.createChunkPacket(this.changedSectionFilter));
                 }
                 else
                 {
@@ -201,8 +201,15 @@ public class TileEntityPiston extends TileEntity implements ITickable
                         {
                             d1 = Math.min(d1, d0) + 0.01D;
                             MOVING_ENTITY.set(enumfacing);
-                            entity.move(MoverType.PISTON, d1 * (double)enumfacing.getXOffset(), d1 * (double)enumfacing.getYOffset(), d1 * (double)enumfacing.getZOffset());
-                            MOVING_ENTITY.set(null);
+
+                            try
+                            {
+                                entity.move(MoverType.PISTON, d1 * (double)enumfacing.getXOffset(), d1 * (double)enumfacing.getYOffset(), d1 * (double)enumfacing.getZOffset());
+                            }
+                            finally
+                            {
+                                MOVING_ENTITY.set(null);
+                            }
 
                             if (!this.extending && this.shouldHeadBeRendered)
                             {
@@ -303,8 +310,15 @@ public class TileEntityPiston extends TileEntity implements ITickable
             {
                 d0 = Math.min(d0, p_190605_3_) + 0.01D;
                 MOVING_ENTITY.set(p_190605_2_);
-                p_190605_1_.move(MoverType.PISTON, d0 * (double)enumfacing.getXOffset(), d0 * (double)enumfacing.getYOffset(), d0 * (double)enumfacing.getZOffset());
-                MOVING_ENTITY.set(null);
+
+                try
+                {
+                    p_190605_1_.move(MoverType.PISTON, d0 * (double)enumfacing.getXOffset(), d0 * (double)enumfacing.getYOffset(), d0 * (double)enumfacing.getZOffset());
+                }
+                finally
+                {
+                    MOVING_ENTITY.set(null);
+                }
             }
         }
     }
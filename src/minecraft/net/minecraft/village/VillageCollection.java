@@ -46,7 +46,7 @@ public class VillageCollection extends WorldSavedData
         }
     }
 
-    public void addToVillagerPositionList(BlockPos pos)
+    public synchronized void addToVillagerPositionList(BlockPos pos)
     {
         if (this.villagerPositionsList.size() <= 64)
         {
@@ -0,0 +1,218 @@
+package net.minecraft.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.Arrays;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Sets many blocks at once. Blocks are written straight into their chunks, and the height map, light and players'
+ * copies of the changed sections are brought up to date once, when the session is finished, instead of after every
+ * block. Neighbour and observer updates still happen as each block is set, as they do for World.setBlockState.
+ *
+ * When the bulkEdits rule is off, which it is by default, each block is set through World.setBlockState as before.
+ */
+public class BulkEditSession
+{
+    private final World world;
+    private final boolean enabled;
+    private final Long2ObjectMap<BulkEditSession.ChangedChunk> changedChunks = new Long2ObjectOpenHashMap<BulkEditSession.ChangedChunk>();
+
+    /** The changed blocks whose light opacity or light value changed. */
+    private final LongList lightChecks = new LongArrayList();
+    private BulkEditSession.ChangedChunk lastChangedChunk;
+    private int changedBlocks;
+
+    public BulkEditSession(World worldIn)
+    {
+        this.world = worldIn;
+        this.enabled = worldIn.getGameRules().getBoolean("bulkEdits");
+    }
+
+    /**
+     * Sets a block state, with the same flags as World.setBlockState. Returns whether the block changed.
+     */
+    public boolean setBlockState(BlockPos pos, IBlockState newState, int flags)
+    {
+        if (!this.enabled)
+        {
+            if (this.world.setBlockState(pos, newState, flags))
+            {
+                ++this.changedBlocks;
+                return true;
+            }
+            else
+            {
+                return false;
+            }
+        }
+        else if (this.world.isOutsideBuildHeight(pos))
+        {
+            return false;
+        }
+        else if (!this.world.isRemote && this.world.getWorldInfo().getTerrainType() == WorldType.DEBUG_ALL_BLOCK_STATES)
+        {
+            return false;
+        }
+        else
+        {
+            Chunk chunk = this.world.getChunk(pos);
+            Block block = newState.getBlock();
+            IBlockState iblockstate = chunk.setBlockState(pos, newState, false);
+
+            if (iblockstate == null)
+            {
+                return false;
+            }
+            else
+            {
+                ++this.changedBlocks;
+                this.world.blockChangeCount.incrementAndGet();
+                BulkEditSession.ChangedChunk bulkeditsession$changedchunk = this.getChangedChunk(chunk);
+                int i = (pos.getZ() & 15) << 4 | pos.getX() & 15;
+                bulkeditsession$changedchunk.columnTops[i] = Math.max(bulkeditsession$changedchunk.columnTops[i], pos.getY());
+
+                if (newState.getLightOpacity() != iblockstate.getLightOpacity() || newState.getLightValue() != iblockstate.getLightValue())
+                {
+                    this.lightChecks.add(pos.toLong());
+                }
+
+                if ((flags & 2) != 0 && (!this.world.isRemote || (flags & 4) == 0) && chunk.isPopulated())
+                {
+                    bulkeditsession$changedchunk.changedSections |= 1 << (pos.getY() >> 4);
+
+                    for (IWorldEventListener iworldeventlistener : this.world.eventListeners)
+                    {
+                        if (!(iworldeventlistener instanceof ServerWorldEventHandler))
+                        {
+                            iworldeventlistener.notifyBlockUpdate(this.world, pos, iblockstate, newState, flags);
+                        }
+                    }
+                }
+
+                if (!this.world.isRemote && (flags & 1) != 0)
+                {
+                    this.world.notifyNeighborsRespectDebug(pos, iblockstate.getBlock(), true);
+
+                    if (newState.hasComparatorInputOverride())
+                    {
+                        this.world.updateComparatorOutputLevel(pos, block);
+                    }
+                }
+                else if (!this.world.isRemote && (flags & 16) == 0)
+                {
+                    this.world.updateObservingBlocksAt(chunk, pos, block);
+                }
+
+                return true;
+            }
+        }
+    }
+
+    private BulkEditSession.ChangedChunk getChangedChunk(Chunk chunk)
+    {
+        BulkEditSession.ChangedChunk bulkeditsession$changedchunk = this.lastChangedChunk;
+
+        if (bulkeditsession$changedchunk == null || bulkeditsession$changedchunk.chunk != chunk)
+        {
+            long i = ChunkPos.asLong(chunk.x, chunk.z);
+            bulkeditsession$changedchunk = (BulkEditSession.ChangedChunk)this.changedChunks.get(i);
+
+            if (bulkeditsession$changedchunk == null)
+            {
+                bulkeditsession$changedchunk = new BulkEditSession.ChangedChunk(chunk);
+                this.changedChunks.put(i, bulkeditsession$changedchunk);
+            }
+
+            this.lastChangedChunk = bulkeditsession$changedchunk;
+        }
+
+        return bulkeditsession$changedchunk;
+    }
+
+    public int getChangedBlockCount()
+    {
+        return this.changedBlocks;
+    }
+
+    /**
+     * Updates the height map of every changed column, relights the changed blocks in one pass, and sends each changed
+     * section to the players watching its chunk in a single packet. The session can be used again afterwards.
+     */
+    public void finish()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        this.world.profiler.startSection("bulkEdit");
+
+        for (BulkEditSession.ChangedChunk bulkeditsession$changedchunk : this.changedChunks.values())
+        {
+            for (int i = 0; i < 256; ++i)
+            {
+                if (bulkeditsession$changedchunk.columnTops[i] >= 0)
+                {
+                    bulkeditsession$changedchunk.chunk.relightColumn(i & 15, bulkeditsession$changedchunk.columnTops[i] + 1, i >> 4);
+                }
+            }
+        }
+
+        LightingEngine lightingengine = this.world.getLightingEngine();
+
+        for (int j = 0; j < this.lightChecks.size(); ++j)
+        {
+            BlockPos blockpos = BlockPos.fromLong(this.lightChecks.getLong(j));
+            lightingengine.queueUpdate(EnumSkyBlock.SKY, blockpos);
+            lightingengine.queueUpdate(EnumSkyBlock.BLOCK, blockpos);
+        }
+
+        lightingengine.processAllUpdates();
+
+        if (this.world instanceof WorldServer)
+        {
+            for (BulkEditSession.ChangedChunk bulkeditsession$changedchunk1 : this.changedChunks.values())
+            {
+                if (bulkeditsession$changedchunk1.changedSections != 0)
+                {
+                    PlayerChunkMapEntry playerchunkmapentry = ((WorldServer)this.world).getPlayerChunkMap().getEntry(bulkeditsession$changedchunk1.chunk.x, bulkeditsession$changedchunk1.chunk.z);
+
+                    if (playerchunkmapentry != null)
+                    {
+                        playerchunkmapentry.sectionsChanged(bulkeditsession$changedchunk1.changedSections);
+                    }
+                }
+            }
+        }
+
+        this.changedChunks.clear();
+        this.lightChecks.clear();
+        this.lastChangedChunk = null;
+        this.world.profiler.endSection();
+    }
+
+    static class ChangedChunk
+    {
+        private final Chunk chunk;
+
+        /** The highest changed block of each column by z << 4 | x, or -1 where none changed. */
+        private final int[] columnTops = new int[256];
+
+        /** The sections to send to players, one bit each. */
+        private int changedSections;
+
+        private ChangedChunk(Chunk chunk)
+        {
+            this.chunk = chunk;
+            Arrays.fill(this.columnTops, -1);
+        }
+    }
+}
@@ -89,6 +89,17 @@ public class ChunkCache implements IBlockAccess
         return i << 20 | j << 4;
     }
 
+    /**
+     * Returns the cached chunk at the given chunk coordinates, or null if it is outside the cache or was not loaded.
+     */
+    @Nullable
+    public Chunk getChunk(int chunkXIn, int chunkZIn)
+    {
+        int i = chunkXIn - this.chunkX;
+        int j = chunkZIn - this.chunkZ;
+        return i >= 0 && i < this.chunkArray.length && j >= 0 && j < this.chunkArray[i].length ? this.chunkArray[i][j] : null;
+    }
+
     public IBlockState getBlockState(BlockPos pos)
     {
         if (pos.getY() >= 0 && pos.getY() < 256)
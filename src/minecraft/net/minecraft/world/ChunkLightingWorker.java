@@ -0,0 +1,559 @@
+package net.minecraft.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.NibbleArray;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Lights fresh chunks on a background thread. The main thread copies the blocks and height maps of a chunk and its
+ * eight neighbours, which hold every light source that can reach the chunk, and the worker floods sky and block light
+ * through the copy. Finished light is put into the chunk on the main thread, before chunks are sent to players, unless
+ * a block in the copied area has changed since; the chunk is then copied again, and lit on the main thread after a few
+ * tries.
+ */
+public class ChunkLightingWorker
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((new ThreadFactoryBuilder()).setNameFormat("Chunk Lighting").setDaemon(true).build());
+
+    /** Only used by the executor's single thread. */
+    private static final ChunkLightingWorker.Solver SOLVER = new ChunkLightingWorker.Solver();
+
+    /** How many times a chunk is lit off-thread before it is lit on the main thread instead. */
+    private static final int MAX_ATTEMPTS = 4;
+    private final World world;
+    private final Long2ObjectMap<ChunkLightingWorker.Job> pendingJobs = new Long2ObjectOpenHashMap<ChunkLightingWorker.Job>();
+    private final Queue<ChunkLightingWorker.Job> finishedJobs = new ConcurrentLinkedQueue<ChunkLightingWorker.Job>();
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+    private int litChunks;
+    private int staleChunks;
+
+    public ChunkLightingWorker(World worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Hands the chunk to the worker, unless it is already being lit or a neighbour is not loaded yet.
+     */
+    public void submit(Chunk chunk)
+    {
+        long i = ChunkPos.asLong(chunk.x, chunk.z);
+        ChunkLightingWorker.Job chunklightingworker$job = (ChunkLightingWorker.Job)this.pendingJobs.get(i);
+
+        if (chunklightingworker$job == null)
+        {
+            this.submit(chunk, 1);
+        }
+    }
+
+    private void submit(Chunk chunk, int attempt)
+    {
+        Chunk[] achunk = new Chunk[9];
+
+        for (int i = 0; i < 3; ++i)
+        {
+            for (int j = 0; j < 3; ++j)
+            {
+                Chunk chunk1 = i == 1 && j == 1 ? chunk : this.world.getChunkProvider().getLoadedChunk(chunk.x + j - 1, chunk.z + i - 1);
+
+                if (chunk1 == null)
+                {
+                    return;
+                }
+
+                achunk[i * 3 + j] = chunk1;
+            }
+        }
+
+        final ChunkLightingWorker.Job chunklightingworker$job = new ChunkLightingWorker.Job(achunk, attempt);
+        this.pendingJobs.put(ChunkPos.asLong(chunk.x, chunk.z), chunklightingworker$job);
+        EXECUTOR.execute(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    ChunkLightingWorker.SOLVER.solve(chunklightingworker$job);
+                }
+                catch (Throwable throwable)
+                {
+                    ChunkLightingWorker.LOGGER.error("Couldn't light chunk", throwable);
+                }
+
+                ChunkLightingWorker.this.finishedJobs.add(chunklightingworker$job);
+            }
+        });
+    }
+
+    /**
+     * Puts the light of every finished chunk into the world. Chunks whose copied area changed while they were being lit
+     * are handed to the worker again.
+     */
+    public void publishResults()
+    {
+        ChunkLightingWorker.Job chunklightingworker$job;
+
+        while ((chunklightingworker$job = this.finishedJobs.poll()) != null)
+        {
+            Chunk chunk = chunklightingworker$job.chunks[4];
+            long i = ChunkPos.asLong(chunk.x, chunk.z);
+
+            if (this.pendingJobs.get(i) == chunklightingworker$job)
+            {
+                this.pendingJobs.remove(i);
+
+                if (chunk.isLoaded() && !chunk.isLightPopulated())
+                {
+                    if (chunklightingworker$job.skyLight == null)
+                    {
+                        chunk.checkLightNow();
+                    }
+                    else if (chunklightingworker$job.isStale())
+                    {
+                        ++this.staleChunks;
+
+                        if (chunklightingworker$job.attempt < MAX_ATTEMPTS)
+                        {
+                            this.submit(chunk, chunklightingworker$job.attempt + 1);
+                        }
+                        else
+                        {
+                            chunk.checkLightNow();
+                        }
+                    }
+                    else
+                    {
+                        this.publish(chunklightingworker$job);
+                    }
+                }
+            }
+        }
+    }
+
+    private void publish(ChunkLightingWorker.Job job)
+    {
+        Chunk chunk = job.chunks[4];
+
+        for (int i = 0; i < 16; ++i)
+        {
+            chunk.setSectionLight(i, job.skyLight[i], job.blockLight[i], job.defaultLight[i]);
+        }
+
+        chunk.setLightPopulated(true);
+        ++this.litChunks;
+
+        for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
+        {
+            Chunk chunk1 = job.chunks[4 + enumfacing.getXOffset() + enumfacing.getZOffset() * 3];
+
+            if (chunk1.isLoaded())
+            {
+                this.stitchEdge(job, chunk1, enumfacing);
+            }
+        }
+    }
+
+    /**
+     * Checks the light of the neighbour's blocks along the shared edge wherever the chunk's new light should reach
+     * further into the neighbour than it does.
+     */
+    private void stitchEdge(ChunkLightingWorker.Job job, Chunk neighbour, EnumFacing facing)
+    {
+        int i = facing.getXOffset() == 0 ? -1 : (facing.getXOffset() > 0 ? 15 : 0);
+        int j = facing.getZOffset() == 0 ? -1 : (facing.getZOffset() > 0 ? 15 : 0);
+
+        for (int k = 0; k < 256; ++k)
+        {
+            for (int l = 0; l < 16; ++l)
+            {
+                int i1 = i == -1 ? l : i;
+                int j1 = j == -1 ? l : j;
+                int k1 = job.skyLight[k >> 4].get(i1, k & 15, j1);
+                int l1 = job.blockLight[k >> 4].get(i1, k & 15, j1);
+
+                if (k1 > 1 || l1 > 1)
+                {
+                    this.mutablePos.setPos((neighbour.x << 4) + (i1 + facing.getXOffset() & 15), k, (neighbour.z << 4) + (j1 + facing.getZOffset() & 15));
+                    int i2 = neighbour.getLightFor(EnumSkyBlock.SKY, this.mutablePos);
+                    int j2 = neighbour.getLightFor(EnumSkyBlock.BLOCK, this.mutablePos);
+
+                    if (k1 - 1 > i2 || l1 - 1 > j2)
+                    {
+                        int k2 = LightingEngine.getOpacity(neighbour.getBlockState(this.mutablePos));
+
+                        if (k1 - k2 > i2)
+                        {
+                            this.world.checkLightFor(EnumSkyBlock.SKY, this.mutablePos.toImmutable());
+                        }
+
+                        if (l1 - k2 > j2)
+                        {
+                            this.world.checkLightFor(EnumSkyBlock.BLOCK, this.mutablePos.toImmutable());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public int getPendingCount()
+    {
+        return this.pendingJobs.size();
+    }
+
+    public int getLitChunkCount()
+    {
+        return this.litChunks;
+    }
+
+    public int getStaleChunkCount()
+    {
+        return this.staleChunks;
+    }
+
+    /**
+     * A chunk and its neighbours as they were when the chunk was handed to the worker, and the light the worker found.
+     */
+    static class Job
+    {
+        /** The chunks of the copied area by dz * 3 + dx, so the chunk being lit is the one in the middle. */
+        private final Chunk[] chunks;
+        private final int[] blockChangeCounts = new int[9];
+        private final BlockStateContainer.Snapshot[][] sections = new BlockStateContainer.Snapshot[9][];
+        private final int[][] heightMaps = new int[9][];
+        private final int attempt;
+        private NibbleArray[] skyLight;
+        private NibbleArray[] blockLight;
+
+        /** Which sections have the light an empty section reads as. */
+        private boolean[] defaultLight;
+
+        private Job(Chunk[] chunks, int attempt)
+        {
+            this.chunks = chunks;
+            this.attempt = attempt;
+
+            for (int i = 0; i < 9; ++i)
+            {
+                Chunk chunk = chunks[i];
+                ExtendedBlockStorage[] aextendedblockstorage = chunk.getBlockStorageArray();
+                this.sections[i] = new BlockStateContainer.Snapshot[aextendedblockstorage.length];
+
+                for (int j = 0; j < aextendedblockstorage.length; ++j)
+                {
+                    if (aextendedblockstorage[j] != Chunk.NULL_BLOCK_STORAGE)
+                    {
+                        this.sections[i][j] = aextendedblockstorage[j].getData().snapshot();
+                    }
+                }
+
+                this.heightMaps[i] = (int[])chunk.getHeightMap().clone();
+                this.blockChangeCounts[i] = chunk.getBlockChangeCount();
+            }
+        }
+
+        /**
+         * Whether a chunk of the copied area was unloaded or had a block changed since it was copied.
+         */
+        private boolean isStale()
+        {
+            for (int i = 0; i < 9; ++i)
+            {
+                if (!this.chunks[i].isLoaded() || this.chunks[i].getBlockChangeCount() != this.blockChangeCounts[i])
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Floods light through the 48x256x48 blocks of a copied area, one light level at a time from the brightest down, so
+     * that every block is set once to its final light.
+     */
+    static class Solver
+    {
+        private static final int SIZE = 48;
+        private static final int LAYER = SIZE * SIZE;
+        private static final int VOLUME = LAYER * 256;
+
+        /** Light taken away on entering each block, or 15 for blocks no light enters. */
+        private final byte[] opacity = new byte[VOLUME];
+
+        /** Block light given off by each block. */
+        private final byte[] emitted = new byte[VOLUME];
+        private final byte[] light = new byte[VOLUME];
+        private final int[][] queues = new int[16][];
+        private final int[] queueSizes = new int[16];
+
+        Solver()
+        {
+            for (int i = 0; i < this.queues.length; ++i)
+            {
+                this.queues[i] = new int[1024];
+            }
+        }
+
+        private static int getIndex(int x, int y, int z)
+        {
+            return y * LAYER + z * SIZE + x;
+        }
+
+        public void solve(ChunkLightingWorker.Job job)
+        {
+            this.copyBlocks(job);
+            Arrays.fill(this.light, (byte)0);
+
+            for (int i = 0; i < SIZE; ++i)
+            {
+                for (int j = 0; j < SIZE; ++j)
+                {
+                    int k = this.getHeight(job, j, i);
+                    int l = k;
+
+                    for (EnumFacing enumfacing : EnumFacing.Plane.HORIZONTAL)
+                    {
+                        int i1 = j + enumfacing.getXOffset();
+                        int j1 = i + enumfacing.getZOffset();
+
+                        if (i1 >= 0 && i1 < SIZE && j1 >= 0 && j1 < SIZE)
+                        {
+                            l = Math.max(l, this.getHeight(job, i1, j1));
+                        }
+                    }
+
+                    for (int k1 = Math.max(k, 0); k1 < 256; ++k1)
+                    {
+                        int l1 = getIndex(j, k1, i);
+                        this.light[l1] = 15;
+
+                        if (k1 <= l)
+                        {
+                            this.enqueue(l1, 15);
+                        }
+                    }
+                }
+            }
+
+            this.spread();
+            NibbleArray[] anibblearray = this.copyLight(job, true);
+
+            for (int i2 = 0; i2 < VOLUME; ++i2)
+            {
+                this.light[i2] = this.emitted[i2];
+
+                if (this.emitted[i2] > 1)
+                {
+                    this.enqueue(i2, this.emitted[i2]);
+                }
+            }
+
+            this.spread();
+            NibbleArray[] anibblearray1 = this.copyLight(job, false);
+            job.defaultLight = new boolean[16];
+
+            for (int j2 = 0; j2 < 16; ++j2)
+            {
+                job.defaultLight[j2] = job.sections[4][j2] == null && this.hasDefaultLight(job, j2, anibblearray[j2], anibblearray1[j2]);
+            }
+
+            job.blockLight = anibblearray1;
+            job.skyLight = anibblearray;
+        }
+
+        /**
+         * The lowest height the sky is seen from at the given column of the copied area.
+         */
+        private int getHeight(ChunkLightingWorker.Job job, int x, int z)
+        {
+            return job.heightMaps[(z >> 4) * 3 + (x >> 4)][(z & 15) << 4 | x & 15];
+        }
+
+        private void copyBlocks(ChunkLightingWorker.Job job)
+        {
+            for (int i = 0; i < 9; ++i)
+            {
+                int j = (i % 3) << 4;
+                int k = (i / 3) << 4;
+
+                for (int l = 0; l < 16; ++l)
+                {
+                    BlockStateContainer.Snapshot blockstatecontainer$snapshot = job.sections[i][l];
+
+                    for (int i1 = 0; i1 < 4096; ++i1)
+                    {
+                        int j1 = getIndex(j + (i1 & 15), l << 4 | i1 >> 8, k + (i1 >> 4 & 15));
+
+                        if (blockstatecontainer$snapshot == null)
+                        {
+                            this.opacity[j1] = 1;
+                            this.emitted[j1] = 0;
+                        }
+                        else
+                        {
+                            IBlockState iblockstate = blockstatecontainer$snapshot.get(i1);
+                            this.opacity[j1] = (byte)Math.min(LightingEngine.getOpacity(iblockstate), 15);
+                            this.emitted[j1] = (byte)iblockstate.getLightValue();
+                        }
+                    }
+                }
+            }
+        }
+
+        private void enqueue(int index, int level)
+        {
+            int[] aint = this.queues[level];
+            int i = this.queueSizes[level];
+
+            if (i == aint.length)
+            {
+                aint = Arrays.copyOf(aint, i * 2);
+                this.queues[level] = aint;
+            }
+
+            aint[i] = index;
+            this.queueSizes[level] = i + 1;
+        }
+
+        /**
+         * Spreads the queued light to neighbouring blocks, brightest first. Light only gets dimmer as it spreads, so a
+         * block is first reached by its brightest neighbour and entries left behind by brighter light are skipped.
+         */
+        private void spread()
+        {
+            for (int i = 15; i > 1; --i)
+            {
+                int[] aint = this.queues[i];
+
+                for (int j = 0; j < this.queueSizes[i]; ++j)
+                {
+                    int k = aint[j];
+
+                    if (this.light[k] == i)
+                    {
+                        int l = k % SIZE;
+                        int i1 = k / SIZE % SIZE;
+                        int j1 = k / LAYER;
+
+                        if (l > 0)
+                        {
+                            this.spreadTo(k - 1, i);
+                        }
+
+                        if (l < SIZE - 1)
+                        {
+                            this.spreadTo(k + 1, i);
+                        }
+
+                        if (i1 > 0)
+                        {
+                            this.spreadTo(k - SIZE, i);
+                        }
+
+                        if (i1 < SIZE - 1)
+                        {
+                            this.spreadTo(k + SIZE, i);
+                        }
+
+                        if (j1 > 0)
+                        {
+                            this.spreadTo(k - LAYER, i);
+                        }
+
+                        if (j1 < 255)
+                        {
+                            this.spreadTo(k + LAYER, i);
+                        }
+                    }
+                }
+
+                this.queueSizes[i] = 0;
+            }
+        }
+
+        private void spreadTo(int index, int level)
+        {
+            int i = this.opacity[index];
+
+            if (i < 15)
+            {
+                int j = level - i;
+
+                if (j > this.light[index])
+                {
+                    this.light[index] = (byte)j;
+
+                    if (j > 1)
+                    {
+                        this.enqueue(index, j);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the light of the middle chunk out of the area.
+         */
+        private NibbleArray[] copyLight(ChunkLightingWorker.Job job, boolean sky)
+        {
+            NibbleArray[] anibblearray = new NibbleArray[16];
+
+            for (int i = 0; i < 16; ++i)
+            {
+                NibbleArray nibblearray = new NibbleArray();
+
+                for (int j = 0; j < 4096; ++j)
+                {
+                    int k = j & 15;
+                    int l = j >> 8;
+                    int i1 = j >> 4 & 15;
+                    nibblearray.set(k, l, i1, this.light[getIndex(16 + k, i << 4 | l, 16 + i1)]);
+                }
+
+                anibblearray[i] = nibblearray;
+            }
+
+            return anibblearray;
+        }
+
+        /**
+         * Whether a section has the light a missing section reads as: full sky light where the sky is seen and no block
+         * light.
+         */
+        private boolean hasDefaultLight(ChunkLightingWorker.Job job, int section, NibbleArray skyLight, NibbleArray blockLight)
+        {
+            for (int i = 0; i < 4096; ++i)
+            {
+                int j = i & 15;
+                int k = i >> 8;
+                int l = i >> 4 & 15;
+                int i1 = (section << 4 | k) >= job.heightMaps[4][l << 4 | j] ? 15 : 0;
+
+                if (skyLight.get(j, k, l) != i1 || blockLight.get(j, k, l) != 0)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
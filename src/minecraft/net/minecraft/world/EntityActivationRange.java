@@ -0,0 +1,162 @@
+package net.minecraft.world;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityCreature;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.item.EntityFallingBlock;
+import net.minecraft.entity.item.EntityFireworkRocket;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.IAnimals;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.EntityFireball;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Decides which entities of a world get a full tick. Monsters, animals, items and other entities each have an
+ * activation range, set by the monsterActivationRange, animalActivationRange, itemActivationRange and
+ * miscActivationRange rules; a range of 0, the default, keeps every entity of that kind active. An entity with no
+ * player within its range horizontally only gets an inactive tick, which keeps its timers going but skips its AI,
+ * movement and collisions, along with a full tick once every WAKE_TICKS ticks.
+ *
+ * Entities that are hurt, burning, fighting, riding or being ridden, moving fast by nature, or bosses are always
+ * active, and an entity that takes damage stays active for WAKE_TICKS ticks.
+ */
+public class EntityActivationRange
+{
+    private static final int MONSTER = 0;
+    private static final int ANIMAL = 1;
+    private static final int ITEM = 2;
+    private static final int MISC = 3;
+
+    /** How long an entity is kept active after being hurt, and how often an inactive entity gets a full tick. */
+    public static final int WAKE_TICKS = 20;
+    private final WorldServer world;
+    private final int[] ranges = new int[4];
+    private boolean enabled;
+
+    public EntityActivationRange(WorldServer worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Reads the activation ranges and marks every entity in range of a player as active for this tick.
+     */
+    public void activateEntities()
+    {
+        GameRules gamerules = this.world.getGameRules();
+        this.ranges[MONSTER] = gamerules.getInt("monsterActivationRange");
+        this.ranges[ANIMAL] = gamerules.getInt("animalActivationRange");
+        this.ranges[ITEM] = gamerules.getInt("itemActivationRange");
+        this.ranges[MISC] = gamerules.getInt("miscActivationRange");
+        int i = Math.max(Math.max(this.ranges[MONSTER], this.ranges[ANIMAL]), Math.max(this.ranges[ITEM], this.ranges[MISC]));
+        this.enabled = i > 0;
+
+        if (this.enabled)
+        {
+            long j = this.world.getTotalWorldTime();
+
+            for (int k = 0; k < this.world.playerEntities.size(); ++k)
+            {
+                EntityPlayer entityplayer = this.world.playerEntities.get(k);
+                int l = MathHelper.floor(entityplayer.posX - (double)i) >> 4;
+                int i1 = MathHelper.floor(entityplayer.posX + (double)i) >> 4;
+                int j1 = MathHelper.floor(entityplayer.posZ - (double)i) >> 4;
+                int k1 = MathHelper.floor(entityplayer.posZ + (double)i) >> 4;
+
+                for (int l1 = l; l1 <= i1; ++l1)
+                {
+                    for (int i2 = j1; i2 <= k1; ++i2)
+                    {
+                        PlayerChunkMapEntry playerchunkmapentry = this.world.getPlayerChunkMap().getEntry(l1, i2);
+                        Chunk chunk = playerchunkmapentry == null ? null : playerchunkmapentry.getChunk();
+
+                        if (chunk != null)
+                        {
+                            for (ClassInheritanceMultiMap<Entity> classinheritancemultimap : chunk.getEntityLists())
+                            {
+                                for (Entity entity : classinheritancemultimap)
+                                {
+                                    double d0 = (double)this.ranges[getCategory(entity)];
+
+                                    if (Math.abs(entity.posX - entityplayer.posX) <= d0 && Math.abs(entity.posZ - entityplayer.posZ) <= d0)
+                                    {
+                                        entity.activeUntil = j;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the entity gets a full tick this tick.
+     */
+    public boolean isActive(Entity entityIn)
+    {
+        if (!this.enabled)
+        {
+            return true;
+        }
+        else
+        {
+            long i = this.world.getTotalWorldTime();
+
+            if (entityIn.activeUntil >= i || this.ranges[getCategory(entityIn)] <= 0 || (i + (long)entityIn.getEntityId()) % (long)WAKE_TICKS == 0L)
+            {
+                return true;
+            }
+            else if (entityIn instanceof EntityPlayer || entityIn.isRiding() || entityIn.isBeingRidden() || !entityIn.isNonBoss() || entityIn.isBurning())
+            {
+                return true;
+            }
+            else if (entityIn instanceof IProjectile || entityIn instanceof EntityFireball || entityIn instanceof EntityFireworkRocket || entityIn instanceof EntityTNTPrimed || entityIn instanceof EntityFallingBlock)
+            {
+                return true;
+            }
+            else if (entityIn instanceof EntityLivingBase && ((EntityLivingBase)entityIn).hurtTime > 0)
+            {
+                return true;
+            }
+            else
+            {
+                return entityIn instanceof EntityLiving && ((EntityLiving)entityIn).getAttackTarget() != null;
+            }
+        }
+    }
+
+    /**
+     * Keeps the entity active for the next WAKE_TICKS ticks, as when it is hurt.
+     */
+    public static void wakeUp(Entity entityIn)
+    {
+        entityIn.activeUntil = Math.max(entityIn.activeUntil, entityIn.world.getTotalWorldTime() + (long)WAKE_TICKS);
+    }
+
+    private static int getCategory(Entity entityIn)
+    {
+        if (entityIn instanceof IMob)
+        {
+            return MONSTER;
+        }
+        else if (entityIn instanceof IAnimals || entityIn instanceof EntityCreature)
+        {
+            return ANIMAL;
+        }
+        else
+        {
+            return !(entityIn instanceof EntityItem) && !(entityIn instanceof EntityXPOrb) ? MISC : ITEM;
+        }
+    }
+}
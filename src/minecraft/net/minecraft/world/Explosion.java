@@ -3,6 +3,8 @@ package net.minecraft.world;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -75,6 +77,10 @@ public class Explosion
     public void doExplosionA()
     {
         Set<BlockPos> set = Sets.<BlockPos>newHashSet();
+        LongSet longset = new LongOpenHashSet();
+        BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+        ExplosionCache explosioncache = this.world.getExplosionCache();
+        explosioncache.setOrigin(MathHelper.floor(this.x), MathHelper.floor(this.y), MathHelper.floor(this.z), MathHelper.ceil(this.size * 1.3F / 0.22500001F * 0.3F) + 1);
         int i = 16;
 
         for (int j = 0; j < 16; ++j)
@@ -99,8 +105,8 @@ public class Explosion
 
                         for (float f1 = 0.3F; f > 0.0F; f -= 0.22500001F)
                         {
-                            BlockPos blockpos = new BlockPos(d4, d6, d8);
-                            IBlockState iblockstate = this.world.getBlockState(blockpos);
+                            BlockPos blockpos = blockpos$mutableblockpos.setPos(d4, d6, d8);
+                            IBlockState iblockstate = explosioncache.getBlockState(blockpos);
 
                             if (iblockstate.getMaterial() != Material.AIR)
                             {
@@ -108,9 +114,10 @@ public class Explosion
                                 f -= (f2 + 0.3F) * 0.3F;
                             }
 
-                            if (f > 0.0F && (this.exploder == null || this.exploder.canExplosionDestroyBlock(this, this.world, blockpos, iblockstate, f)))
+                            if (f > 0.0F && !longset.contains(blockpos.toLong()) && (this.exploder == null || this.exploder.canExplosionDestroyBlock(this, this.world, blockpos, iblockstate, f)))
                             {
-                                set.add(blockpos);
+                                longset.add(blockpos.toLong());
+                                set.add(blockpos.toImmutable());
                             }
 
                             d4 += d0 * 0.30000001192092896D;
@@ -153,7 +160,7 @@ public class Explosion
                         d5 = d5 / d13;
                         d7 = d7 / d13;
                         d9 = d9 / d13;
-                        double d14 = (double)this.world.getBlockDensity(vec3d, entity.getEntityBoundingBox());
+                        double d14 = (double)explosioncache.getBlockDensity(vec3d, entity.getEntityBoundingBox());
                         double d10 = (1.0D - d12) * d14;
                         entity.attackEntityFrom(DamageSource.causeExplosionDamage(this), (float)((int)((d10 * d10 + d10) / 2.0D * 7.0D * (double)f3 + 1.0D)));
                         double d11 = d10;
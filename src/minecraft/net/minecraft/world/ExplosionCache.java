@@ -0,0 +1,173 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.Map;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Holds what explosions in a world have looked up, so that explosions going off in the same spot in the same tick, as
+ * in TNT cannons, share the work: the blocks around the explosion, read into a grid once instead of once for every
+ * step of every ray, and how exposed each entity box is to each explosion centre. Everything is dropped when a block of
+ * the world changes, when tile entities tick, as they may change block shapes, and at the start of each tick, so the
+ * results are always the same as looking them up again.
+ */
+public class ExplosionCache
+{
+    /** The largest grid radius kept. Bigger explosions read the world directly. */
+    private static final int MAX_RADIUS = 16;
+    private final World world;
+    private long time = Long.MIN_VALUE;
+    private int blockChangeCount;
+
+    /** The blocks around the centre block of the last explosion, or null where they have not been read yet. */
+    private IBlockState[] states = new IBlockState[0];
+    private int originX;
+    private int originY;
+    private int originZ;
+    private int radius = -1;
+    private int size;
+
+    /** The exposure of entity boxes to explosion centres. */
+    private final Map<ExplosionCache.ExposureKey, Float> exposures = Maps.<ExplosionCache.ExposureKey, Float>newHashMap();
+
+    public ExplosionCache(World worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Drops everything cached if the world may have changed since.
+     */
+    private void validate()
+    {
+        long i = this.world.getTotalWorldTime();
+        int j = this.world.blockChangeCount.get();
+
+        if (this.time != i || this.blockChangeCount != j)
+        {
+            this.time = i;
+            this.blockChangeCount = j;
+            this.radius = -1;
+            this.exposures.clear();
+        }
+    }
+
+    /**
+     * Gets the grid ready for an explosion centred in the given block, whose rays go no further than radius blocks.
+     */
+    public void setOrigin(int x, int y, int z, int radiusIn)
+    {
+        this.validate();
+
+        if (radiusIn > MAX_RADIUS)
+        {
+            this.radius = -1;
+        }
+        else if (x != this.originX || y != this.originY || z != this.originZ || radiusIn > this.radius)
+        {
+            this.originX = x;
+            this.originY = y;
+            this.originZ = z;
+            this.radius = radiusIn;
+            this.size = 2 * radiusIn + 1;
+            int i = this.size * this.size * this.size;
+
+            if (this.states.length < i)
+            {
+                this.states = new IBlockState[i];
+            }
+            else
+            {
+                Arrays.fill(this.states, 0, i, (Object)null);
+            }
+        }
+    }
+
+    /**
+     * Returns the block state at pos, from the grid when pos is inside it.
+     */
+    public IBlockState getBlockState(BlockPos pos)
+    {
+        int i = pos.getX() - this.originX + this.radius;
+        int j = pos.getY() - this.originY + this.radius;
+        int k = pos.getZ() - this.originZ + this.radius;
+
+        if (this.radius >= 0 && i >= 0 && i < this.size && j >= 0 && j < this.size && k >= 0 && k < this.size)
+        {
+            int l = (i * this.size + j) * this.size + k;
+            IBlockState iblockstate = this.states[l];
+
+            if (iblockstate == null)
+            {
+                iblockstate = this.world.getBlockState(pos);
+                this.states[l] = iblockstate;
+            }
+
+            return iblockstate;
+        }
+        else
+        {
+            return this.world.getBlockState(pos);
+        }
+    }
+
+    /**
+     * Same as World.getBlockDensity, worked out once for each box and centre until the world changes.
+     */
+    public float getBlockDensity(Vec3d vec, AxisAlignedBB bb)
+    {
+        this.validate();
+        ExplosionCache.ExposureKey explosioncache$exposurekey = new ExplosionCache.ExposureKey(vec, bb);
+        Float f = this.exposures.get(explosioncache$exposurekey);
+
+        if (f == null)
+        {
+            f = Float.valueOf(this.world.getBlockDensity(vec, bb));
+
+            if (this.blockChangeCount == this.world.blockChangeCount.get())
+            {
+                this.exposures.put(explosioncache$exposurekey, f);
+            }
+        }
+
+        return f.floatValue();
+    }
+
+    static class ExposureKey
+    {
+        private final Vec3d vec;
+        private final AxisAlignedBB bb;
+
+        private ExposureKey(Vec3d vecIn, AxisAlignedBB bbIn)
+        {
+            this.vec = vecIn;
+            this.bb = bbIn;
+        }
+
+        public boolean equals(Object p_equals_1_)
+        {
+            if (this == p_equals_1_)
+            {
+                return true;
+            }
+            else if (!(p_equals_1_ instanceof ExplosionCache.ExposureKey))
+            {
+                return false;
+            }
+            else
+            {
+                ExplosionCache.ExposureKey explosioncache$exposurekey = (ExplosionCache.ExposureKey)p_equals_1_;
+                return this.vec.equals(explosioncache$exposurekey.vec) && this.bb.equals(explosioncache$exposurekey.bb);
+            }
+        }
+
+        public int hashCode()
+        {
+            return 31 * this.vec.hashCode() + this.bb.hashCode();
+        }
+    }
+}
@@ -34,6 +34,27 @@ public class GameRules
         this.addGameRule("maxCommandChainLength", "65536", GameRules.ValueType.NUMERICAL_VALUE);
         this.addGameRule("announceAdvancements", "true", GameRules.ValueType.BOOLEAN_VALUE);
         this.addGameRule("gameLoopFunction", "-", GameRules.ValueType.FUNCTION);
+        this.addGameRule("logCascadingWorldgen", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("maxPopulationCascadeDepth", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("populationTickBudget", "10", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("batchedLighting", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("lightingTickBudget", "10", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("asyncChunkLighting", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("bulkEdits", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("concurrentDimensionTicking", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("regionTicking", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("monsterActivationRange", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("animalActivationRange", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("itemActivationRange", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("miscActivationRange", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("queuedNeighborUpdates", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("fastRedstoneWire", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("itemMergeInterval", "0", GameRules.ValueType.NUMERICAL_VALUE);
+        this.addGameRule("mergeXpOrbs", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("perPlayerMobCap", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("asyncPathfinding", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("sharePaths", "false", GameRules.ValueType.BOOLEAN_VALUE);
+        this.addGameRule("staggerGoalSelection", "false", GameRules.ValueType.BOOLEAN_VALUE);
     }
 
     public void addGameRule(String key, String value, GameRules.ValueType type)
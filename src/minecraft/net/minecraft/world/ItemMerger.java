@@ -0,0 +1,152 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.List;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Merges the item entities of a world in one pass every itemMergeInterval ticks, when that rule is above 0, instead of
+ * each item looking for items around it every 25 ticks or whenever it moves into another block. Items are sorted into
+ * one block cells, and each item is only compared with the items of the same kind in its own cell and the cells next
+ * to it, using the same reach and the same merging rules as before, so stack sizes and pickup delays are kept to.
+ */
+public class ItemMerger
+{
+    private final WorldServer world;
+    private final Long2ObjectMap<ItemMerger.Cell> cells = new Long2ObjectOpenHashMap<ItemMerger.Cell>();
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+
+    public ItemMerger(WorldServer worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Runs the merge pass if one is due this tick.
+     */
+    public void mergeItems()
+    {
+        int i = this.world.getGameRules().getInt("itemMergeInterval");
+
+        if (i > 0 && this.world.getTotalWorldTime() % (long)i == 0L)
+        {
+            List<EntityItem> list = Lists.<EntityItem>newArrayList();
+
+            for (int j = 0; j < this.world.loadedEntityList.size(); ++j)
+            {
+                Entity entity = this.world.loadedEntityList.get(j);
+
+                if (entity instanceof EntityItem && !entity.isDead)
+                {
+                    EntityItem entityitem = (EntityItem)entity;
+                    ItemStack itemstack = entityitem.getItem();
+
+                    if (itemstack.getCount() < itemstack.getMaxStackSize())
+                    {
+                        long k = this.getCellKey(MathHelper.floor(entityitem.posX), MathHelper.floor(entityitem.posY), MathHelper.floor(entityitem.posZ));
+                        ItemMerger.Cell itemmerger$cell = (ItemMerger.Cell)this.cells.get(k);
+
+                        if (itemmerger$cell == null)
+                        {
+                            itemmerger$cell = new ItemMerger.Cell();
+                            this.cells.put(k, itemmerger$cell);
+                        }
+
+                        itemmerger$cell.items.add(entityitem);
+                        itemmerger$cell.kinds.add(getKind(itemstack));
+                        list.add(entityitem);
+                    }
+                }
+            }
+
+            for (int l = 0; l < list.size(); ++l)
+            {
+                EntityItem entityitem1 = list.get(l);
+
+                if (!entityitem1.isDead)
+                {
+                    this.mergeWithNearby(entityitem1);
+                }
+            }
+
+            this.cells.clear();
+        }
+    }
+
+    /**
+     * Merges the item with the items of the same kind that it reaches, as EntityItem.searchForOtherItemsNearby would.
+     */
+    private void mergeWithNearby(EntityItem item)
+    {
+        int i = getKind(item.getItem());
+        int j = MathHelper.floor(item.posX);
+        int k = MathHelper.floor(item.posY);
+        int l = MathHelper.floor(item.posZ);
+        AxisAlignedBB axisalignedbb = item.getEntityBoundingBox().grow(0.5D, 0.0D, 0.5D);
+
+        for (int i1 = j - 1; i1 <= j + 1; ++i1)
+        {
+            for (int j1 = k - 1; j1 <= k + 1; ++j1)
+            {
+                for (int k1 = l - 1; k1 <= l + 1; ++k1)
+                {
+                    ItemMerger.Cell itemmerger$cell = (ItemMerger.Cell)this.cells.get(this.getCellKey(i1, j1, k1));
+
+                    if (itemmerger$cell != null)
+                    {
+                        for (int l1 = 0; l1 < itemmerger$cell.items.size(); ++l1)
+                        {
+                            EntityItem entityitem = itemmerger$cell.items.get(l1);
+
+                            if (itemmerger$cell.kinds.getInt(l1) == i && entityitem != item && !entityitem.isDead && axisalignedbb.intersects(entityitem.getEntityBoundingBox()))
+                            {
+                                if (item.combineItems(entityitem) && item.isDead)
+                                {
+                                    return;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private long getCellKey(int x, int y, int z)
+    {
+        return this.mutablePos.setPos(x, y, z).toLong();
+    }
+
+    /**
+     * Returns a hash of what has to match for two stacks to merge: the item, its metadata when it has subtypes, and its
+     * tag.
+     */
+    private static int getKind(ItemStack stack)
+    {
+        Item item = stack.getItem();
+        int i = Item.getIdFromItem(item);
+
+        if (item.getHasSubtypes())
+        {
+            i = 31 * i + stack.getMetadata();
+        }
+
+        return stack.hasTagCompound() ? 31 * i + stack.getTagCompound().hashCode() : i;
+    }
+
+    static class Cell
+    {
+        private final List<EntityItem> items = Lists.<EntityItem>newArrayList();
+        private final IntList kinds = new IntArrayList();
+    }
+}
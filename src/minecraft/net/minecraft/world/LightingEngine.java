@@ -0,0 +1,398 @@
+package net.minecraft.world;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Queues light checks and runs them in batches instead of relighting the area around each block change on its own.
+ * Each batch first removes light that may have come from the checked positions, flooding outwards from them, and then
+ * spreads light back in from the sources and brighter blocks found at the edge of the removed area. Both floods use
+ * queues that grow as needed, so large changes are never cut short.
+ *
+ * Queued checks are run by the world's tick within a time budget, so light read through the world may lag behind the
+ * blocks until then. All of them are run before light is sent to players or saved.
+ */
+public class LightingEngine
+{
+    /** How many queued positions are checked together before the time budget is looked at again. */
+    private static final int BATCH_SIZE = 256;
+    private static final EnumFacing[] FACINGS = EnumFacing.values();
+    private final World world;
+    private final LongLinkedOpenHashSet pendingSkyLight = new LongLinkedOpenHashSet();
+    private final LongLinkedOpenHashSet pendingBlockLight = new LongLinkedOpenHashSet();
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+
+    /** Positions whose light is being removed, packed with their previous light level. */
+    private long[] decreaseQueue = new long[1024];
+    private int decreaseCount;
+
+    /** Positions whose light is spreading to their neighbours, packed with their light level. */
+    private long[] increaseQueue = new long[1024];
+    private int increaseCount;
+    private boolean processing;
+
+    /** The chunk last looked up, as floods mostly stay within one chunk. */
+    private Chunk cachedChunk;
+
+    public LightingEngine(World worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Queues a check of the light of the given type at the given position. Checking a position that is already queued
+     * does nothing. Checks may be queued from several ticking regions at once.
+     */
+    public synchronized void queueUpdate(EnumSkyBlock type, BlockPos pos)
+    {
+        if (type == EnumSkyBlock.SKY)
+        {
+            this.pendingSkyLight.add(pos.toLong());
+        }
+        else
+        {
+            this.pendingBlockLight.add(pos.toLong());
+        }
+    }
+
+    /**
+     * Whether there are queued checks that are not being run right now.
+     */
+    public boolean hasPendingUpdates()
+    {
+        return !this.processing && (!this.pendingSkyLight.isEmpty() || !this.pendingBlockLight.isEmpty());
+    }
+
+    public int getPendingUpdateCount()
+    {
+        return this.pendingSkyLight.size() + this.pendingBlockLight.size();
+    }
+
+    public void processAllUpdates()
+    {
+        this.processUpdates(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs queued checks in batches until none are left or the given number of nanoseconds has passed. At least one
+     * batch is run. Nothing is run from a ticking region, as the checks may be anywhere in the world; they are run once
+     * the regions are done.
+     */
+    public void processUpdates(long maxNanos)
+    {
+        if (this.hasPendingUpdates() && !RegionTickScheduler.isRegionThread())
+        {
+            long i = System.nanoTime();
+            this.processing = true;
+            this.world.profiler.startSection("lighting");
+
+            try
+            {
+                while (true)
+                {
+                    if (!this.pendingSkyLight.isEmpty())
+                    {
+                        this.processBatch(EnumSkyBlock.SKY, this.pendingSkyLight);
+                    }
+                    else
+                    {
+                        this.processBatch(EnumSkyBlock.BLOCK, this.pendingBlockLight);
+                    }
+
+                    if (this.pendingSkyLight.isEmpty() && this.pendingBlockLight.isEmpty() || System.nanoTime() - i >= maxNanos)
+                    {
+                        break;
+                    }
+                }
+            }
+            finally
+            {
+                this.processing = false;
+                this.cachedChunk = null;
+                this.world.profiler.endSection();
+            }
+        }
+    }
+
+    private void processBatch(EnumSkyBlock type, LongLinkedOpenHashSet pending)
+    {
+        if (type == EnumSkyBlock.SKY && !this.world.provider.hasSkyLight())
+        {
+            pending.clear();
+            return;
+        }
+
+        for (int i = 0; i < BATCH_SIZE && !pending.isEmpty(); ++i)
+        {
+            BlockPos blockpos = BlockPos.fromLong(pending.removeFirstLong());
+            int j = blockpos.getX();
+            int k = blockpos.getY();
+            int l = blockpos.getZ();
+
+            if (k >= 0 && k < 256 && this.world.isAreaLoaded(blockpos, 17, false))
+            {
+                Chunk chunk = this.getChunk(j >> 4, l >> 4);
+                IBlockState iblockstate = chunk.getBlockState(j, k, l);
+                int i1 = this.getLight(type, chunk, j, k, l);
+                int j1 = this.getEmittedLight(type, chunk, iblockstate, j, k, l);
+                int k1 = getOpacity(iblockstate);
+                int l1 = j1;
+
+                if (k1 < 15)
+                {
+                    for (EnumFacing enumfacing : FACINGS)
+                    {
+                        int i2 = k + enumfacing.getYOffset();
+                        Chunk chunk1 = i2 >= 0 && i2 < 256 ? this.getChunk(j + enumfacing.getXOffset() >> 4, l + enumfacing.getZOffset() >> 4) : null;
+
+                        if (chunk1 != null)
+                        {
+                            l1 = Math.max(l1, this.getLight(type, chunk1, j + enumfacing.getXOffset(), i2, l + enumfacing.getZOffset()) - k1);
+                        }
+                    }
+                }
+
+                if (l1 > i1)
+                {
+                    this.setLight(type, chunk, j, k, l, l1);
+                    this.enqueueIncrease(j, k, l, l1);
+                }
+                else if (l1 < i1)
+                {
+                    this.setLight(type, chunk, j, k, l, j1);
+                    this.enqueueDecrease(j, k, l, i1);
+
+                    if (j1 > 1)
+                    {
+                        this.enqueueIncrease(j, k, l, j1);
+                    }
+                }
+            }
+        }
+
+        this.runDecreases(type);
+        this.runIncreases(type);
+    }
+
+    /**
+     * Removes light from every neighbour that is darker than the position it is reached from, as its light may have
+     * come from there. Brighter neighbours keep their light and are queued to spread it back into the removed area.
+     */
+    private void runDecreases(EnumSkyBlock type)
+    {
+        for (int i = 0; i < this.decreaseCount; ++i)
+        {
+            long j = this.decreaseQueue[i];
+            int k = unpackX(j);
+            int l = unpackY(j);
+            int i1 = unpackZ(j);
+            int j1 = unpackLevel(j);
+
+            for (EnumFacing enumfacing : FACINGS)
+            {
+                int k1 = k + enumfacing.getXOffset();
+                int l1 = l + enumfacing.getYOffset();
+                int i2 = i1 + enumfacing.getZOffset();
+                Chunk chunk = l1 >= 0 && l1 < 256 ? this.getChunk(k1 >> 4, i2 >> 4) : null;
+
+                if (chunk != null)
+                {
+                    int j2 = this.getLight(type, chunk, k1, l1, i2);
+
+                    if (j2 != 0)
+                    {
+                        if (j2 < j1)
+                        {
+                            int k2 = this.getEmittedLight(type, chunk, chunk.getBlockState(k1, l1, i2), k1, l1, i2);
+
+                            if (k2 < j2)
+                            {
+                                this.setLight(type, chunk, k1, l1, i2, k2);
+                                this.enqueueDecrease(k1, l1, i2, j2);
+
+                                if (k2 > 1)
+                                {
+                                    this.enqueueIncrease(k1, l1, i2, k2);
+                                }
+                            }
+                            else if (j2 > 1)
+                            {
+                                this.enqueueIncrease(k1, l1, i2, j2);
+                            }
+                        }
+                        else if (j2 > 1)
+                        {
+                            this.enqueueIncrease(k1, l1, i2, j2);
+                        }
+                    }
+                }
+            }
+        }
+
+        this.decreaseCount = 0;
+    }
+
+    /**
+     * Spreads light from each queued position to neighbours it can make brighter. Entries whose position has changed
+     * light since they were queued are stale and skipped.
+     */
+    private void runIncreases(EnumSkyBlock type)
+    {
+        for (int i = 0; i < this.increaseCount; ++i)
+        {
+            long j = this.increaseQueue[i];
+            int k = unpackX(j);
+            int l = unpackY(j);
+            int i1 = unpackZ(j);
+            int j1 = unpackLevel(j);
+            Chunk chunk = this.getChunk(k >> 4, i1 >> 4);
+
+            if (chunk != null && this.getLight(type, chunk, k, l, i1) == j1)
+            {
+                for (EnumFacing enumfacing : FACINGS)
+                {
+                    int k1 = k + enumfacing.getXOffset();
+                    int l1 = l + enumfacing.getYOffset();
+                    int i2 = i1 + enumfacing.getZOffset();
+                    Chunk chunk1 = l1 >= 0 && l1 < 256 ? this.getChunk(k1 >> 4, i2 >> 4) : null;
+
+                    if (chunk1 != null)
+                    {
+                        int j2 = getOpacity(chunk1.getBlockState(k1, l1, i2));
+
+                        if (j2 < 15)
+                        {
+                            int k2 = j1 - j2;
+
+                            if (k2 > this.getLight(type, chunk1, k1, l1, i2))
+                            {
+                                this.setLight(type, chunk1, k1, l1, i2, k2);
+
+                                if (k2 > 1)
+                                {
+                                    this.enqueueIncrease(k1, l1, i2, k2);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        this.increaseCount = 0;
+    }
+
+    /**
+     * How much light a block takes away when light enters it, as World.getRawLight counts it: at least 1, and 1 for
+     * opaque blocks that give off light.
+     */
+    static int getOpacity(IBlockState state)
+    {
+        int i = state.getLightOpacity();
+
+        if (i >= 15 && state.getLightValue() > 0)
+        {
+            i = 1;
+        }
+
+        return i < 1 ? 1 : i;
+    }
+
+    /**
+     * The light a block has before any light spreads into it: full sky light where the sky is visible, otherwise the
+     * light the block gives off.
+     */
+    private int getEmittedLight(EnumSkyBlock type, Chunk chunk, IBlockState state, int x, int y, int z)
+    {
+        if (type == EnumSkyBlock.SKY)
+        {
+            return chunk.canSeeSky(this.mutablePos.setPos(x, y, z)) ? 15 : 0;
+        }
+        else
+        {
+            return state.getLightValue();
+        }
+    }
+
+    private int getLight(EnumSkyBlock type, Chunk chunk, int x, int y, int z)
+    {
+        return chunk.getLightFor(type, this.mutablePos.setPos(x, y, z));
+    }
+
+    private void setLight(EnumSkyBlock type, Chunk chunk, int x, int y, int z, int level)
+    {
+        chunk.setLightFor(type, this.mutablePos.setPos(x, y, z), level);
+        this.world.notifyLightSet(this.mutablePos);
+    }
+
+    @Nullable
+    private Chunk getChunk(int chunkX, int chunkZ)
+    {
+        Chunk chunk = this.cachedChunk;
+
+        if (chunk == null || chunk.x != chunkX || chunk.z != chunkZ)
+        {
+            chunk = this.world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+
+            if (chunk != null)
+            {
+                this.cachedChunk = chunk;
+            }
+        }
+
+        return chunk;
+    }
+
+    private void enqueueDecrease(int x, int y, int z, int level)
+    {
+        if (this.decreaseCount == this.decreaseQueue.length)
+        {
+            this.decreaseQueue = Arrays.copyOf(this.decreaseQueue, this.decreaseCount * 2);
+        }
+
+        this.decreaseQueue[this.decreaseCount++] = pack(x, y, z, level);
+    }
+
+    private void enqueueIncrease(int x, int y, int z, int level)
+    {
+        if (this.increaseCount == this.increaseQueue.length)
+        {
+            this.increaseQueue = Arrays.copyOf(this.increaseQueue, this.increaseCount * 2);
+        }
+
+        this.increaseQueue[this.increaseCount++] = pack(x, y, z, level);
+    }
+
+    /**
+     * Packs a position and light level into a long: 26 bits of x, 26 bits of z, 8 bits of y and 4 bits of level.
+     */
+    private static long pack(int x, int y, int z, int level)
+    {
+        return ((long)x & 67108863L) << 38 | ((long)z & 67108863L) << 12 | (long)(y << 4) | (long)level;
+    }
+
+    private static int unpackX(long packed)
+    {
+        return (int)(packed >> 38);
+    }
+
+    private static int unpackY(long packed)
+    {
+        return (int)(packed >> 4 & 255L);
+    }
+
+    private static int unpackZ(long packed)
+    {
+        return (int)(packed << 26 >> 38);
+    }
+
+    private static int unpackLevel(long packed)
+    {
+        return (int)(packed & 15L);
+    }
+}
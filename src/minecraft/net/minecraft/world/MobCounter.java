@@ -0,0 +1,113 @@
+package net.minecraft.world;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EnumCreatureType;
+
+/**
+ * Keeps the number of loaded entities of each creature type that count towards the mob caps, as World.countEntities
+ * would count them, up to date as entities are added to and removed from the world and as mobs are made persistent,
+ * so that spawning no longer goes through every loaded entity for every creature type each tick.
+ *
+ * Mobs may be made persistent while their region ticks, so changes are synchronized.
+ */
+public class MobCounter
+{
+    private static final EnumCreatureType[] CREATURE_TYPES = EnumCreatureType.values();
+
+    /** The loaded entities of at least one creature type, with a bit set for each of their types. */
+    private final Reference2IntMap<Entity> creatures = new Reference2IntOpenHashMap<Entity>();
+    private final int[] counts = new int[CREATURE_TYPES.length];
+
+    public synchronized void onEntityAdded(Entity entityIn)
+    {
+        int i = getTypes(entityIn);
+
+        if (i != 0 && !this.creatures.containsKey(entityIn))
+        {
+            this.creatures.put(entityIn, i);
+
+            if (isCounted(entityIn))
+            {
+                this.add(i, 1);
+            }
+        }
+    }
+
+    public synchronized void onEntityRemoved(Entity entityIn)
+    {
+        if (this.creatures.containsKey(entityIn))
+        {
+            int i = this.creatures.removeInt(entityIn);
+
+            if (isCounted(entityIn))
+            {
+                this.add(i, -1);
+            }
+        }
+    }
+
+    /**
+     * Called by a mob whose persistence has just changed.
+     */
+    public synchronized void onPersistenceChanged(EntityLiving entityIn)
+    {
+        if (this.creatures.containsKey(entityIn))
+        {
+            this.add(this.creatures.getInt(entityIn), entityIn.isNoDespawnRequired() ? -1 : 1);
+        }
+    }
+
+    /**
+     * Returns the same as World.countEntities for the class of the creature type.
+     */
+    public synchronized int getCount(EnumCreatureType type)
+    {
+        return this.counts[type.ordinal()];
+    }
+
+    /**
+     * Returns the loaded entities of at least one creature type, with bit n set if they are of the nth type. Only for
+     * use on the main thread, outside of region ticking.
+     */
+    public Reference2IntMap<Entity> getCreatures()
+    {
+        return this.creatures;
+    }
+
+    private void add(int types, int amount)
+    {
+        for (int i = 0; i < CREATURE_TYPES.length; ++i)
+        {
+            if ((types & 1 << i) != 0)
+            {
+                this.counts[i] += amount;
+            }
+        }
+    }
+
+    /**
+     * Whether the entity counts towards the caps of its types: all but persistent mobs do.
+     */
+    public static boolean isCounted(Entity entityIn)
+    {
+        return !(entityIn instanceof EntityLiving) || !((EntityLiving)entityIn).isNoDespawnRequired();
+    }
+
+    private static int getTypes(Entity entityIn)
+    {
+        int i = 0;
+
+        for (int j = 0; j < CREATURE_TYPES.length; ++j)
+        {
+            if (CREATURE_TYPES[j].getCreatureClass().isAssignableFrom(entityIn.getClass()))
+            {
+                i |= 1 << j;
+            }
+        }
+
+        return i;
+    }
+}
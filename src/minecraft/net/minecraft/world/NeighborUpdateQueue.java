@@ -0,0 +1,146 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Queues;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import java.util.ArrayDeque;
+import net.minecraft.block.Block;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Runs neighbour and observer updates breadth-first, in the order they were made, when queuedNeighborUpdates is on.
+ * The first update made runs the queue; updates made while it runs are added to the end instead of being run inside
+ * the update that made them, so a long chain of updates no longer nests deeper and deeper on the stack. An update equal
+ * to one still waiting in the queue is dropped, as running the waiting one covers both.
+ *
+ * Updates run straight away only go through the queue while the world is counting them.
+ */
+public class NeighborUpdateQueue
+{
+    private final World world;
+    private final ArrayDeque<NeighborUpdateQueue.Update> queue = Queues.<NeighborUpdateQueue.Update>newArrayDeque();
+
+    /** The updates waiting in the queue. */
+    private final ObjectSet<NeighborUpdateQueue.Update> pending = new ObjectOpenHashSet<NeighborUpdateQueue.Update>();
+    private boolean running;
+    private long updateCount;
+    private long duplicateCount;
+
+    public NeighborUpdateQueue(World worldIn)
+    {
+        this.world = worldIn;
+    }
+
+    /**
+     * Queues an update of the block at pos, made by changedBlock at changedBlockPos, and runs the queue unless it is
+     * already running.
+     */
+    public void add(BlockPos pos, Block changedBlock, BlockPos changedBlockPos, boolean observer)
+    {
+        NeighborUpdateQueue.Update neighborupdatequeue$update = new NeighborUpdateQueue.Update(pos.toImmutable(), changedBlock, changedBlockPos.toImmutable(), observer);
+
+        if (this.pending.add(neighborupdatequeue$update))
+        {
+            this.queue.add(neighborupdatequeue$update);
+        }
+        else
+        {
+            ++this.duplicateCount;
+        }
+
+        if (!this.running)
+        {
+            this.running = true;
+
+            try
+            {
+                while (!this.queue.isEmpty())
+                {
+                    NeighborUpdateQueue.Update neighborupdatequeue$update1 = this.queue.poll();
+                    this.pending.remove(neighborupdatequeue$update1);
+                    this.run(neighborupdatequeue$update1.pos, neighborupdatequeue$update1.changedBlock, neighborupdatequeue$update1.changedBlockPos, neighborupdatequeue$update1.observer);
+                }
+            }
+            finally
+            {
+                this.queue.clear();
+                this.pending.clear();
+                this.running = false;
+            }
+        }
+    }
+
+    /**
+     * Runs an update straight away.
+     */
+    public void run(BlockPos pos, Block changedBlock, BlockPos changedBlockPos, boolean observer)
+    {
+        ++this.updateCount;
+
+        if (observer)
+        {
+            this.world.updateObserver(pos, changedBlock, changedBlockPos);
+        }
+        else
+        {
+            this.world.updateNeighbor(pos, changedBlock, changedBlockPos);
+        }
+    }
+
+    /**
+     * How many updates have been run on this thread, queued or counted.
+     */
+    public long getUpdateCount()
+    {
+        return this.updateCount;
+    }
+
+    /**
+     * How many updates have been dropped on this thread because an equal one was waiting in the queue.
+     */
+    public long getDuplicateCount()
+    {
+        return this.duplicateCount;
+    }
+
+    static class Update
+    {
+        private final BlockPos pos;
+        private final Block changedBlock;
+        private final BlockPos changedBlockPos;
+        private final boolean observer;
+
+        private Update(BlockPos posIn, Block changedBlockIn, BlockPos changedBlockPosIn, boolean observerIn)
+        {
+            this.pos = posIn;
+            this.changedBlock = changedBlockIn;
+            this.changedBlockPos = changedBlockPosIn;
+            this.observer = observerIn;
+        }
+
+        public boolean equals(Object p_equals_1_)
+        {
+            if (this == p_equals_1_)
+            {
+                return true;
+            }
+            else if (!(p_equals_1_ instanceof NeighborUpdateQueue.Update))
+            {
+                return false;
+            }
+            else
+            {
+                NeighborUpdateQueue.Update neighborupdatequeue$update = (NeighborUpdateQueue.Update)p_equals_1_;
+                return this.observer == neighborupdatequeue$update.observer && this.changedBlock == neighborupdatequeue$update.changedBlock && this.pos.equals(neighborupdatequeue$update.pos) && this.changedBlockPos.equals(neighborupdatequeue$update.changedBlockPos);
+            }
+        }
+
+        public int hashCode()
+        {
+            int i = this.pos.hashCode();
+            i = 31 * i + this.changedBlockPos.hashCode();
+            i = 31 * i + this.changedBlock.hashCode();
+            return 31 * i + (this.observer ? 1 : 0);
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package net.minecraft.world;
 
+import java.util.concurrent.atomic.AtomicLong;
 import net.minecraft.block.Block;
 import net.minecraft.util.math.BlockPos;
 
 public class NextTickListEntry implements Comparable<NextTickListEntry>
 {
     /** The id number for the next tick entry */
-    private static long nextTickEntryID;
+    private static final AtomicLong NEXT_TICK_ENTRY_ID = new AtomicLong();
     private final Block block;
     public final BlockPos position;
 
@@ -19,7 +20,7 @@ public class NextTickListEntry implements Comparable<NextTickListEntry>
 
     public NextTickListEntry(BlockPos positionIn, Block blockIn)
     {
-        this.tickEntryID = (long)(nextTickEntryID++);
+        this.tickEntryID = NEXT_TICK_ENTRY_ID.getAndIncrement();
         this.position = positionIn.toImmutable();
         this.block = blockIn;
     }
@@ -0,0 +1,84 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Tracks whether a world is populating chunks and remembers the last few chunks population wrote to or read from.
+ * Decorators make several lookups per block they place, nearly all of them in the four chunks being populated, so
+ * these are answered without going through the chunk provider. Chunks are only unloaded between ticks, so the cached
+ * chunks stay valid until the outermost population ends.
+ */
+public class PopulationWriteContext
+{
+    private final Chunk[] chunks = new Chunk[4];
+
+    /** The slot the next chunk looked up through the chunk provider is cached in. */
+    private int nextSlot;
+
+    /** The chunks being populated, innermost last, as population can generate and populate further chunks. */
+    private final List<Chunk> populatingChunks = Lists.<Chunk>newArrayList();
+
+    public void begin(Chunk chunk)
+    {
+        this.populatingChunks.add(chunk);
+    }
+
+    public void end()
+    {
+        this.populatingChunks.remove(this.populatingChunks.size() - 1);
+
+        if (this.populatingChunks.isEmpty())
+        {
+            for (int i = 0; i < this.chunks.length; ++i)
+            {
+                this.chunks[i] = null;
+            }
+        }
+    }
+
+    public boolean isActive()
+    {
+        return !this.populatingChunks.isEmpty();
+    }
+
+    /**
+     * Returns how many populations are running, so 1 while a single chunk is populated and more once population has
+     * cascaded into further chunks.
+     */
+    public int getDepth()
+    {
+        return this.populatingChunks.size();
+    }
+
+    /**
+     * Returns the chunk whose population is innermost, or null outside of population.
+     */
+    @Nullable
+    public Chunk getPopulatingChunk()
+    {
+        return this.populatingChunks.isEmpty() ? null : (Chunk)this.populatingChunks.get(this.populatingChunks.size() - 1);
+    }
+
+    @Nullable
+    public Chunk getChunk(int x, int z)
+    {
+        for (Chunk chunk : this.chunks)
+        {
+            if (chunk != null && chunk.x == x && chunk.z == z)
+            {
+                return chunk;
+            }
+        }
+
+        return null;
+    }
+
+    public void addChunk(Chunk chunk)
+    {
+        this.chunks[this.nextSlot] = chunk;
+        this.nextSlot = (this.nextSlot + 1) % this.chunks.length;
+    }
+}
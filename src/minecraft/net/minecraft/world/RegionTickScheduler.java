@@ -0,0 +1,844 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.crash.CrashReport;
+import net.minecraft.crash.CrashReportCategory;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ITickable;
+import net.minecraft.util.ReportedException;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraft.world.gen.ChunkProviderServer;
+
+/**
+ * Ticks the entities, block entities and random block ticks of a world in parallel, one task per region, when the
+ * experimental regionTicking rule is on. A region is a group of loaded chunks far enough from every other group that
+ * what is ticked in one does not normally reach another: it ticks its interior chunks, whose neighbours within RADIUS
+ * chunks are all loaded, and owns those and the ring of RADIUS chunks around them. The rings of two regions are always
+ * at least one chunk apart. Players, riders, bosses, fast movers and everything outside the interior chunks are still
+ * ticked on the main thread afterwards, as before.
+ *
+ * While a region ticks, ChunkProviderServer checks each chunk looked up against it. Loaded chunks that no region owns
+ * can be read, and unloaded ones look unloaded. Looking up a chunk of another region or world, or asking for an unloaded
+ * chunk to be loaded, stops the entity, block entity or random block tick being run there; it is run again on the main
+ * thread once the regions are done, in the same tick. What it did in the region before it was stopped is kept. An entity
+ * or block entity that reaches outside its region is also ticked on the main thread for the next SERIAL_TICKS ticks.
+ * Spawned entities, dimension changes and command block runs are held back until the region tasks are done.
+ *
+ * Regions of a world, and the dimensions themselves when they tick concurrently, run the same block and world code on
+ * several threads at once. Scratch state that used to live in a single field of a block or world, such as the flow
+ * solver of liquids, the leaves decay area, the neighbour update queue and the explosion cache, is therefore kept in a
+ * ThreadLocal, one per thread.
+ */
+public class RegionTickScheduler
+{
+    /** How far, in chunks, what is ticked in an interior chunk may reach. */
+    private static final int RADIUS = 2;
+
+    /**
+     * The size of the cells interior chunks are grouped by. Interior chunks in cells that do not touch are at least
+     * 2 * RADIUS + 2 chunks apart, so their rings never meet.
+     */
+    private static final int CELL_SIZE = 2 * RADIUS + 1;
+
+    /** How many ticks an entity or block entity that reached outside its region is ticked on the main thread for. */
+    private static final int SERIAL_TICKS = 200;
+
+    /** The least number of ticks between two partitions of the loaded chunks. */
+    private static final int PARTITION_INTERVAL = 20;
+
+    /** Entities moving faster than this, squared, in blocks per tick are ticked on the main thread. */
+    private static final double MAX_SPEED_SQ = 4.0D;
+
+    /** Thrown on a region thread to stop what it is ticking, when that has to be run on the main thread instead. */
+    private static final RuntimeException CROSSING = new RegionTickScheduler.CrossingException();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), (new ThreadFactoryBuilder()).setNameFormat("Region Tick #%d").setDaemon(true).setThreadFactory(RegionTickScheduler.WorkerThread::new).build());
+    private final WorldServer world;
+    private final List<RegionTickScheduler.Region> regions = Lists.<RegionTickScheduler.Region>newArrayList();
+
+    /** The region ticking each interior chunk. */
+    private final Long2IntMap interiorChunks = new Long2IntOpenHashMap();
+
+    /** The region owning each interior or ring chunk. */
+    private final Long2IntMap ownedChunks = new Long2IntOpenHashMap();
+    private final Set<Entity> tickedEntities = new ReferenceOpenHashSet<Entity>();
+    private final Set<TileEntity> tickedTileEntities = new ReferenceOpenHashSet<TileEntity>();
+
+    /** The world time until which each entity, by id, is ticked on the main thread. */
+    private final Int2LongMap serialEntities = new Int2LongOpenHashMap();
+
+    /** The world time until which each block entity, by position, is ticked on the main thread. */
+    private final Long2LongMap serialTileEntities = new Long2LongOpenHashMap();
+    private int partitionedModCount = -1;
+    private long partitionTime;
+    private boolean active;
+
+    public RegionTickScheduler(WorldServer worldIn)
+    {
+        this.world = worldIn;
+        this.interiorChunks.defaultReturnValue(-1);
+        this.ownedChunks.defaultReturnValue(-1);
+    }
+
+    /**
+     * Turns region ticking on or off for this tick from the regionTicking rule, and partitions the loaded chunks again
+     * if they have changed. Regions are only ticked when there are at least two of them and the profiler is off, as
+     * the profiler can only be used from one thread.
+     */
+    public void update()
+    {
+        if (this.world.getGameRules().getBoolean("regionTicking") && !this.world.profiler.profilingEnabled)
+        {
+            ChunkProviderServer chunkproviderserver = this.world.getChunkProvider();
+            long i = this.world.getTotalWorldTime();
+
+            if (chunkproviderserver.getLoadedChunksModCount() != this.partitionedModCount && i - this.partitionTime >= (long)PARTITION_INTERVAL)
+            {
+                this.partition(chunkproviderserver);
+                this.partitionedModCount = chunkproviderserver.getLoadedChunksModCount();
+                this.partitionTime = i;
+                this.removeExpiredPins(i);
+            }
+
+            this.active = this.regions.size() >= 2;
+        }
+        else
+        {
+            this.active = false;
+
+            if (this.partitionedModCount != -1)
+            {
+                this.regions.clear();
+                this.interiorChunks.clear();
+                this.ownedChunks.clear();
+                this.serialEntities.clear();
+                this.serialTileEntities.clear();
+                this.partitionedModCount = -1;
+            }
+        }
+    }
+
+    private void partition(ChunkProviderServer chunkProvider)
+    {
+        this.regions.clear();
+        this.interiorChunks.clear();
+        this.ownedChunks.clear();
+        Long2ObjectMap<LongList> long2objectmap = new Long2ObjectOpenHashMap<LongList>();
+
+        for (Chunk chunk : chunkProvider.getLoadedChunks())
+        {
+            if (this.isInterior(chunkProvider, chunk.x, chunk.z))
+            {
+                long i = ChunkPos.asLong(Math.floorDiv(chunk.x, CELL_SIZE), Math.floorDiv(chunk.z, CELL_SIZE));
+                LongList longlist = (LongList)long2objectmap.get(i);
+
+                if (longlist == null)
+                {
+                    longlist = new LongArrayList();
+                    long2objectmap.put(i, longlist);
+                }
+
+                longlist.add(ChunkPos.asLong(chunk.x, chunk.z));
+            }
+        }
+
+        LongSet longset = new LongOpenHashSet();
+        LongList longlist1 = new LongArrayList();
+        LongIterator longiterator = long2objectmap.keySet().iterator();
+
+        while (longiterator.hasNext())
+        {
+            long j = longiterator.nextLong();
+
+            if (longset.add(j))
+            {
+                RegionTickScheduler.Region regiontickscheduler$region = new RegionTickScheduler.Region(this.regions.size(), this.world.rand.nextInt(), this.world.rand.nextLong());
+                this.regions.add(regiontickscheduler$region);
+                longlist1.add(j);
+
+                while (!longlist1.isEmpty())
+                {
+                    long k = longlist1.removeLong(longlist1.size() - 1);
+                    LongList longlist2 = (LongList)long2objectmap.get(k);
+
+                    for (int l = 0; l < longlist2.size(); ++l)
+                    {
+                        this.addInteriorChunk(regiontickscheduler$region, longlist2.getLong(l));
+                    }
+
+                    int i2 = (int)k;
+                    int j2 = (int)(k >> 32);
+
+                    for (int i1 = -1; i1 <= 1; ++i1)
+                    {
+                        for (int j1 = -1; j1 <= 1; ++j1)
+                        {
+                            long k1 = ChunkPos.asLong(i2 + i1, j2 + j1);
+
+                            if (long2objectmap.containsKey(k1) && longset.add(k1))
+                            {
+                                longlist1.add(k1);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isInterior(ChunkProviderServer chunkProvider, int chunkX, int chunkZ)
+    {
+        for (int i = -RADIUS; i <= RADIUS; ++i)
+        {
+            for (int j = -RADIUS; j <= RADIUS; ++j)
+            {
+                if (!chunkProvider.chunkExists(chunkX + i, chunkZ + j))
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void addInteriorChunk(RegionTickScheduler.Region region, long chunkKey)
+    {
+        this.interiorChunks.put(chunkKey, region.index);
+        int i = (int)chunkKey;
+        int j = (int)(chunkKey >> 32);
+
+        for (int k = -RADIUS; k <= RADIUS; ++k)
+        {
+            for (int l = -RADIUS; l <= RADIUS; ++l)
+            {
+                this.ownedChunks.put(ChunkPos.asLong(i + k, j + l), region.index);
+            }
+        }
+    }
+
+    private void removeExpiredPins(long time)
+    {
+        ObjectIterator<Int2LongMap.Entry> objectiterator = this.serialEntities.int2LongEntrySet().iterator();
+
+        while (objectiterator.hasNext())
+        {
+            if (((Int2LongMap.Entry)objectiterator.next()).getLongValue() <= time)
+            {
+                objectiterator.remove();
+            }
+        }
+
+        ObjectIterator<Long2LongMap.Entry> objectiterator1 = this.serialTileEntities.long2LongEntrySet().iterator();
+
+        while (objectiterator1.hasNext())
+        {
+            if (((Long2LongMap.Entry)objectiterator1.next()).getLongValue() <= time)
+            {
+                objectiterator1.remove();
+            }
+        }
+    }
+
+    /**
+     * Hands the random block ticks of the chunk to its region, if it is an interior chunk, and returns whether it did.
+     */
+    public boolean queueRandomTicks(Chunk chunkIn)
+    {
+        if (this.active)
+        {
+            int i = this.interiorChunks.get(ChunkPos.asLong(chunkIn.x, chunkIn.z));
+
+            if (i >= 0)
+            {
+                (this.regions.get(i)).randomTickChunks.add(chunkIn);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Runs the random block ticks handed to the regions, and then those that were stopped for reaching outside their
+     * region.
+     */
+    public void tickRandomBlocks(int randomTickSpeed)
+    {
+        if (this.active)
+        {
+            this.runRegions((region) ->
+            {
+                for (int i = 0; i < region.randomTickChunks.size(); ++i)
+                {
+                    this.tickRandomBlocks(region, region.randomTickChunks.get(i), randomTickSpeed);
+                }
+            });
+
+            for (RegionTickScheduler.Region regiontickscheduler$region : this.regions)
+            {
+                for (int i = 0; i < regiontickscheduler$region.stoppedRandomTicks.size(); ++i)
+                {
+                    BlockPos blockpos = BlockPos.fromLong(regiontickscheduler$region.stoppedRandomTicks.getLong(i));
+                    IBlockState iblockstate = this.world.getBlockState(blockpos);
+
+                    if (iblockstate.getBlock().getTickRandomly())
+                    {
+                        iblockstate.getBlock().randomTick(this.world, blockpos, iblockstate, this.world.rand);
+                    }
+                }
+
+                regiontickscheduler$region.randomTickChunks.clear();
+                regiontickscheduler$region.stoppedRandomTicks.clear();
+            }
+        }
+    }
+
+    private void tickRandomBlocks(RegionTickScheduler.Region region, Chunk chunkIn, int randomTickSpeed)
+    {
+        int i = chunkIn.x * 16;
+        int j = chunkIn.z * 16;
+
+        for (ExtendedBlockStorage extendedblockstorage : chunkIn.getBlockStorageArray())
+        {
+            if (extendedblockstorage != Chunk.NULL_BLOCK_STORAGE && extendedblockstorage.needsRandomTick())
+            {
+                for (int k = 0; k < randomTickSpeed; ++k)
+                {
+                    region.updateLCG = region.updateLCG * 3 + 1013904223;
+                    int l = region.updateLCG >> 2;
+                    int i1 = l & 15;
+                    int j1 = l >> 8 & 15;
+                    int k1 = l >> 16 & 15;
+                    IBlockState iblockstate = extendedblockstorage.get(i1, k1, j1);
+                    Block block = iblockstate.getBlock();
+
+                    if (block.getTickRandomly())
+                    {
+                        BlockPos blockpos = new BlockPos(i1 + i, k1 + extendedblockstorage.getYLocation(), j1 + j);
+
+                        try
+                        {
+                            block.randomTick(this.world, blockpos, iblockstate, region.rand);
+                        }
+                        catch (RuntimeException runtimeexception)
+                        {
+                            if (!isCrossing(runtimeexception))
+                            {
+                                throw runtimeexception;
+                            }
+
+                            region.stoppedRandomTicks.add(blockpos.toLong());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ticks the entities and block entities of the interior chunks in their regions. The world's main loop then skips
+     * them, but still removes the dead ones, and ticks those that were stopped for reaching outside their region.
+     */
+    public void tickEntities()
+    {
+        this.tickedEntities.clear();
+        this.tickedTileEntities.clear();
+        this.update();
+
+        if (this.active)
+        {
+            long i = this.world.getTotalWorldTime();
+
+            for (int j = 0; j < this.world.loadedEntityList.size(); ++j)
+            {
+                Entity entity = this.world.loadedEntityList.get(j);
+                RegionTickScheduler.Region regiontickscheduler$region = this.getTickingRegion(entity, i);
+
+                if (regiontickscheduler$region != null)
+                {
+                    regiontickscheduler$region.entities.add(entity);
+                    this.tickedEntities.add(entity);
+                }
+            }
+
+            for (int k = 0; k < this.world.tickableTileEntities.size(); ++k)
+            {
+                TileEntity tileentity = this.world.tickableTileEntities.get(k);
+                RegionTickScheduler.Region regiontickscheduler$region1 = this.getTickingRegion(tileentity, i);
+
+                if (regiontickscheduler$region1 != null)
+                {
+                    regiontickscheduler$region1.tileEntities.add(tileentity);
+                    this.tickedTileEntities.add(tileentity);
+                }
+            }
+
+            this.runRegions(this::tickEntities);
+
+            for (RegionTickScheduler.Region regiontickscheduler$region2 : this.regions)
+            {
+                for (int l = 0; l < regiontickscheduler$region2.stoppedEntities.size(); ++l)
+                {
+                    this.tickedEntities.remove(regiontickscheduler$region2.stoppedEntities.get(l));
+                }
+
+                for (int i1 = 0; i1 < regiontickscheduler$region2.stoppedTileEntities.size(); ++i1)
+                {
+                    this.tickedTileEntities.remove(regiontickscheduler$region2.stoppedTileEntities.get(i1));
+                }
+
+                regiontickscheduler$region2.entities.clear();
+                regiontickscheduler$region2.tileEntities.clear();
+                regiontickscheduler$region2.stoppedEntities.clear();
+                regiontickscheduler$region2.stoppedTileEntities.clear();
+            }
+        }
+    }
+
+    @Nullable
+    private RegionTickScheduler.Region getTickingRegion(Entity entityIn, long time)
+    {
+        if (!entityIn.isDead && entityIn.addedToChunk && !(entityIn instanceof EntityPlayer) && !entityIn.isRiding() && !entityIn.isBeingRidden() && entityIn.isNonBoss())
+        {
+            if (entityIn.motionX * entityIn.motionX + entityIn.motionY * entityIn.motionY + entityIn.motionZ * entityIn.motionZ > MAX_SPEED_SQ)
+            {
+                return null;
+            }
+            else
+            {
+                int i = this.interiorChunks.get(ChunkPos.asLong(MathHelper.floor(entityIn.posX) >> 4, MathHelper.floor(entityIn.posZ) >> 4));
+
+                if (i < 0 || i != this.ownedChunks.get(ChunkPos.asLong(entityIn.chunkCoordX, entityIn.chunkCoordZ)) || this.serialEntities.get(entityIn.getEntityId()) > time)
+                {
+                    return null;
+                }
+                else
+                {
+                    if (entityIn instanceof EntityLiving)
+                    {
+                        EntityLivingBase entitylivingbase = ((EntityLiving)entityIn).getAttackTarget();
+
+                        if (entitylivingbase != null && this.ownedChunks.get(ChunkPos.asLong(entitylivingbase.chunkCoordX, entitylivingbase.chunkCoordZ)) != i)
+                        {
+                            return null;
+                        }
+                    }
+
+                    return this.regions.get(i);
+                }
+            }
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    @Nullable
+    private RegionTickScheduler.Region getTickingRegion(TileEntity tileEntityIn, long time)
+    {
+        if (!tileEntityIn.isInvalid() && tileEntityIn.hasWorld())
+        {
+            BlockPos blockpos = tileEntityIn.getPos();
+            int i = this.interiorChunks.get(ChunkPos.asLong(blockpos.getX() >> 4, blockpos.getZ() >> 4));
+            return i >= 0 && this.serialTileEntities.get(blockpos.toLong()) <= time ? (RegionTickScheduler.Region)this.regions.get(i) : null;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    private void tickEntities(RegionTickScheduler.Region region)
+    {
+        for (int i = 0; i < region.entities.size(); ++i)
+        {
+            Entity entity = region.entities.get(i);
+            region.setTicking(entity, (TileEntity)null);
+
+            if (!entity.isDead)
+            {
+                try
+                {
+                    this.world.updateEntity(entity);
+                }
+                catch (Throwable throwable)
+                {
+                    if (isCrossing(throwable))
+                    {
+                        region.stoppedEntities.add(entity);
+                        continue;
+                    }
+
+                    CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Ticking entity");
+                    CrashReportCategory crashreportcategory = crashreport.makeCategory("Entity being ticked");
+                    entity.addEntityCrashInfo(crashreportcategory);
+                    throw new ReportedException(crashreport);
+                }
+            }
+        }
+
+        this.world.blockChangeCount.incrementAndGet();
+
+        for (int j = 0; j < region.tileEntities.size(); ++j)
+        {
+            TileEntity tileentity = region.tileEntities.get(j);
+            region.setTicking((Entity)null, tileentity);
+
+            if (!tileentity.isInvalid() && tileentity.hasWorld())
+            {
+                BlockPos blockpos = tileentity.getPos();
+
+                if (this.world.isBlockLoaded(blockpos) && this.world.getWorldBorder().contains(blockpos))
+                {
+                    try
+                    {
+                        ((ITickable)tileentity).update();
+                    }
+                    catch (Throwable throwable1)
+                    {
+                        if (isCrossing(throwable1))
+                        {
+                            region.stoppedTileEntities.add(tileentity);
+                            continue;
+                        }
+
+                        CrashReport crashreport1 = CrashReport.makeCrashReport(throwable1, "Ticking block entity");
+                        CrashReportCategory crashreportcategory1 = crashreport1.makeCategory("Block entity being ticked");
+                        tileentity.addInfoToCrashReport(crashreportcategory1);
+                        throw new ReportedException(crashreport1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the task for every region on the worker threads and waits for all of them. Block entities set meanwhile are
+     * queued as they are while the world ticks its block entities, and the work the regions held back is done once
+     * they have all finished, unless the world is ticking at the same time as other dimensions, in which case the
+     * server does it at its safe point.
+     */
+    private void runRegions(Consumer<RegionTickScheduler.Region> task)
+    {
+        boolean flag = this.world.isTickingConcurrently();
+        boolean flag1 = this.world.processingLoadedTiles;
+        this.world.setTickingConcurrently(true);
+        this.world.processingLoadedTiles = true;
+        List<Future<?>> list = Lists.<Future<?>>newArrayList();
+
+        for (RegionTickScheduler.Region regiontickscheduler$region : this.regions)
+        {
+            list.add(EXECUTOR.submit(() ->
+            {
+                RegionTickScheduler.WorkerThread regiontickscheduler$workerthread = (RegionTickScheduler.WorkerThread)Thread.currentThread();
+                regiontickscheduler$workerthread.region = regiontickscheduler$region;
+
+                try
+                {
+                    task.accept(regiontickscheduler$region);
+                }
+                finally
+                {
+                    regiontickscheduler$workerthread.region = null;
+                    regiontickscheduler$region.setTicking((Entity)null, (TileEntity)null);
+                }
+            }));
+        }
+
+        Throwable throwable = null;
+
+        for (int i = 0; i < list.size(); ++i)
+        {
+            try
+            {
+                Uninterruptibles.getUninterruptibly(list.get(i));
+            }
+            catch (ExecutionException executionexception)
+            {
+                if (throwable == null)
+                {
+                    throwable = executionexception.getCause();
+                }
+            }
+        }
+
+        this.world.processingLoadedTiles = flag1;
+        long j = this.world.getTotalWorldTime() + (long)SERIAL_TICKS;
+
+        for (RegionTickScheduler.Region regiontickscheduler$region1 : this.regions)
+        {
+            for (int k = 0; k < regiontickscheduler$region1.crossedEntities.size(); ++k)
+            {
+                this.serialEntities.put(regiontickscheduler$region1.crossedEntities.getInt(k), j);
+            }
+
+            for (int l = 0; l < regiontickscheduler$region1.crossedTileEntities.size(); ++l)
+            {
+                this.serialTileEntities.put(regiontickscheduler$region1.crossedTileEntities.getLong(l), j);
+            }
+
+            regiontickscheduler$region1.crossedEntities.clear();
+            regiontickscheduler$region1.crossedTileEntities.clear();
+
+            if (throwable == null)
+            {
+                for (int i1 = 0; i1 < regiontickscheduler$region1.spawnedEntities.size(); ++i1)
+                {
+                    this.world.spawnEntity(regiontickscheduler$region1.spawnedEntities.get(i1));
+                }
+            }
+
+            regiontickscheduler$region1.spawnedEntities.clear();
+        }
+
+        if (throwable != null)
+        {
+            this.world.setTickingConcurrently(flag);
+            throw throwable instanceof ReportedException ? (ReportedException)throwable : new ReportedException(CrashReport.makeCrashReport(throwable, "Exception ticking regions"));
+        }
+        else if (!flag)
+        {
+            this.world.runSafePointTasks();
+        }
+    }
+
+    public boolean isTicked(Entity entityIn)
+    {
+        return !this.tickedEntities.isEmpty() && this.tickedEntities.contains(entityIn);
+    }
+
+    public boolean isTicked(TileEntity tileEntityIn)
+    {
+        return !this.tickedTileEntities.isEmpty() && this.tickedTileEntities.contains(tileEntityIn);
+    }
+
+    /**
+     * Holds back the spawn of the entity until the regions are done if it is spawned from one of this world's regions,
+     * and returns whether it did.
+     */
+    public boolean deferSpawn(Entity entityIn)
+    {
+        RegionTickScheduler.Region regiontickscheduler$region = getCurrentRegion();
+
+        if (regiontickscheduler$region != null && regiontickscheduler$region.getScheduler() == this)
+        {
+            regiontickscheduler$region.spawnedEntities.add(entityIn);
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the calling thread is ticking a region.
+     */
+    public static boolean isRegionThread()
+    {
+        return getCurrentRegion() != null;
+    }
+
+    @Nullable
+    private static RegionTickScheduler.Region getCurrentRegion()
+    {
+        Thread thread = Thread.currentThread();
+        return thread instanceof RegionTickScheduler.WorkerThread ? ((RegionTickScheduler.WorkerThread)thread).region : null;
+    }
+
+    /**
+     * Checks that the chunk may be looked up by the calling thread. Outside of regions any chunk may be. Inside one, the
+     * chunks the region owns may be, and so may chunks of the same world that no region owns, though that moves what is
+     * being ticked to the main thread for a while. Looking up any other chunk also stops what is being ticked, so it is
+     * run again on the main thread.
+     */
+    public static void checkChunkAccess(World worldIn, int chunkX, int chunkZ)
+    {
+        RegionTickScheduler.Region regiontickscheduler$region = getCurrentRegion();
+
+        if (regiontickscheduler$region != null)
+        {
+            RegionTickScheduler regiontickscheduler = regiontickscheduler$region.getScheduler();
+            int i = regiontickscheduler.world == worldIn ? regiontickscheduler.ownedChunks.get(ChunkPos.asLong(chunkX, chunkZ)) : -2;
+
+            if (i != regiontickscheduler$region.index)
+            {
+                regiontickscheduler$region.onCrossing();
+
+                if (i != -1)
+                {
+                    throw CROSSING;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops what the calling region thread is ticking, so it is run again on the main thread, which can load the chunk
+     * it asked for. Does nothing outside of regions.
+     */
+    public static void stopIfRegionThread()
+    {
+        RegionTickScheduler.Region regiontickscheduler$region = getCurrentRegion();
+
+        if (regiontickscheduler$region != null)
+        {
+            regiontickscheduler$region.onCrossing();
+            throw CROSSING;
+        }
+    }
+
+    /**
+     * Whether the throwable, or one it was caused by, was thrown to stop what a region was ticking. Block and entity
+     * code wraps what it catches in crash reports, so the whole chain is looked at.
+     */
+    private static boolean isCrossing(Throwable throwable)
+    {
+        for (Throwable throwable1 = throwable; throwable1 != null; throwable1 = throwable1.getCause())
+        {
+            if (throwable1 == CROSSING)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Whether the chunk is owned by the region the calling thread is ticking, or the calling thread is not ticking a
+     * region. Unlike checkChunkAccess this does not count as reaching outside the region.
+     */
+    public static boolean isOwnedHere(World worldIn, int chunkX, int chunkZ)
+    {
+        RegionTickScheduler.Region regiontickscheduler$region = getCurrentRegion();
+
+        if (regiontickscheduler$region == null)
+        {
+            return true;
+        }
+        else
+        {
+            RegionTickScheduler regiontickscheduler = regiontickscheduler$region.getScheduler();
+            return regiontickscheduler.world == worldIn && regiontickscheduler.ownedChunks.get(ChunkPos.asLong(chunkX, chunkZ)) == regiontickscheduler$region.index;
+        }
+    }
+
+    class Region
+    {
+        private final int index;
+        private final List<Chunk> randomTickChunks = Lists.<Chunk>newArrayList();
+        private final List<Entity> entities = Lists.<Entity>newArrayList();
+        private final List<TileEntity> tileEntities = Lists.<TileEntity>newArrayList();
+        private final List<Entity> spawnedEntities = Lists.<Entity>newArrayList();
+
+        /** What was stopped for reaching outside the region this tick, to be run again on the main thread. */
+        private final List<Entity> stoppedEntities = Lists.<Entity>newArrayList();
+        private final List<TileEntity> stoppedTileEntities = Lists.<TileEntity>newArrayList();
+        private final LongList stoppedRandomTicks = new LongArrayList();
+
+        /** The entities, by id, and block entities, by position, that reached outside the region this tick. */
+        private final IntList crossedEntities = new IntArrayList();
+        private final LongList crossedTileEntities = new LongArrayList();
+        private Entity tickingEntity;
+        private TileEntity tickingTileEntity;
+        private boolean crossed;
+        private int updateLCG;
+
+        /** The random passed to the random block ticks of the region, in place of the world's. */
+        private final Random rand;
+
+        private Region(int index, int seed, long randomSeed)
+        {
+            this.index = index;
+            this.updateLCG = seed;
+            this.rand = new Random(randomSeed);
+        }
+
+        private RegionTickScheduler getScheduler()
+        {
+            return RegionTickScheduler.this;
+        }
+
+        private void setTicking(@Nullable Entity entityIn, @Nullable TileEntity tileEntityIn)
+        {
+            this.tickingEntity = entityIn;
+            this.tickingTileEntity = tileEntityIn;
+            this.crossed = false;
+        }
+
+        private void onCrossing()
+        {
+            if (!this.crossed)
+            {
+                this.crossed = true;
+
+                if (this.tickingEntity != null)
+                {
+                    this.crossedEntities.add(this.tickingEntity.getEntityId());
+                }
+                else if (this.tickingTileEntity != null)
+                {
+                    this.crossedTileEntities.add(this.tickingTileEntity.getPos().toLong());
+                }
+            }
+        }
+    }
+
+    static class CrossingException extends RuntimeException
+    {
+        private CrossingException()
+        {
+            super("Reached outside of the ticking region", (Throwable)null, false, false);
+        }
+    }
+
+    static class WorkerThread extends Thread
+    {
+        private RegionTickScheduler.Region region;
+
+        private WorkerThread(Runnable task)
+        {
+            super(task);
+        }
+    }
+}
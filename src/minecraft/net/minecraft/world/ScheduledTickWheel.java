@@ -0,0 +1,307 @@
+package net.minecraft.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+
+/**
+ * Holds a world's scheduled block ticks in a timing wheel with one slot per tick for the current 256 tick page, and
+ * later pages kept aside until the wheel reaches them. Adding a tick and taking the due ones only touches the slots
+ * involved, and the ticks of a chunk are found through a per-chunk index instead of by walking every pending tick.
+ * Ticks come out in the same order as before: by time, then priority, then the order they were scheduled in.
+ *
+ * Ticks removed through the chunk index stay in their slot and are skipped when it is reached.
+ */
+public class ScheduledTickWheel
+{
+    private static final int SLOTS = 256;
+
+    /**
+     * The pending ticks of each chunk, each by itself, as ticks equal by position and block are only scheduled once.
+     */
+    private final Long2ObjectMap<Map<NextTickListEntry, NextTickListEntry>> entriesByChunk = new Long2ObjectOpenHashMap<Map<NextTickListEntry, NextTickListEntry>>();
+    private int size;
+
+    /** The ticks of the current page by their time & 255. Ticks that were due before now are in the current slot. */
+    private final List<NextTickListEntry>[] slots = new List[SLOTS];
+
+    /** Ticks after the current page, by their time >> 8. */
+    private final Long2ObjectMap<List<NextTickListEntry>> laterPages = new Long2ObjectOpenHashMap<List<NextTickListEntry>>();
+
+    /** How many ticks, including skipped ones, are in the slots. */
+    private int slotCount;
+
+    /** The time of the next slot to take ticks from. Every earlier slot is empty. */
+    private long currentTime;
+
+    public ScheduledTickWheel(long time)
+    {
+        this.currentTime = time;
+
+        for (int i = 0; i < SLOTS; ++i)
+        {
+            this.slots[i] = Lists.<NextTickListEntry>newArrayList();
+        }
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    public boolean contains(NextTickListEntry entry)
+    {
+        Map<NextTickListEntry, NextTickListEntry> map = (Map)this.entriesByChunk.get(getChunkKey(entry.position));
+        return map != null && map.containsKey(entry);
+    }
+
+    /**
+     * Schedules the tick unless an equal one is already pending. Returns whether it was added.
+     */
+    public boolean add(NextTickListEntry entry)
+    {
+        long i = getChunkKey(entry.position);
+        Map<NextTickListEntry, NextTickListEntry> map = (Map)this.entriesByChunk.get(i);
+
+        if (map == null)
+        {
+            map = Maps.<NextTickListEntry, NextTickListEntry>newHashMap();
+            this.entriesByChunk.put(i, map);
+        }
+        else if (map.containsKey(entry))
+        {
+            return false;
+        }
+
+        map.put(entry, entry);
+        ++this.size;
+        this.addToWheel(entry);
+        return true;
+    }
+
+    private void addToWheel(NextTickListEntry entry)
+    {
+        long i = Math.max(entry.scheduledTime, this.currentTime);
+
+        if (i >> 8 == this.currentTime >> 8)
+        {
+            this.slots[(int)(i & 255L)].add(entry);
+            ++this.slotCount;
+        }
+        else
+        {
+            List<NextTickListEntry> list = (List)this.laterPages.get(i >> 8);
+
+            if (list == null)
+            {
+                list = Lists.<NextTickListEntry>newArrayList();
+                this.laterPages.put(i >> 8, list);
+            }
+
+            list.add(entry);
+        }
+    }
+
+    /**
+     * Removes the given tick if it is still pending, rather than an equal tick that has been taken or removed since.
+     * Returns whether it was pending.
+     */
+    private boolean remove(NextTickListEntry entry)
+    {
+        long i = getChunkKey(entry.position);
+        Map<NextTickListEntry, NextTickListEntry> map = (Map)this.entriesByChunk.get(i);
+        NextTickListEntry nextticklistentry = map == null ? null : (NextTickListEntry)map.remove(entry);
+
+        if (nextticklistentry != entry)
+        {
+            if (nextticklistentry != null)
+            {
+                map.put(nextticklistentry, nextticklistentry);
+            }
+
+            return false;
+        }
+        else
+        {
+            --this.size;
+
+            if (map.isEmpty())
+            {
+                this.entriesByChunk.remove(i);
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Takes ticks due at or before the given time, in order, until the given number is taken.
+     */
+    public void pollDue(long time, int max, List<NextTickListEntry> out)
+    {
+        while (out.size() < max && this.currentTime <= time)
+        {
+            List<NextTickListEntry> list = this.slots[(int)(this.currentTime & 255L)];
+
+            if (!list.isEmpty())
+            {
+                Collections.sort(list);
+                int i = 0;
+
+                while (i < list.size() && out.size() < max)
+                {
+                    NextTickListEntry nextticklistentry = list.get(i++);
+
+                    if (this.remove(nextticklistentry))
+                    {
+                        out.add(nextticklistentry);
+                    }
+                }
+
+                this.slotCount -= i;
+
+                if (i < list.size())
+                {
+                    list.subList(0, i).clear();
+                    return;
+                }
+
+                list.clear();
+            }
+
+            this.advance(time);
+        }
+    }
+
+    /**
+     * Moves on to the next slot, or when the current page is empty, straight on to the next page holding ticks or past
+     * the given time, whichever comes first.
+     */
+    private void advance(long time)
+    {
+        long i = this.currentTime + 1L;
+
+        if (this.slotCount == 0)
+        {
+            long j = Long.MAX_VALUE;
+            LongIterator longiterator = this.laterPages.keySet().iterator();
+
+            while (longiterator.hasNext())
+            {
+                j = Math.min(j, longiterator.nextLong());
+            }
+
+            i = Math.max(i, Math.min(time + 1L, j == Long.MAX_VALUE ? Long.MAX_VALUE : j << 8));
+        }
+
+        long k = this.currentTime >> 8;
+        this.currentTime = i;
+
+        if (i >> 8 != k)
+        {
+            List<NextTickListEntry> list = (List)this.laterPages.remove(i >> 8);
+
+            if (list != null)
+            {
+                for (NextTickListEntry nextticklistentry : list)
+                {
+                    this.slots[(int)(Math.max(nextticklistentry.scheduledTime, i) & 255L)].add(nextticklistentry);
+                }
+
+                this.slotCount += list.size();
+            }
+        }
+    }
+
+    /**
+     * Takes the first ticks in order, due or not, until the given number is taken.
+     */
+    public void pollAll(int max, List<NextTickListEntry> out)
+    {
+        List<NextTickListEntry> list = Lists.<NextTickListEntry>newArrayList();
+
+        for (Map<NextTickListEntry, NextTickListEntry> map : this.entriesByChunk.values())
+        {
+            list.addAll(map.keySet());
+        }
+
+        Collections.sort(list);
+
+        for (int i = 0; i < list.size() && i < max; ++i)
+        {
+            NextTickListEntry nextticklistentry = list.get(i);
+            this.remove(nextticklistentry);
+            out.add(nextticklistentry);
+        }
+    }
+
+    /**
+     * Returns the pending ticks in the given columns, in order, or null if there are none. Like the box checks of the
+     * world, maxX and maxZ are exclusive and y is ignored.
+     */
+    @Nullable
+    public List<NextTickListEntry> getEntriesInBox(StructureBoundingBox structureBB, boolean remove)
+    {
+        List<NextTickListEntry> list = null;
+
+        for (int i = structureBB.minX >> 4; i <= structureBB.maxX - 1 >> 4; ++i)
+        {
+            for (int j = structureBB.minZ >> 4; j <= structureBB.maxZ - 1 >> 4; ++j)
+            {
+                Map<NextTickListEntry, NextTickListEntry> map = (Map)this.entriesByChunk.get(ChunkPos.asLong(i, j));
+
+                if (map != null)
+                {
+                    for (NextTickListEntry nextticklistentry : map.keySet())
+                    {
+                        BlockPos blockpos = nextticklistentry.position;
+
+                        if (blockpos.getX() >= structureBB.minX && blockpos.getX() < structureBB.maxX && blockpos.getZ() >= structureBB.minZ && blockpos.getZ() < structureBB.maxZ)
+                        {
+                            if (list == null)
+                            {
+                                list = Lists.<NextTickListEntry>newArrayList();
+                            }
+
+                            list.add(nextticklistentry);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (list != null)
+        {
+            Collections.sort(list);
+
+            if (remove)
+            {
+                for (NextTickListEntry nextticklistentry1 : list)
+                {
+                    this.remove(nextticklistentry1);
+                }
+            }
+        }
+
+        return list;
+    }
+
+    private static long getChunkKey(BlockPos pos)
+    {
+        return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import net.minecraft.advancements.AdvancementManager;
@@ -152,7 +153,7 @@ public abstract class World implements IBlockAccess
      * True while the World is ticking {@link #tickableTileEntities}, to prevent CME's if any of those ticks create more
      * tile entities.
      */
-    private boolean processingLoadedTiles;
+    boolean processingLoadedTiles;
     private final WorldBorder worldBorder;
 
     /**
@@ -163,6 +164,49 @@ public abstract class World implements IBlockAccess
      */
     int[] lightUpdateBlockList;
 
+    /** Caches the chunks used while chunks are being populated. */
+    protected final PopulationWriteContext populationContext = new PopulationWriteContext();
+
+    /** Runs light checks queued instead of being run as blocks change. */
+    protected final LightingEngine lightingEngine = new LightingEngine(this);
+
+    /** Lights fresh chunks off the main thread when asyncChunkLighting is on. */
+    protected final ChunkLightingWorker chunkLightingWorker = new ChunkLightingWorker(this);
+
+    /**
+     * Counts block changes, so that what explosions cache about the blocks can be dropped when they change. Also
+     * counted up when tile entities tick, as they may change block shapes. Regions count up the same counter from
+     * several threads at once.
+     */
+    final AtomicInteger blockChangeCount = new AtomicInteger();
+
+    /** What explosions have looked up this tick, one cache per thread. */
+    private final ThreadLocal<ExplosionCache> explosionCache = new ThreadLocal<ExplosionCache>()
+    {
+        protected ExplosionCache initialValue()
+        {
+            return new ExplosionCache(World.this);
+        }
+    };
+
+    /** Runs neighbour updates breadth-first when queuedNeighborUpdates is on, one queue per thread. */
+    private final ThreadLocal<NeighborUpdateQueue> neighborUpdateQueue = new ThreadLocal<NeighborUpdateQueue>()
+    {
+        protected NeighborUpdateQueue initialValue()
+        {
+            return new NeighborUpdateQueue(World.this);
+        }
+    };
+
+    /** The queuedNeighborUpdates rule, read by the server at the start of each tick. */
+    protected boolean queuedNeighborUpdates;
+
+    /** Whether neighbour updates run straight away are counted by the queue of their thread too. */
+    private boolean countingNeighborUpdates;
+
+    /** The fastRedstoneWire rule, read by the server at the start of each tick. */
+    protected boolean fastRedstoneWire;
+
     protected World(ISaveHandler saveHandlerIn, WorldInfo info, WorldProvider providerIn, Profiler profilerIn, boolean client)
     {
         this.eventListeners = Lists.newArrayList(this.pathListener);
@@ -263,7 +307,7 @@ public abstract class World implements IBlockAccess
         return !this.isOutsideBuildHeight(pos) && pos.getX() >= -30000000 && pos.getZ() >= -30000000 && pos.getX() < 30000000 && pos.getZ() < 30000000;
     }
 
-    private boolean isOutsideBuildHeight(BlockPos pos)
+    boolean isOutsideBuildHeight(BlockPos pos)
     {
         return pos.getY() < 0 || pos.getY() >= 256;
     }
@@ -357,7 +401,92 @@ public abstract class World implements IBlockAccess
      */
     public Chunk getChunk(int chunkX, int chunkZ)
     {
-        return this.chunkProvider.provideChunk(chunkX, chunkZ);
+        if (this.populationContext.isActive())
+        {
+            Chunk chunk = this.populationContext.getChunk(chunkX, chunkZ);
+
+            if (chunk == null)
+            {
+                chunk = this.chunkProvider.provideChunk(chunkX, chunkZ);
+                this.populationContext.addChunk(chunk);
+            }
+
+            return chunk;
+        }
+        else
+        {
+            return this.chunkProvider.provideChunk(chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Called by a chunk before it is populated. Until the matching endPopulation call, chunk lookups are served from
+     * the population context where possible.
+     */
+    public void beginPopulation(Chunk chunk)
+    {
+        this.populationContext.begin(chunk);
+    }
+
+    public void endPopulation()
+    {
+        this.populationContext.end();
+    }
+
+    public PopulationWriteContext getPopulationContext()
+    {
+        return this.populationContext;
+    }
+
+    public LightingEngine getLightingEngine()
+    {
+        return this.lightingEngine;
+    }
+
+    /**
+     * Returns the explosion cache of the current thread.
+     */
+    public ExplosionCache getExplosionCache()
+    {
+        return this.explosionCache.get();
+    }
+
+    /**
+     * Returns the neighbour update queue of the current thread.
+     */
+    public NeighborUpdateQueue getNeighborUpdateQueue()
+    {
+        return this.neighborUpdateQueue.get();
+    }
+
+    /**
+     * Whether redstone wire works out the power of its whole network at once.
+     */
+    public boolean isFastRedstoneWire()
+    {
+        return this.fastRedstoneWire;
+    }
+
+    /**
+     * Sets whether neighbour updates are counted while queuedNeighborUpdates is off, as they always are while it is on.
+     */
+    public void setCountingNeighborUpdates(boolean counting)
+    {
+        this.countingNeighborUpdates = counting;
+    }
+
+    public ChunkLightingWorker getChunkLightingWorker()
+    {
+        return this.chunkLightingWorker;
+    }
+
+    /**
+     * Starts setting many blocks at once. When the bulkEdits rule is on, light and players' copies of the chunks are
+     * brought up to date when the session is finished.
+     */
+    public BulkEditSession beginBulkEdit()
+    {
+        return new BulkEditSession(this);
     }
 
     public boolean isChunkGeneratedAt(int x, int z)
@@ -393,6 +522,8 @@ public abstract class World implements IBlockAccess
             }
             else
             {
+                this.blockChangeCount.incrementAndGet();
+
                 if (newState.getLightOpacity() != iblockstate.getLightOpacity() || newState.getLightValue() != iblockstate.getLightValue())
                 {
                     this.profiler.startSection("checkLight");
@@ -416,7 +547,7 @@ public abstract class World implements IBlockAccess
                 }
                 else if (!this.isRemote && (flags & 16) == 0)
                 {
-                    this.updateObservingBlocksAt(pos, block);
+                    this.updateObservingBlocksAt(chunk, pos, block);
                 }
 
                 return true;
@@ -532,6 +663,28 @@ public abstract class World implements IBlockAccess
         this.observedNeighborChanged(pos.south(), blockType, pos);
     }
 
+    /**
+     * Same as updateObservingBlocksAt, except that neighbours inside the given chunk are skipped when their section
+     * holds no observers. Neighbours in other chunks are still looked up, as that may load their chunk.
+     */
+    void updateObservingBlocksAt(Chunk chunk, BlockPos pos, Block blockType)
+    {
+        this.observedNeighborChanged(chunk, pos.west(), blockType, pos);
+        this.observedNeighborChanged(chunk, pos.east(), blockType, pos);
+        this.observedNeighborChanged(chunk, pos.down(), blockType, pos);
+        this.observedNeighborChanged(chunk, pos.up(), blockType, pos);
+        this.observedNeighborChanged(chunk, pos.north(), blockType, pos);
+        this.observedNeighborChanged(chunk, pos.south(), blockType, pos);
+    }
+
+    private void observedNeighborChanged(Chunk chunk, BlockPos pos, Block changedBlock, BlockPos changedBlockPos)
+    {
+        if (pos.getX() >> 4 != chunk.x || pos.getZ() >> 4 != chunk.z || chunk.hasObservers(pos.getY()))
+        {
+            this.observedNeighborChanged(pos, changedBlock, changedBlockPos);
+        }
+    }
+
     public void notifyNeighborsOfStateChange(BlockPos pos, Block blockType, boolean updateObservers)
     {
         this.neighborChanged(pos.west(), blockType, pos);
@@ -580,15 +733,90 @@ public abstract class World implements IBlockAccess
         }
     }
 
-    public void neighborChanged(BlockPos pos, final Block blockIn, BlockPos fromPos)
+    public void neighborChanged(BlockPos pos, Block blockIn, BlockPos fromPos)
+    {
+        if (!this.isRemote)
+        {
+            if (this.queuedNeighborUpdates)
+            {
+                this.neighborUpdateQueue.get().add(pos, blockIn, fromPos, false);
+            }
+            else if (this.countingNeighborUpdates)
+            {
+                this.neighborUpdateQueue.get().run(pos, blockIn, fromPos, false);
+            }
+            else
+            {
+                this.updateNeighbor(pos, blockIn, fromPos);
+            }
+        }
+    }
+
+    /**
+     * Runs a neighbour update straight away, whether or not updates are queued.
+     */
+    void updateNeighbor(BlockPos pos, final Block blockIn, BlockPos fromPos)
+    {
+        IBlockState iblockstate = this.getBlockState(pos);
+
+        try
+        {
+            iblockstate.neighborChanged(this, pos, blockIn, fromPos);
+        }
+        catch (Throwable throwable)
+        {
+            CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception while updating neighbours");
+            CrashReportCategory crashreportcategory = crashreport.makeCategory("Block being updated");
+            crashreportcategory.addDetail("Source block type", new ICrashReportDetail<String>()
+            {
+                public String call() throws Exception
+                {
+                    try
+                    {
+                        return String.format("ID #%d (%s // %s)", Block.getIdFromBlock(blockIn), blockIn.getTranslationKey(), blockIn.getClass().getCanonicalName());
+                    }
+                    catch (Throwable var2)
+                    {
+                        return "ID #" + Block.getIdFromBlock(blockIn);
+                    }
+                }
+            });
+            CrashReportCategory.addBlockInfo(crashreportcategory, pos, iblockstate);
+            throw new ReportedException(crashreport);
+        }
+    }
+
+    public void observedNeighborChanged(BlockPos pos, Block changedBlock, BlockPos changedBlockPos)
     {
         if (!this.isRemote)
         {
-            IBlockState iblockstate = this.getBlockState(pos);
+            if (this.queuedNeighborUpdates)
+            {
+                this.neighborUpdateQueue.get().add(pos, changedBlock, changedBlockPos, true);
+            }
+            else if (this.countingNeighborUpdates)
+            {
+                this.neighborUpdateQueue.get().run(pos, changedBlock, changedBlockPos, true);
+            }
+            else
+            {
+                this.updateObserver(pos, changedBlock, changedBlockPos);
+            }
+        }
+    }
+
+    /**
+     * Runs an observer update straight away, whether or not updates are queued.
+     */
+    void updateObserver(BlockPos pos, final Block changedBlock, BlockPos changedBlockPos)
+    {
+        IBlockState iblockstate = this.getBlockState(pos);
 
+        if (iblockstate.getBlock() == Blocks.OBSERVER)
+        {
             try
             {
-                iblockstate.neighborChanged(this, pos, blockIn, fromPos);
+                ((BlockObserver)iblockstate.getBlock()).observedNeighborChanged(iblockstate, this, pos, changedBlock, changedBlockPos);
             }
             catch (Throwable throwable)
             {
@@ -600,11 +828,11 @@ public abstract class World implements IBlockAccess
                     {
                         try
                         {
-                            return String.format("ID #%d (%s // %s)", Block.getIdFromBlock(blockIn), blockIn.getTranslationKey(), blockIn.getClass().getCanonicalName());
+                            return String.format("ID #%d (%s // %s)", Block.getIdFromBlock(changedBlock), changedBlock.getTranslationKey(), changedBlock.getClass().getCanonicalName());
                         }
                         catch (Throwable var2)
                         {
-                            return "ID #" + Block.getIdFromBlock(blockIn);
+                            return "ID #" + Block.getIdFromBlock(changedBlock);
                         }
                     }
                 });
@@ -614,43 +842,6 @@ public abstract class World implements IBlockAccess
         }
     }
 
-    public void observedNeighborChanged(BlockPos pos, final Block changedBlock, BlockPos changedBlockPos)
-    {
-        if (!this.isRemote)
-        {
-            IBlockState iblockstate = this.getBlockState(pos);
-
-            if (iblockstate.getBlock() == Blocks.OBSERVER)
-            {
-                try
-                {
-                    ((BlockObserver)iblockstate.getBlock()).observedNeighborChanged(iblockstate, this, pos, changedBlock, changedBlockPos);
-                }
-                catch (Throwable throwable)
-                {
-                    CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception while updating neighbours");
-                    CrashReportCategory crashreportcategory = crashreport.makeCategory("Block being updated");
-                    crashreportcategory.addDetail("Source block type", new ICrashReportDetail<String>()
-                    {
-                        public String call() throws Exception
-                        {
-                            try
-                            {
-                                return String.format("ID #%d (%s // %s)", Block.getIdFromBlock(changedBlock), changedBlock.getTranslationKey(), changedBlock.getClass().getCanonicalName());
-                            }
-                            catch (Throwable var2)
-                            {
-                                return "ID #" + Block.getIdFromBlock(changedBlock);
-                            }
-                        }
-                    });
-                    CrashReportCategory.addBlockInfo(crashreportcategory, pos, iblockstate);
-                    throw new ReportedException(crashreport);
-                }
-            }
-        }
-    }
-
     public boolean isBlockTickPending(BlockPos pos, Block blockType)
     {
         return false;
@@ -1817,7 +2008,7 @@ public abstract class World implements IBlockAccess
 
             this.profiler.startSection("tick");
 
-            if (!entity2.isDead && !(entity2 instanceof EntityPlayerMP))
+            if (!entity2.isDead && !(entity2 instanceof EntityPlayerMP) && !this.isTickedInRegion(entity2))
             {
                 try
                 {
@@ -1853,6 +2044,7 @@ public abstract class World implements IBlockAccess
         }
 
         this.profiler.endStartSection("blockEntities");
+        this.blockChangeCount.incrementAndGet();
 
         if (!this.tileEntitiesToBeRemoved.isEmpty())
         {
@@ -1868,7 +2060,7 @@ public abstract class World implements IBlockAccess
         {
             TileEntity tileentity = iterator.next();
 
-            if (!tileentity.isInvalid() && tileentity.hasWorld())
+            if (!tileentity.isInvalid() && tileentity.hasWorld() && !this.isTickedInRegion(tileentity))
             {
                 BlockPos blockpos = tileentity.getPos();
 
@@ -1942,6 +2134,22 @@ public abstract class World implements IBlockAccess
     {
     }
 
+    /**
+     * Whether the entity has already been ticked this tick by a region of the world, for the main loop to skip it.
+     */
+    protected boolean isTickedInRegion(Entity entityIn)
+    {
+        return false;
+    }
+
+    /**
+     * Whether the block entity has already been ticked this tick by a region of the world, for the main loop to skip it.
+     */
+    protected boolean isTickedInRegion(TileEntity tileEntityIn)
+    {
+        return false;
+    }
+
     public boolean addTileEntity(TileEntity tile)
     {
         boolean flag = this.loadedTileEntityList.add(tile);
@@ -1965,7 +2173,10 @@ public abstract class World implements IBlockAccess
     {
         if (this.processingLoadedTiles)
         {
-            this.addedTileEntityList.addAll(tileEntityCollection);
+            synchronized (this.addedTileEntityList)
+            {
+                this.addedTileEntityList.addAll(tileEntityCollection);
+            }
         }
         else
         {
@@ -2443,13 +2654,16 @@ public abstract class World implements IBlockAccess
     @Nullable
     private TileEntity getPendingTileEntityAt(BlockPos pos)
     {
-        for (int j2 = 0; j2 < this.addedTileEntityList.size(); ++j2)
+        synchronized (this.addedTileEntityList)
         {
-            TileEntity tileentity2 = this.addedTileEntityList.get(j2);
-
-            if (!tileentity2.isInvalid() && tileentity2.getPos().equals(pos))
+            for (int j2 = 0; j2 < this.addedTileEntityList.size(); ++j2)
             {
-                return tileentity2;
+                TileEntity tileentity2 = this.addedTileEntityList.get(j2);
+
+                if (!tileentity2.isInvalid() && tileentity2.getPos().equals(pos))
+                {
+                    return tileentity2;
+                }
             }
         }
 
@@ -2465,20 +2679,24 @@ public abstract class World implements IBlockAccess
                 if (this.processingLoadedTiles)
                 {
                     tileEntityIn.setPos(pos);
-                    Iterator<TileEntity> iterator1 = this.addedTileEntityList.iterator();
 
-                    while (iterator1.hasNext())
+                    synchronized (this.addedTileEntityList)
                     {
-                        TileEntity tileentity2 = iterator1.next();
+                        Iterator<TileEntity> iterator1 = this.addedTileEntityList.iterator();
 
-                        if (tileentity2.getPos().equals(pos))
+                        while (iterator1.hasNext())
                         {
-                            tileentity2.invalidate();
-                            iterator1.remove();
+                            TileEntity tileentity2 = iterator1.next();
+
+                            if (tileentity2.getPos().equals(pos))
+                            {
+                                tileentity2.invalidate();
+                                iterator1.remove();
+                            }
                         }
-                    }
 
-                    this.addedTileEntityList.add(tileEntityIn);
+                        this.addedTileEntityList.add(tileEntityIn);
+                    }
                 }
                 else
                 {
@@ -2496,7 +2714,11 @@ public abstract class World implements IBlockAccess
         if (tileentity2 != null && this.processingLoadedTiles)
         {
             tileentity2.invalidate();
-            this.addedTileEntityList.remove(tileentity2);
+
+            synchronized (this.addedTileEntityList)
+            {
+                this.addedTileEntityList.remove(tileentity2);
+            }
         }
         else
         {
@@ -3885,6 +4107,13 @@ public abstract class World implements IBlockAccess
                 return World.this.chunkProvider.makeString();
             }
         });
+        crashreportcategory3.addDetail("Biome cache", new ICrashReportDetail<String>()
+        {
+            public String call()
+            {
+                return World.this.provider.getBiomeProvider().getBiomeCache().makeString();
+            }
+        });
 
         try
         {
@@ -1,13 +1,23 @@
 package net.minecraft.world;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockRailBase;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntitySpawnPlacementRegistry;
 import net.minecraft.entity.EnumCreatureType;
@@ -25,7 +35,28 @@ import net.minecraft.world.chunk.Chunk;
 public final class WorldEntitySpawner
 {
     private static final int MOB_COUNT_DIV = (int)Math.pow(17.0D, 2.0D);
-    private final Set<ChunkPos> eligibleChunksForSpawning = Sets.<ChunkPos>newHashSet();
+    private static final EnumCreatureType[] CREATURE_TYPES = EnumCreatureType.values();
+    private final List<ChunkPos> eligibleChunksForSpawning = Lists.<ChunkPos>newArrayList();
+
+    /** The chunk of each player that is not a spectator, in order, when the chunks around them were last found. */
+    private final LongList playerChunks = new LongArrayList();
+    private final LongList currentPlayerChunks = new LongArrayList();
+
+    /** The chunks around the players that mobs may spawn in, if inside the world border and sent to the players. */
+    private final List<ChunkPos> spawnChunks = Lists.<ChunkPos>newArrayList();
+
+    /** How many chunks are around the players, as the mob caps are worked out from. */
+    private int chunkCount;
+
+    /**
+     * The players, by their index in playerChunks, that each chunk around them is near. Only found for the per-player
+     * mob cap.
+     */
+    private final Long2ObjectMap<IntList> playersByChunk = new Long2ObjectOpenHashMap<IntList>();
+    private boolean playersByChunkFound;
+
+    /** How many mobs of each creature type are near each player, for the per-player mob cap. */
+    private int[] playerMobCounts = new int[0];
 
     /**
      * adds all chunks within the spawn radius of the players to eligibleChunksForSpawning. pars: the world,
@@ -39,43 +70,30 @@ public final class WorldEntitySpawner
         }
         else
         {
+            boolean flag1 = worldServerIn.getGameRules().getBoolean("perPlayerMobCap");
+            this.updateSpawnChunks(worldServerIn, flag1);
             this.eligibleChunksForSpawning.clear();
-            int i = 0;
 
-            for (EntityPlayer entityplayer : worldServerIn.playerEntities)
+            for (int i = 0; i < this.spawnChunks.size(); ++i)
             {
-                if (!entityplayer.isSpectator())
+                ChunkPos chunkpos = this.spawnChunks.get(i);
+
+                if (worldServerIn.getWorldBorder().contains(chunkpos))
                 {
-                    int j = MathHelper.floor(entityplayer.posX / 16.0D);
-                    int k = MathHelper.floor(entityplayer.posZ / 16.0D);
-                    int l = 8;
+                    PlayerChunkMapEntry playerchunkmapentry = worldServerIn.getPlayerChunkMap().getEntry(chunkpos.x, chunkpos.z);
 
-                    for (int i1 = -8; i1 <= 8; ++i1)
+                    if (playerchunkmapentry != null && playerchunkmapentry.isSentToPlayers())
                     {
-                        for (int j1 = -8; j1 <= 8; ++j1)
-                        {
-                            boolean flag = i1 == -8 || i1 == 8 || j1 == -8 || j1 == 8;
-                            ChunkPos chunkpos = new ChunkPos(i1 + j, j1 + k);
-
-                            if (!this.eligibleChunksForSpawning.contains(chunkpos))
-                            {
-                                ++i;
-
-                                if (!flag && worldServerIn.getWorldBorder().contains(chunkpos))
-                                {
-                                    PlayerChunkMapEntry playerchunkmapentry = worldServerIn.getPlayerChunkMap().getEntry(chunkpos.x, chunkpos.z);
-
-                                    if (playerchunkmapentry != null && playerchunkmapentry.isSentToPlayers())
-                                    {
-                                        this.eligibleChunksForSpawning.add(chunkpos);
-                                    }
-                                }
-                            }
-                        }
+                        this.eligibleChunksForSpawning.add(chunkpos);
                     }
                 }
             }
 
+            if (flag1)
+            {
+                this.countMobsNearPlayers(worldServerIn);
+            }
+
             int j4 = 0;
             BlockPos blockpos1 = worldServerIn.getSpawnPoint();
 
@@ -83,16 +101,21 @@ public final class WorldEntitySpawner
             {
                 if ((!enumcreaturetype.getPeacefulCreature() || spawnPeacefulMobs) && (enumcreaturetype.getPeacefulCreature() || spawnHostileMobs) && (!enumcreaturetype.getAnimal() || spawnOnSetTickRate))
                 {
-                    int k4 = worldServerIn.countEntities(enumcreaturetype.getCreatureClass());
-                    int l4 = enumcreaturetype.getMaxNumberOfCreature() * i / MOB_COUNT_DIV;
+                    int k4 = worldServerIn.getMobCounter().getCount(enumcreaturetype);
+                    int l4 = enumcreaturetype.getMaxNumberOfCreature() * this.chunkCount / MOB_COUNT_DIV;
 
-                    if (k4 <= l4)
+                    if (flag1 || k4 <= l4)
                     {
                         BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
                         label134:
 
                         for (ChunkPos chunkpos1 : this.eligibleChunksForSpawning)
                         {
+                            if (flag1 && !this.isBelowPlayerMobCap(chunkpos1, enumcreaturetype))
+                            {
+                                continue;
+                            }
+
                             BlockPos blockpos = getRandomChunkPosition(worldServerIn, chunkpos1.x, chunkpos1.z);
                             int k1 = blockpos.getX();
                             int l1 = blockpos.getY();
@@ -185,6 +208,140 @@ public final class WorldEntitySpawner
         }
     }
 
+    /**
+     * Finds the chunks around the players again if a player has moved into another chunk since they were last found,
+     * or if the players they are near are needed for the per-player mob cap and were not kept.
+     */
+    private void updateSpawnChunks(WorldServer worldServerIn, boolean perPlayerMobCap)
+    {
+        this.currentPlayerChunks.clear();
+
+        for (EntityPlayer entityplayer : worldServerIn.playerEntities)
+        {
+            if (!entityplayer.isSpectator())
+            {
+                this.currentPlayerChunks.add(ChunkPos.asLong(MathHelper.floor(entityplayer.posX / 16.0D), MathHelper.floor(entityplayer.posZ / 16.0D)));
+            }
+        }
+
+        if (!this.currentPlayerChunks.equals(this.playerChunks) || perPlayerMobCap && !this.playersByChunkFound)
+        {
+            this.playerChunks.clear();
+            this.playerChunks.addAll(this.currentPlayerChunks);
+            this.spawnChunks.clear();
+            this.playersByChunk.clear();
+            this.playersByChunkFound = perPlayerMobCap;
+            this.chunkCount = 0;
+            LongSet longset = new LongOpenHashSet();
+
+            for (int i = 0; i < this.playerChunks.size(); ++i)
+            {
+                long j = this.playerChunks.getLong(i);
+                int k = (int)j;
+                int l = (int)(j >> 32);
+
+                for (int i1 = -8; i1 <= 8; ++i1)
+                {
+                    for (int j1 = -8; j1 <= 8; ++j1)
+                    {
+                        boolean flag = i1 == -8 || i1 == 8 || j1 == -8 || j1 == 8;
+                        long k1 = ChunkPos.asLong(i1 + k, j1 + l);
+
+                        if (!longset.contains(k1))
+                        {
+                            ++this.chunkCount;
+
+                            if (!flag)
+                            {
+                                longset.add(k1);
+                                this.spawnChunks.add(new ChunkPos(i1 + k, j1 + l));
+                            }
+                        }
+
+                        if (perPlayerMobCap)
+                        {
+                            IntList intlist = (IntList)this.playersByChunk.get(k1);
+
+                            if (intlist == null)
+                            {
+                                intlist = new IntArrayList(1);
+                                this.playersByChunk.put(k1, intlist);
+                            }
+
+                            intlist.add(i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts, for each player, the mobs of each creature type in the chunks around them that count towards the mob
+     * caps.
+     */
+    private void countMobsNearPlayers(WorldServer worldServerIn)
+    {
+        int i = this.playerChunks.size() * CREATURE_TYPES.length;
+
+        if (this.playerMobCounts.length < i)
+        {
+            this.playerMobCounts = new int[i];
+        }
+        else
+        {
+            Arrays.fill(this.playerMobCounts, 0, i, 0);
+        }
+
+        for (Reference2IntMap.Entry<Entity> entry : worldServerIn.getMobCounter().getCreatures().reference2IntEntrySet())
+        {
+            Entity entity = entry.getKey();
+
+            if (MobCounter.isCounted(entity))
+            {
+                IntList intlist = (IntList)this.playersByChunk.get(ChunkPos.asLong(MathHelper.floor(entity.posX / 16.0D), MathHelper.floor(entity.posZ / 16.0D)));
+
+                if (intlist != null)
+                {
+                    int j = entry.getIntValue();
+
+                    for (int k = 0; k < CREATURE_TYPES.length; ++k)
+                    {
+                        if ((j & 1 << k) != 0)
+                        {
+                            for (int l = 0; l < intlist.size(); ++l)
+                            {
+                                ++this.playerMobCounts[intlist.getInt(l) * CREATURE_TYPES.length + k];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether one of the players near the chunk has fewer mobs of the creature type around them than the cap for a
+     * single player.
+     */
+    private boolean isBelowPlayerMobCap(ChunkPos pos, EnumCreatureType type)
+    {
+        IntList intlist = (IntList)this.playersByChunk.get(ChunkPos.asLong(pos.x, pos.z));
+
+        if (intlist != null)
+        {
+            for (int i = 0; i < intlist.size(); ++i)
+            {
+                if (this.playerMobCounts[intlist.getInt(i) * CREATURE_TYPES.length + type.ordinal()] < type.getMaxNumberOfCreature())
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     private static BlockPos getRandomChunkPosition(World worldIn, int x, int z)
     {
         Chunk chunk = worldIn.getChunk(x, z);
@@ -4,15 +4,16 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -25,6 +26,7 @@ import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.crash.CrashReport;
 import net.minecraft.crash.CrashReportCategory;
+import net.minecraft.crash.ICrashReportDetail;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLivingBase;
@@ -32,11 +34,13 @@ import net.minecraft.entity.EntityTracker;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.entity.INpc;
 import net.minecraft.entity.effect.EntityLightningBolt;
+import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.passive.EntityAnimal;
 import net.minecraft.entity.passive.EntitySkeletonHorse;
 import net.minecraft.entity.passive.EntityWaterMob;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Biomes;
 import net.minecraft.init.Blocks;
 import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.SPacketBlockAction;
@@ -45,11 +49,14 @@ import net.minecraft.network.play.server.SPacketEntityStatus;
 import net.minecraft.network.play.server.SPacketExplosion;
 import net.minecraft.network.play.server.SPacketParticles;
 import net.minecraft.network.play.server.SPacketSpawnGlobalEntity;
+import net.minecraft.pathfinding.PathCache;
+import net.minecraft.pathfinding.PathfindingScheduler;
 import net.minecraft.profiler.Profiler;
 import net.minecraft.scoreboard.ScoreboardSaveData;
 import net.minecraft.scoreboard.ServerScoreboard;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.IProgressUpdate;
 import net.minecraft.util.IThreadListener;
@@ -90,8 +97,9 @@ public class WorldServer extends World implements IThreadListener
 
     /** The player chunk map for this server world. */
     private final PlayerChunkMap playerChunkMap;
-    private final Set<NextTickListEntry> pendingTickListEntriesHashSet = Sets.<NextTickListEntry>newHashSet();
-    private final TreeSet<NextTickListEntry> pendingTickListEntriesTreeSet = new TreeSet<NextTickListEntry>();
+
+    /** Scheduled block ticks by time and by chunk. */
+    private final ScheduledTickWheel pendingTickListEntries = new ScheduledTickWheel(this.worldInfo.getWorldTotalTime());
     private final Map<UUID, Entity> entitiesByUuid = Maps.<UUID, Entity>newHashMap();
 
     /** Whether level saving is disabled or not */
@@ -109,8 +117,29 @@ public class WorldServer extends World implements IThreadListener
     protected final VillageSiege villageSiege = new VillageSiege(this);
     private final WorldServer.ServerBlockEventList[] blockEventQueue = new WorldServer.ServerBlockEventList[] {new WorldServer.ServerBlockEventList(), new WorldServer.ServerBlockEventList()};
     private int blockEventCacheIndex;
+
+    /** The players that may be in range of block events fired in each chunk, while queued block events are sent. */
+    private final Long2ObjectMap<List<EntityPlayerMP>> blockEventPlayers = new Long2ObjectOpenHashMap<List<EntityPlayerMP>>();
     private final List<NextTickListEntry> pendingTickListEntriesThisTick = Lists.<NextTickListEntry>newArrayList();
 
+    /** Whether this world is being ticked at the same time as the other dimensions, or its regions are ticking. */
+    private boolean tickingConcurrently;
+
+    /** Work held back until the safe point while the world ticks concurrently, in the order it was asked for. */
+    private final List<Runnable> safePointTasks = Lists.<Runnable>newArrayList();
+
+    /** The entities with a dimension change among the held back work. */
+    private final Set<Entity> entitiesChangingDimension = Sets.<Entity>newHashSet();
+    private final RegionTickScheduler regionTickScheduler = new RegionTickScheduler(this);
+    private final EntityActivationRange entityActivationRange = new EntityActivationRange(this);
+    private final ItemMerger itemMerger = new ItemMerger(this);
+    private final MobCounter mobCounter = new MobCounter();
+    private final PathfindingScheduler pathfindingScheduler = new PathfindingScheduler(this);
+    private final PathCache pathCache = new PathCache(this);
+
+    /** The batchedLighting rule, read at the start of each tick. */
+    private boolean batchedLighting;
+
     public WorldServer(MinecraftServer server, ISaveHandler saveHandlerIn, WorldInfo info, int dimensionId, Profiler profilerIn)
     {
         super(saveHandlerIn, info, DimensionType.getById(dimensionId).createDimension(), profilerIn, false);
@@ -180,6 +209,9 @@ public class WorldServer extends World implements IThreadListener
     public void tick()
     {
         super.tick();
+        this.batchedLighting = this.getGameRules().getBoolean("batchedLighting");
+        this.queuedNeighborUpdates = this.getGameRules().getBoolean("queuedNeighborUpdates");
+        this.fastRedstoneWire = this.getGameRules().getBoolean("fastRedstoneWire");
 
         if (this.getWorldInfo().isHardcoreModeEnabled() && this.getDifficulty() != EnumDifficulty.HARD)
         {
@@ -199,7 +231,10 @@ public class WorldServer extends World implements IThreadListener
             this.wakeAllPlayers();
         }
 
-        this.profiler.startSection("mobSpawner");
+        this.profiler.startSection("lighting");
+        this.chunkLightingWorker.publishResults();
+        this.lightingEngine.processUpdates((long)this.getGameRules().getInt("lightingTickBudget") * 1000000L);
+        this.profiler.endStartSection("mobSpawner");
 
         if (this.getGameRules().getBoolean("doMobSpawning") && this.worldInfo.getTerrainType() != WorldType.DEBUG_ALL_BLOCK_STATES)
         {
@@ -237,6 +272,26 @@ public class WorldServer extends World implements IThreadListener
         this.sendQueuedBlockEvents();
     }
 
+    /**
+     * Queues the check with the lighting engine when batchedLighting is on, to be run together with the other queued
+     * checks at the start of the next tick, before mobs are spawned by light level.
+     */
+    public boolean checkLightFor(EnumSkyBlock lightType, BlockPos pos)
+    {
+        if (this.batchedLighting)
+        {
+            this.lightingEngine.queueUpdate(lightType, pos);
+            return true;
+        }
+        else
+        {
+            synchronized (this.lightUpdateBlockList)
+            {
+                return super.checkLightFor(lightType, pos);
+            }
+        }
+    }
+
     @Nullable
     public Biome.SpawnListEntry getSpawnListEntryForTypeAt(EnumCreatureType creatureType, BlockPos pos)
     {
@@ -250,6 +305,41 @@ public class WorldServer extends World implements IThreadListener
         return list != null && !list.isEmpty() ? list.contains(spawnListEntry) : false;
     }
 
+    /**
+     * Looks the chunk up once rather than checking that it is loaded and then fetching it, as spawning and weather
+     * call this for many positions every tick. The chunk is found when isBlockLoaded is true, unless a ticking region
+     * may not reach it, in which case it reads as unloaded.
+     */
+    public Biome getBiome(final BlockPos pos)
+    {
+        Chunk chunk = this.getChunkProvider().getLoadedChunk(pos.getX() >> 4, pos.getZ() >> 4);
+
+        if (chunk != null)
+        {
+            try
+            {
+                return chunk.getBiome(pos, this.provider.getBiomeProvider());
+            }
+            catch (Throwable throwable)
+            {
+                CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Getting biome");
+                CrashReportCategory crashreportcategory = crashreport.makeCategory("Coordinates of biome request");
+                crashreportcategory.addDetail("Location", new ICrashReportDetail<String>()
+                {
+                    public String call() throws Exception
+                    {
+                        return CrashReportCategory.getCoordinateInfo(pos);
+                    }
+                });
+                throw new ReportedException(crashreport);
+            }
+        }
+        else
+        {
+            return this.provider.getBiomeProvider().getBiome(pos, Biomes.PLAINS);
+        }
+    }
+
     /**
      * Updates the flag that indicates whether or not all players in the world are sleeping.
      */
@@ -397,6 +487,7 @@ public class WorldServer extends World implements IThreadListener
             int i = this.getGameRules().getInt("randomTickSpeed");
             boolean flag = this.isRaining();
             boolean flag1 = this.isThundering();
+            this.regionTickScheduler.update();
             this.profiler.startSection("pollingChunks");
 
             for (Iterator<Chunk> iterator = this.playerChunkMap.getChunkIterator(); iterator.hasNext(); this.profiler.endSection())
@@ -464,7 +555,7 @@ public class WorldServer extends World implements IThreadListener
 
                 this.profiler.endStartSection("tickBlocks");
 
-                if (i > 0)
+                if (i > 0 && !this.regionTickScheduler.queueRandomTicks(chunk))
                 {
                     for (ExtendedBlockStorage extendedblockstorage : chunk.getBlockStorageArray())
                     {
@@ -493,6 +584,8 @@ public class WorldServer extends World implements IThreadListener
                 }
             }
 
+            this.profiler.endStartSection("regions");
+            this.regionTickScheduler.tickRandomBlocks(i);
             this.profiler.endSection();
         }
     }
@@ -536,7 +629,11 @@ public class WorldServer extends World implements IThreadListener
     public boolean isUpdateScheduled(BlockPos pos, Block blk)
     {
         NextTickListEntry nextticklistentry = new NextTickListEntry(pos, blk);
-        return this.pendingTickListEntriesHashSet.contains(nextticklistentry);
+
+        synchronized (this.pendingTickListEntries)
+        {
+            return this.pendingTickListEntries.contains(nextticklistentry);
+        }
     }
 
     public void scheduleUpdate(BlockPos pos, Block blockIn, int delay)
@@ -578,10 +675,9 @@ public class WorldServer extends World implements IThreadListener
                 nextticklistentry.setPriority(priority);
             }
 
-            if (!this.pendingTickListEntriesHashSet.contains(nextticklistentry))
+            synchronized (this.pendingTickListEntries)
             {
-                this.pendingTickListEntriesHashSet.add(nextticklistentry);
-                this.pendingTickListEntriesTreeSet.add(nextticklistentry);
+                this.pendingTickListEntries.add(nextticklistentry);
             }
         }
     }
@@ -600,10 +696,9 @@ public class WorldServer extends World implements IThreadListener
             nextticklistentry.setScheduledTime((long)delay + this.worldInfo.getWorldTotalTime());
         }
 
-        if (!this.pendingTickListEntriesHashSet.contains(nextticklistentry))
+        synchronized (this.pendingTickListEntries)
         {
-            this.pendingTickListEntriesHashSet.add(nextticklistentry);
-            this.pendingTickListEntriesTreeSet.add(nextticklistentry);
+            this.pendingTickListEntries.add(nextticklistentry);
         }
     }
 
@@ -625,7 +720,27 @@ public class WorldServer extends World implements IThreadListener
         }
 
         this.provider.onWorldUpdateEntities();
+        this.profiler.startSection("itemMerge");
+        this.itemMerger.mergeItems();
+        this.profiler.endStartSection("activation");
+        this.entityActivationRange.activateEntities();
+        this.profiler.endStartSection("regions");
+        this.regionTickScheduler.tickEntities();
+        this.profiler.endSection();
         super.updateEntities();
+        this.profiler.startSection("pathfinding");
+        this.pathfindingScheduler.findPaths();
+        this.profiler.endSection();
+    }
+
+    protected boolean isTickedInRegion(Entity entityIn)
+    {
+        return this.regionTickScheduler.isTicked(entityIn);
+    }
+
+    protected boolean isTickedInRegion(TileEntity tileEntityIn)
+    {
+        return this.regionTickScheduler.isTicked(tileEntityIn);
     }
 
     protected void tickPlayers()
@@ -705,74 +820,62 @@ public class WorldServer extends World implements IThreadListener
         }
         else
         {
-            int i = this.pendingTickListEntriesTreeSet.size();
+            int i = this.pendingTickListEntries.size();
 
-            if (i != this.pendingTickListEntriesHashSet.size())
+            if (i > 65536)
             {
-                throw new IllegalStateException("TickNextTick list out of synch");
+                i = 65536;
             }
-            else
-            {
-                if (i > 65536)
-                {
-                    i = 65536;
-                }
-
-                this.profiler.startSection("cleaning");
 
-                for (int j = 0; j < i; ++j)
-                {
-                    NextTickListEntry nextticklistentry = this.pendingTickListEntriesTreeSet.first();
+            this.profiler.startSection("cleaning");
 
-                    if (!runAllPending && nextticklistentry.scheduledTime > this.worldInfo.getWorldTotalTime())
-                    {
-                        break;
-                    }
+            if (runAllPending)
+            {
+                this.pendingTickListEntries.pollAll(i, this.pendingTickListEntriesThisTick);
+            }
+            else
+            {
+                this.pendingTickListEntries.pollDue(this.worldInfo.getWorldTotalTime(), i, this.pendingTickListEntriesThisTick);
+            }
 
-                    this.pendingTickListEntriesTreeSet.remove(nextticklistentry);
-                    this.pendingTickListEntriesHashSet.remove(nextticklistentry);
-                    this.pendingTickListEntriesThisTick.add(nextticklistentry);
-                }
+            this.profiler.endSection();
+            this.profiler.startSection("ticking");
+            Iterator<NextTickListEntry> iterator = this.pendingTickListEntriesThisTick.iterator();
 
-                this.profiler.endSection();
-                this.profiler.startSection("ticking");
-                Iterator<NextTickListEntry> iterator = this.pendingTickListEntriesThisTick.iterator();
+            while (iterator.hasNext())
+            {
+                NextTickListEntry nextticklistentry1 = iterator.next();
+                iterator.remove();
+                int k = 0;
 
-                while (iterator.hasNext())
+                if (this.isAreaLoaded(nextticklistentry1.position.add(0, 0, 0), nextticklistentry1.position.add(0, 0, 0)))
                 {
-                    NextTickListEntry nextticklistentry1 = iterator.next();
-                    iterator.remove();
-                    int k = 0;
+                    IBlockState iblockstate = this.getBlockState(nextticklistentry1.position);
 
-                    if (this.isAreaLoaded(nextticklistentry1.position.add(0, 0, 0), nextticklistentry1.position.add(0, 0, 0)))
+                    if (iblockstate.getMaterial() != Material.AIR && Block.isEqualTo(iblockstate.getBlock(), nextticklistentry1.getBlock()))
                     {
-                        IBlockState iblockstate = this.getBlockState(nextticklistentry1.position);
-
-                        if (iblockstate.getMaterial() != Material.AIR && Block.isEqualTo(iblockstate.getBlock(), nextticklistentry1.getBlock()))
+                        try
                         {
-                            try
-                            {
-                                iblockstate.getBlock().updateTick(this, nextticklistentry1.position, iblockstate, this.rand);
-                            }
-                            catch (Throwable throwable)
-                            {
-                                CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception while ticking a block");
-                                CrashReportCategory crashreportcategory = crashreport.makeCategory("Block being ticked");
-                                CrashReportCategory.addBlockInfo(crashreportcategory, nextticklistentry1.position, iblockstate);
-                                throw new ReportedException(crashreport);
-                            }
+                            iblockstate.getBlock().updateTick(this, nextticklistentry1.position, iblockstate, this.rand);
+                        }
+                        catch (Throwable throwable)
+                        {
+                            CrashReport crashreport = CrashReport.makeCrashReport(throwable, "Exception while ticking a block");
+                            CrashReportCategory crashreportcategory = crashreport.makeCategory("Block being ticked");
+                            CrashReportCategory.addBlockInfo(crashreportcategory, nextticklistentry1.position, iblockstate);
+                            throw new ReportedException(crashreport);
                         }
-                    }
-                    else
-                    {
-                        this.scheduleUpdate(nextticklistentry1.position, nextticklistentry1.getBlock(), 0);
                     }
                 }
-
-                this.profiler.endSection();
-                this.pendingTickListEntriesThisTick.clear();
-                return !this.pendingTickListEntriesTreeSet.isEmpty();
+                else
+                {
+                    this.scheduleUpdate(nextticklistentry1.position, nextticklistentry1.getBlock(), 0);
+                }
             }
+
+            this.profiler.endSection();
+            this.pendingTickListEntriesThisTick.clear();
+            return !this.pendingTickListEntries.isEmpty();
         }
     }
 
@@ -790,45 +893,27 @@ public class WorldServer extends World implements IThreadListener
     @Nullable
     public List<NextTickListEntry> getPendingBlockUpdates(StructureBoundingBox structureBB, boolean remove)
     {
-        List<NextTickListEntry> list = null;
+        List<NextTickListEntry> list = this.pendingTickListEntries.getEntriesInBox(structureBB, remove);
+        Iterator<NextTickListEntry> iterator = this.pendingTickListEntriesThisTick.iterator();
 
-        for (int i = 0; i < 2; ++i)
+        while (iterator.hasNext())
         {
-            Iterator<NextTickListEntry> iterator;
+            NextTickListEntry nextticklistentry = iterator.next();
+            BlockPos blockpos = nextticklistentry.position;
 
-            if (i == 0)
+            if (blockpos.getX() >= structureBB.minX && blockpos.getX() < structureBB.maxX && blockpos.getZ() >= structureBB.minZ && blockpos.getZ() < structureBB.maxZ)
             {
-                iterator = this.pendingTickListEntriesTreeSet.iterator();
-            }
-            else
-            {
-                iterator = this.pendingTickListEntriesThisTick.iterator();
-            }
-
-            while (iterator.hasNext())
-            {
-                NextTickListEntry nextticklistentry = iterator.next();
-                BlockPos blockpos = nextticklistentry.position;
-
-                if (blockpos.getX() >= structureBB.minX && blockpos.getX() < structureBB.maxX && blockpos.getZ() >= structureBB.minZ && blockpos.getZ() < structureBB.maxZ)
+                if (remove)
                 {
-                    if (remove)
-                    {
-                        if (i == 0)
-                        {
-                            this.pendingTickListEntriesHashSet.remove(nextticklistentry);
-                        }
-
-                        iterator.remove();
-                    }
-
-                    if (list == null)
-                    {
-                        list = Lists.<NextTickListEntry>newArrayList();
-                    }
+                    iterator.remove();
+                }
 
-                    list.add(nextticklistentry);
+                if (list == null)
+                {
+                    list = Lists.<NextTickListEntry>newArrayList();
                 }
+
+                list.add(nextticklistentry);
             }
         }
 
@@ -837,6 +922,7 @@ public class WorldServer extends World implements IThreadListener
 
     /**
      * Updates the entity in the world if the chunk the entity is in is currently loaded or its forced to update.
+     * Entities that are not active only get an inactive tick.
      */
     public void updateEntityWithOptionalForce(Entity entityIn, boolean forceUpdate)
     {
@@ -850,7 +936,20 @@ public class WorldServer extends World implements IThreadListener
             entityIn.setDead();
         }
 
-        super.updateEntityWithOptionalForce(entityIn, forceUpdate);
+        if (forceUpdate && entityIn.addedToChunk && !this.entityActivationRange.isActive(entityIn))
+        {
+            entityIn.lastTickPosX = entityIn.posX;
+            entityIn.lastTickPosY = entityIn.posY;
+            entityIn.lastTickPosZ = entityIn.posZ;
+            entityIn.prevRotationYaw = entityIn.rotationYaw;
+            entityIn.prevRotationPitch = entityIn.rotationPitch;
+            ++entityIn.ticksExisted;
+            entityIn.inactiveTick();
+        }
+        else
+        {
+            super.updateEntityWithOptionalForce(entityIn, forceUpdate);
+        }
     }
 
     private boolean canSpawnNPCs()
@@ -1094,7 +1193,18 @@ public class WorldServer extends World implements IThreadListener
      */
     public boolean spawnEntity(Entity entityIn)
     {
-        return this.canAddEntity(entityIn) ? super.spawnEntity(entityIn) : false;
+        if (this.regionTickScheduler.deferSpawn(entityIn))
+        {
+            return true;
+        }
+        else if (entityIn instanceof EntityXPOrb && this.getGameRules().getBoolean("mergeXpOrbs") && ((EntityXPOrb)entityIn).mergeIntoNearbyOrb())
+        {
+            return true;
+        }
+        else
+        {
+            return this.canAddEntity(entityIn) ? super.spawnEntity(entityIn) : false;
+        }
     }
 
     public void loadEntities(Collection<Entity> entityCollection)
@@ -1151,6 +1261,7 @@ public class WorldServer extends World implements IThreadListener
         super.onEntityAdded(entityIn);
         this.entitiesById.addKey(entityIn.getEntityId(), entityIn);
         this.entitiesByUuid.put(entityIn.getUniqueID(), entityIn);
+        this.mobCounter.onEntityAdded(entityIn);
         Entity[] aentity = entityIn.getParts();
 
         if (aentity != null)
@@ -1167,6 +1278,7 @@ public class WorldServer extends World implements IThreadListener
         super.onEntityRemoved(entityIn);
         this.entitiesById.removeObject(entityIn.getEntityId());
         this.entitiesByUuid.remove(entityIn.getUniqueID());
+        this.mobCounter.onEntityRemoved(entityIn);
         Entity[] aentity = entityIn.getParts();
 
         if (aentity != null)
@@ -1237,17 +1349,10 @@ public class WorldServer extends World implements IThreadListener
 
     public void addBlockEvent(BlockPos pos, Block blockIn, int eventID, int eventParam)
     {
-        BlockEventData blockeventdata = new BlockEventData(pos, blockIn, eventID, eventParam);
-
-        for (BlockEventData blockeventdata1 : this.blockEventQueue[this.blockEventCacheIndex])
+        synchronized (this.blockEventQueue)
         {
-            if (blockeventdata1.equals(blockeventdata))
-            {
-                return;
-            }
+            this.blockEventQueue[this.blockEventCacheIndex].add(new BlockEventData(pos.toImmutable(), blockIn, eventID, eventParam));
         }
-
-        this.blockEventQueue[this.blockEventCacheIndex].add(blockeventdata);
     }
 
     private void sendQueuedBlockEvents()
@@ -1261,12 +1366,62 @@ public class WorldServer extends World implements IThreadListener
             {
                 if (this.fireBlockEvent(blockeventdata))
                 {
-                    this.server.getPlayerList().sendToAllNearExcept((EntityPlayer)null, (double)blockeventdata.getPosition().getX(), (double)blockeventdata.getPosition().getY(), (double)blockeventdata.getPosition().getZ(), 64.0D, this.provider.getDimensionType().getId(), new SPacketBlockAction(blockeventdata.getPosition(), blockeventdata.getBlock(), blockeventdata.getEventID(), blockeventdata.getEventParameter()));
+                    this.sendBlockEvent(blockeventdata);
                 }
             }
 
             this.blockEventQueue[i].clear();
         }
+
+        this.blockEventPlayers.clear();
+    }
+
+    /**
+     * Sends a fired block event to the players within 64 blocks of it. The players that may be in range of a chunk are
+     * found once for all of the events fired in that chunk, instead of checking every player for every event.
+     */
+    private void sendBlockEvent(BlockEventData event)
+    {
+        BlockPos blockpos = event.getPosition();
+        long i = ChunkPos.asLong(blockpos.getX() >> 4, blockpos.getZ() >> 4);
+        List<EntityPlayerMP> list = (List)this.blockEventPlayers.get(i);
+
+        if (list == null)
+        {
+            list = Lists.<EntityPlayerMP>newArrayList();
+            double d0 = (double)(blockpos.getX() & -16);
+            double d1 = (double)(blockpos.getZ() & -16);
+
+            for (EntityPlayer entityplayer : this.playerEntities)
+            {
+                double d2 = Math.max(0.0D, Math.max(d0 - entityplayer.posX, entityplayer.posX - (d0 + 15.0D)));
+                double d3 = Math.max(0.0D, Math.max(d1 - entityplayer.posZ, entityplayer.posZ - (d1 + 15.0D)));
+
+                if (d2 * d2 + d3 * d3 < 4096.0D)
+                {
+                    list.add((EntityPlayerMP)entityplayer);
+                }
+            }
+
+            this.blockEventPlayers.put(i, list);
+        }
+
+        if (!list.isEmpty())
+        {
+            Packet<?> packet = new SPacketBlockAction(blockpos, event.getBlock(), event.getEventID(), event.getEventParameter());
+
+            for (EntityPlayerMP entityplayermp : list)
+            {
+                double d4 = (double)blockpos.getX() - entityplayermp.posX;
+                double d5 = (double)blockpos.getY() - entityplayermp.posY;
+                double d6 = (double)blockpos.getZ() - entityplayermp.posZ;
+
+                if (d4 * d4 + d5 * d5 + d6 * d6 < 4096.0D)
+                {
+                    entityplayermp.connection.sendPacket(packet);
+                }
+            }
+        }
     }
 
     private boolean fireBlockEvent(BlockEventData event)
@@ -1323,6 +1478,81 @@ public class WorldServer extends World implements IThreadListener
         return this.server;
     }
 
+    public boolean isTickingConcurrently()
+    {
+        return this.tickingConcurrently;
+    }
+
+    public void setTickingConcurrently(boolean concurrent)
+    {
+        this.tickingConcurrently = concurrent;
+    }
+
+    /**
+     * Runs the task now, or if this world is ticking at the same time as the other dimensions or its regions are
+     * ticking, at the safe point once all of them have finished.
+     */
+    public void runAtSafePoint(Runnable task)
+    {
+        if (this.tickingConcurrently)
+        {
+            synchronized (this.safePointTasks)
+            {
+                this.safePointTasks.add(task);
+            }
+        }
+        else
+        {
+            task.run();
+        }
+    }
+
+    /**
+     * Holds back the entity's change to the given dimension until the safe point if this world is ticking
+     * concurrently, and returns whether it did. Only the first change asked for in a tick is made.
+     */
+    public boolean deferDimensionChange(Entity entityIn, int dimensionIn)
+    {
+        if (!this.tickingConcurrently)
+        {
+            return false;
+        }
+        else
+        {
+            synchronized (this.safePointTasks)
+            {
+                if (this.entitiesChangingDimension.add(entityIn))
+                {
+                    this.safePointTasks.add(() ->
+                    {
+                        if (entityIn.world == this)
+                        {
+                            entityIn.changeDimension(dimensionIn);
+                        }
+                    });
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Ends the concurrent tick of this world and runs the work held back during it.
+     */
+    public void runSafePointTasks()
+    {
+        this.tickingConcurrently = false;
+
+        for (int i = 0; i < this.safePointTasks.size(); ++i)
+        {
+            ((Runnable)this.safePointTasks.get(i)).run();
+        }
+
+        this.safePointTasks.clear();
+        this.entitiesChangingDimension.clear();
+    }
+
     /**
      * Gets the entity tracker for this server world.
      */
@@ -1331,6 +1561,30 @@ public class WorldServer extends World implements IThreadListener
         return this.entityTracker;
     }
 
+    /**
+     * Gets the counts of the loaded entities of each creature type, as used by the mob caps.
+     */
+    public MobCounter getMobCounter()
+    {
+        return this.mobCounter;
+    }
+
+    /**
+     * Gets the scheduler finding the paths navigators ask for off the main thread.
+     */
+    public PathfindingScheduler getPathfindingScheduler()
+    {
+        return this.pathfindingScheduler;
+    }
+
+    /**
+     * Gets the paths recently found in this world, to be shared by mobs heading the same way.
+     */
+    public PathCache getPathCache()
+    {
+        return this.pathCache;
+    }
+
     /**
      * Gets the player chunk map for this server world.
      */
@@ -1420,7 +1674,10 @@ public class WorldServer extends World implements IThreadListener
         return this.functionManager;
     }
 
-    static class ServerBlockEventList extends ArrayList<BlockEventData>
+    /**
+     * Block events in the order they were added. Adding an event equal to a queued one does nothing.
+     */
+    static class ServerBlockEventList extends LinkedHashSet<BlockEventData>
     {
         private ServerBlockEventList()
         {
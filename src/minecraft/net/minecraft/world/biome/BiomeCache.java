@@ -1,20 +1,31 @@
 package net.minecraft.world.biome;
 
-import com.google.common.collect.Lists;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import java.util.List;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.init.Biomes;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.ChunkPos;
 
+/**
+ * A size bounded cache of 16x16 block biome maps, kept in least recently used order. All access is synchronized, so
+ * the cache can be shared by the threads that generate chunks and spawn mobs.
+ */
 public class BiomeCache
 {
+    /** The most blocks kept before the least recently used ones are evicted, about 1 MB of biome ids. */
+    private static final int MAX_ENTRIES = 4096;
+
     /** Reference to the WorldChunkManager */
     private final BiomeProvider provider;
 
     /** The last time this BiomeCache was cleaned, in milliseconds. */
     private long lastCleanupTime;
-    private final Long2ObjectMap<BiomeCache.Block> cacheMap = new Long2ObjectOpenHashMap<BiomeCache.Block>(4096);
-    private final List<BiomeCache.Block> cache = Lists.<BiomeCache.Block>newArrayList();
+    private final Long2ObjectLinkedOpenHashMap<BiomeCache.Block> cacheMap = new Long2ObjectLinkedOpenHashMap<BiomeCache.Block>(MAX_ENTRIES);
+
+    /** Scratch array the provider fills when a block is generated. */
+    private final Biome[] generatedBiomes = new Biome[256];
+    private long hits;
+    private long misses;
+    private long evictions;
 
     public BiomeCache(BiomeProvider provider)
     {
@@ -24,18 +35,30 @@ public class BiomeCache
     /**
      * Returns a biome cache block at location specified.
      */
-    public BiomeCache.Block getEntry(int x, int z)
+    public synchronized BiomeCache.Block getEntry(int x, int z)
     {
         x = x >> 4;
         z = z >> 4;
-        long i = (long)x & 4294967295L | ((long)z & 4294967295L) << 32;
-        BiomeCache.Block biomecache$block = (BiomeCache.Block)this.cacheMap.get(i);
+        long i = ChunkPos.asLong(x, z);
+        BiomeCache.Block biomecache$block = (BiomeCache.Block)this.cacheMap.getAndMoveToLast(i);
 
         if (biomecache$block == null)
         {
-            biomecache$block = new BiomeCache.Block(x, z);
-            this.cacheMap.put(i, biomecache$block);
-            this.cache.add(biomecache$block);
+            ++this.misses;
+            this.provider.getBiomes(this.generatedBiomes, x << 4, z << 4, 16, 16, false);
+            biomecache$block = new BiomeCache.Block(x, z, this.generatedBiomes);
+
+            if (this.cacheMap.size() >= MAX_ENTRIES)
+            {
+                this.cacheMap.removeFirst();
+                ++this.evictions;
+            }
+
+            this.cacheMap.putAndMoveToLast(i, biomecache$block);
+        }
+        else
+        {
+            ++this.hits;
         }
 
         biomecache$block.lastAccessTime = MinecraftServer.getCurrentTimeMillis();
@@ -49,9 +72,10 @@ public class BiomeCache
     }
 
     /**
-     * Removes BiomeCacheBlocks from this cache that haven't been accessed in at least 30 seconds.
+     * Removes BiomeCacheBlocks from this cache that haven't been accessed in at least 30 seconds. Blocks are kept in
+     * access order, so only the stale ones at the head are visited.
      */
-    public void cleanupCache()
+    public synchronized void cleanupCache()
     {
         long i = MinecraftServer.getCurrentTimeMillis();
         long j = i - this.lastCleanupTime;
@@ -60,46 +84,90 @@ public class BiomeCache
         {
             this.lastCleanupTime = i;
 
-            for (int k = 0; k < this.cache.size(); ++k)
+            while (!this.cacheMap.isEmpty())
             {
-                BiomeCache.Block biomecache$block = this.cache.get(k);
-                long l = i - biomecache$block.lastAccessTime;
+                long k = i - ((BiomeCache.Block)this.cacheMap.get(this.cacheMap.firstLongKey())).lastAccessTime;
 
-                if (l > 30000L || l < 0L)
+                if (k <= 30000L && k >= 0L)
                 {
-                    this.cache.remove(k--);
-                    long i1 = (long)biomecache$block.x & 4294967295L | ((long)biomecache$block.z & 4294967295L) << 32;
-                    this.cacheMap.remove(i1);
+                    break;
                 }
+
+                this.cacheMap.removeFirst();
             }
         }
     }
 
     /**
-     * Returns the array of cached biome types in the BiomeCacheBlock at the given location.
+     * Copies the cached biome types in the BiomeCacheBlock at the given location into the first 256 entries of the
+     * given array.
      */
-    public Biome[] getCachedBiomes(int x, int z)
+    public void getCachedBiomes(int x, int z, Biome[] biomes)
     {
-        return this.getEntry(x, z).biomes;
+        byte[] abyte = this.getEntry(x, z).biomes;
+
+        for (int i = 0; i < 256; ++i)
+        {
+            biomes[i] = Biome.getBiome(abyte[i] & 255, Biomes.DEFAULT);
+        }
     }
 
-    public class Block
+    public synchronized int getSize()
     {
-        public Biome[] biomes = new Biome[256];
-        public int x;
-        public int z;
-        public long lastAccessTime;
+        return this.cacheMap.size();
+    }
 
-        public Block(int x, int z)
+    public synchronized long getHits()
+    {
+        return this.hits;
+    }
+
+    public synchronized long getMisses()
+    {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions()
+    {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the fraction of lookups that found their block already cached, or 0 before the first lookup.
+     */
+    public synchronized float getHitRate()
+    {
+        long i = this.hits + this.misses;
+        return i == 0L ? 0.0F : (float)this.hits / (float)i;
+    }
+
+    public synchronized String makeString()
+    {
+        return String.format("%d/%d blocks, %.1f%% hit rate, %d evicted", this.cacheMap.size(), MAX_ENTRIES, this.getHitRate() * 100.0F, this.evictions);
+    }
+
+    public static class Block
+    {
+        /** Biome ids, indexed by x | z << 4. */
+        private final byte[] biomes = new byte[256];
+        public final int x;
+        public final int z;
+        private long lastAccessTime;
+
+        private Block(int x, int z, Biome[] biomes)
         {
             this.x = x;
             this.z = z;
-            BiomeCache.this.provider.getBiomes(this.biomes, x << 4, z << 4, 16, 16, false);
+
+            for (int i = 0; i < 256; ++i)
+            {
+                this.biomes[i] = (byte)Biome.getIdForBiome(biomes[i]);
+            }
         }
 
         public Biome getBiome(int x, int z)
         {
-            return this.biomes[x & 15 | (z & 15) << 4];
+            return Biome.getBiome(this.biomes[x & 15 | (z & 15) << 4] & 255);
         }
     }
 }
@@ -0,0 +1,314 @@
+package net.minecraft.world.biome;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nullable;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.gen.layer.GenLayer;
+import net.minecraft.world.gen.layer.IntCache;
+
+/**
+ * Caches the quarter resolution output of the biome GenLayer in 16x16 cell tiles, so biome searches and chunk
+ * generation over overlapping areas only run the layer stack once. Each tile also keeps the set of biome ids it
+ * contains, which lets searches accept or skip whole tiles without looking at their cells.
+ */
+public class BiomeLayerCache
+{
+    private static final int TILE_BITS = 4;
+    private static final int TILE_SIZE = 1 << TILE_BITS;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    /** The most tiles kept before the least recently used ones are dropped, about 1 MB of biome ids. */
+    private static final int MAX_TILES = 1024;
+    private final GenLayer layer;
+    private final Long2ObjectLinkedOpenHashMap<BiomeLayerCache.Tile> tiles = new Long2ObjectLinkedOpenHashMap<BiomeLayerCache.Tile>(MAX_TILES);
+
+    public BiomeLayerCache(GenLayer layer)
+    {
+        this.layer = layer;
+    }
+
+    /**
+     * Returns the layer output for the given area, in the same layout as GenLayer.getInts. The returned array comes
+     * from the IntCache.
+     */
+    public synchronized int[] getInts(int x, int z, int width, int height)
+    {
+        int[] aint = IntCache.getIntCache(width * height);
+        int i = x >> TILE_BITS;
+        int j = z >> TILE_BITS;
+        int k = (x + width - 1 >> TILE_BITS) - i + 1;
+        BiomeLayerCache.Tile[] abiomelayercache$tile = this.getTiles(i, j, k, (z + height - 1 >> TILE_BITS) - j + 1);
+
+        for (int l = 0; l < height; ++l)
+        {
+            int i1 = z + l;
+            int j1 = x;
+
+            while (j1 < x + width)
+            {
+                int k1 = Math.min(TILE_SIZE - (j1 & TILE_MASK), x + width - j1);
+                BiomeLayerCache.Tile biomelayercache$tile = abiomelayercache$tile[(j1 >> TILE_BITS) - i + ((i1 >> TILE_BITS) - j) * k];
+                System.arraycopy(biomelayercache$tile.biomeIds, (j1 & TILE_MASK) | (i1 & TILE_MASK) << TILE_BITS, aint, j1 - x + l * width, k1);
+                j1 += k1;
+            }
+        }
+
+        return aint;
+    }
+
+    /**
+     * Checks that every cell in the given area holds one of the allowed biomes. Tiles that are already cached are
+     * checked first, so an area can be rejected without generating the rest of it.
+     */
+    public synchronized boolean areBiomesViable(int x, int z, int width, int height, List<Biome> allowed)
+    {
+        long[] along = getBiomeIdMask(allowed);
+        int i = x >> TILE_BITS;
+        int j = z >> TILE_BITS;
+        int k = (x + width - 1 >> TILE_BITS) - i + 1;
+        int l = (z + height - 1 >> TILE_BITS) - j + 1;
+        boolean flag = false;
+
+        for (int i1 = 0; i1 < l; ++i1)
+        {
+            for (int j1 = 0; j1 < k; ++j1)
+            {
+                BiomeLayerCache.Tile biomelayercache$tile = (BiomeLayerCache.Tile)this.tiles.get(ChunkPos.asLong(i + j1, j + i1));
+
+                if (biomelayercache$tile == null)
+                {
+                    flag = true;
+                }
+                else if (!biomelayercache$tile.isViable(x, z, width, height, along))
+                {
+                    return false;
+                }
+            }
+        }
+
+        if (flag)
+        {
+            for (BiomeLayerCache.Tile biomelayercache$tile1 : this.getTiles(i, j, k, l))
+            {
+                if (!biomelayercache$tile1.isViable(x, z, width, height, along))
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Picks one of the cells in the given area that holds an allowed biome. Cells are visited in the same row major
+     * order as a scan over GenLayer.getInts and the random is only called for matching cells, so the result is the
+     * same as such a scan.
+     */
+    @Nullable
+    public synchronized BlockPos findBiomePosition(int x, int z, int width, int height, List<Biome> biomes, Random random)
+    {
+        long[] along = getBiomeIdMask(biomes);
+        int i = x >> TILE_BITS;
+        int j = z >> TILE_BITS;
+        int k = (x + width - 1 >> TILE_BITS) - i + 1;
+        BiomeLayerCache.Tile[] abiomelayercache$tile = this.getTiles(i, j, k, (z + height - 1 >> TILE_BITS) - j + 1);
+        BlockPos blockpos = null;
+        int l = 0;
+
+        for (int i1 = z; i1 < z + height; ++i1)
+        {
+            int j1 = x;
+
+            while (j1 < x + width)
+            {
+                int k1 = Math.min(TILE_SIZE - (j1 & TILE_MASK), x + width - j1);
+                BiomeLayerCache.Tile biomelayercache$tile = abiomelayercache$tile[(j1 >> TILE_BITS) - i + ((i1 >> TILE_BITS) - j) * k];
+
+                if (biomelayercache$tile.containsAny(along))
+                {
+                    int l1 = (j1 & TILE_MASK) | (i1 & TILE_MASK) << TILE_BITS;
+
+                    for (int i2 = 0; i2 < k1; ++i2)
+                    {
+                        if (isBiomeIdSet(along, biomelayercache$tile.biomeIds[l1 + i2]) && (blockpos == null || random.nextInt(l + 1) == 0))
+                        {
+                            blockpos = new BlockPos(j1 + i2 << 2, 0, i1 << 2);
+                            ++l;
+                        }
+                    }
+                }
+
+                j1 += k1;
+            }
+        }
+
+        return blockpos;
+    }
+
+    /**
+     * Returns the tiles covering the given tile coordinates in row major order, generating all missing tiles with a
+     * single call to the layer over their bounding box.
+     */
+    private BiomeLayerCache.Tile[] getTiles(int tileX, int tileZ, int tilesX, int tilesZ)
+    {
+        BiomeLayerCache.Tile[] abiomelayercache$tile = new BiomeLayerCache.Tile[tilesX * tilesZ];
+        int i = Integer.MAX_VALUE;
+        int j = Integer.MAX_VALUE;
+        int k = Integer.MIN_VALUE;
+        int l = Integer.MIN_VALUE;
+
+        for (int i1 = 0; i1 < tilesZ; ++i1)
+        {
+            for (int j1 = 0; j1 < tilesX; ++j1)
+            {
+                BiomeLayerCache.Tile biomelayercache$tile = (BiomeLayerCache.Tile)this.tiles.getAndMoveToLast(ChunkPos.asLong(tileX + j1, tileZ + i1));
+
+                if (biomelayercache$tile == null)
+                {
+                    i = Math.min(i, j1);
+                    j = Math.min(j, i1);
+                    k = Math.max(k, j1);
+                    l = Math.max(l, i1);
+                }
+                else
+                {
+                    abiomelayercache$tile[j1 + i1 * tilesX] = biomelayercache$tile;
+                }
+            }
+        }
+
+        if (k >= i)
+        {
+            int k2 = k - i + 1 << TILE_BITS;
+            int[] aint = this.layer.getInts(tileX + i << TILE_BITS, tileZ + j << TILE_BITS, k2, l - j + 1 << TILE_BITS);
+
+            for (int k1 = j; k1 <= l; ++k1)
+            {
+                for (int l1 = i; l1 <= k; ++l1)
+                {
+                    if (abiomelayercache$tile[l1 + k1 * tilesX] == null)
+                    {
+                        BiomeLayerCache.Tile biomelayercache$tile1 = new BiomeLayerCache.Tile(tileX + l1, tileZ + k1, aint, (l1 - i << TILE_BITS) + (k1 - j << TILE_BITS) * k2, k2);
+                        abiomelayercache$tile[l1 + k1 * tilesX] = biomelayercache$tile1;
+
+                        if (this.tiles.size() >= MAX_TILES)
+                        {
+                            this.tiles.removeFirst();
+                        }
+
+                        this.tiles.putAndMoveToLast(ChunkPos.asLong(tileX + l1, tileZ + k1), biomelayercache$tile1);
+                    }
+                }
+            }
+        }
+
+        return abiomelayercache$tile;
+    }
+
+    /**
+     * Builds a bit set of the registry ids of the given biomes. Ids outside 0-255 can never be set, which matches
+     * Biome.getBiome returning null for them.
+     */
+    private static long[] getBiomeIdMask(List<Biome> biomes)
+    {
+        long[] along = new long[4];
+
+        for (Biome biome : biomes)
+        {
+            int i = Biome.getIdForBiome(biome);
+
+            if (i >= 0 && i < 256)
+            {
+                along[i >> 6] |= 1L << i;
+            }
+        }
+
+        return along;
+    }
+
+    private static boolean isBiomeIdSet(long[] mask, int id)
+    {
+        return id >= 0 && id < 256 && (mask[id >> 6] & 1L << id) != 0L;
+    }
+
+    static class Tile
+    {
+        private final int x;
+        private final int z;
+        private final int[] biomeIds = new int[TILE_SIZE * TILE_SIZE];
+
+        /** Bit set of the biome ids present in this tile. */
+        private final long[] presentIds = new long[4];
+
+        /** Whether this tile holds ids outside 0-255, which presentIds cannot record. */
+        private boolean hasOutOfRangeIds;
+
+        private Tile(int x, int z, int[] source, int offset, int stride)
+        {
+            this.x = x << TILE_BITS;
+            this.z = z << TILE_BITS;
+
+            for (int i = 0; i < TILE_SIZE; ++i)
+            {
+                System.arraycopy(source, offset + i * stride, this.biomeIds, i << TILE_BITS, TILE_SIZE);
+            }
+
+            for (int j : this.biomeIds)
+            {
+                if (j >= 0 && j < 256)
+                {
+                    this.presentIds[j >> 6] |= 1L << j;
+                }
+                else
+                {
+                    this.hasOutOfRangeIds = true;
+                }
+            }
+        }
+
+        private boolean containsAny(long[] mask)
+        {
+            return (this.presentIds[0] & mask[0]) != 0L || (this.presentIds[1] & mask[1]) != 0L || (this.presentIds[2] & mask[2]) != 0L || (this.presentIds[3] & mask[3]) != 0L;
+        }
+
+        private boolean containsOnly(long[] mask)
+        {
+            return !this.hasOutOfRangeIds && (this.presentIds[0] & ~mask[0]) == 0L && (this.presentIds[1] & ~mask[1]) == 0L && (this.presentIds[2] & ~mask[2]) == 0L && (this.presentIds[3] & ~mask[3]) == 0L;
+        }
+
+        /**
+         * Checks the part of the given area that falls inside this tile.
+         */
+        private boolean isViable(int x, int z, int width, int height, long[] mask)
+        {
+            if (this.containsOnly(mask))
+            {
+                return true;
+            }
+            else
+            {
+                int i = Math.max(x, this.x);
+                int j = Math.min(x + width, this.x + TILE_SIZE);
+                int k = Math.max(z, this.z);
+                int l = Math.min(z + height, this.z + TILE_SIZE);
+
+                for (int i1 = k; i1 < l; ++i1)
+                {
+                    for (int j1 = i; j1 < j; ++j1)
+                    {
+                        if (!isBiomeIdSet(mask, this.biomeIds[(j1 & TILE_MASK) | (i1 & TILE_MASK) << TILE_BITS]))
+                        {
+                            return false;
+                        }
+                    }
+                }
+
+                return true;
+            }
+        }
+    }
+}
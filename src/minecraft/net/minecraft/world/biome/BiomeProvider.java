@@ -23,6 +23,9 @@ public class BiomeProvider
     /** A GenLayer containing the indices into BiomeGenBase.biomeList[] */
     private GenLayer biomeIndexLayer;
 
+    /** Caches the output of genBiomes for biome searches and generation. */
+    private BiomeLayerCache layerCache;
+
     /** The biome list. */
     private final BiomeCache biomeCache;
     private final List<Biome> biomesToSpawnIn;
@@ -45,6 +48,7 @@ public class BiomeProvider
         GenLayer[] agenlayer = GenLayer.initializeAllBiomeGenerators(seed, worldTypeIn, this.settings);
         this.genBiomes = agenlayer[0];
         this.biomeIndexLayer = agenlayer[1];
+        this.layerCache = new BiomeLayerCache(this.genBiomes);
     }
 
     public BiomeProvider(WorldInfo info)
@@ -90,7 +94,7 @@ public class BiomeProvider
             biomes = new Biome[width * height];
         }
 
-        int[] aint = this.genBiomes.getInts(x, z, width, height);
+        int[] aint = this.layerCache.getInts(x, z, width, height);
 
         try
         {
@@ -137,8 +141,7 @@ public class BiomeProvider
 
         if (cacheFlag && width == 16 && length == 16 && (x & 15) == 0 && (z & 15) == 0)
         {
-            Biome[] abiome = this.biomeCache.getCachedBiomes(x, z);
-            System.arraycopy(abiome, 0, listToReuse, 0, width * length);
+            this.biomeCache.getCachedBiomes(x, z, listToReuse);
             return listToReuse;
         }
         else
@@ -166,21 +169,10 @@ public class BiomeProvider
         int l = z + radius >> 2;
         int i1 = k - i + 1;
         int j1 = l - j + 1;
-        int[] aint = this.genBiomes.getInts(i, j, i1, j1);
 
         try
         {
-            for (int k1 = 0; k1 < i1 * j1; ++k1)
-            {
-                Biome biome = Biome.getBiome(aint[k1]);
-
-                if (!allowed.contains(biome))
-                {
-                    return false;
-                }
-            }
-
-            return true;
+            return this.layerCache.areBiomesViable(i, j, i1, j1, allowed);
         }
         catch (Throwable throwable)
         {
@@ -205,24 +197,7 @@ public class BiomeProvider
         int l = z + range >> 2;
         int i1 = k - i + 1;
         int j1 = l - j + 1;
-        int[] aint = this.genBiomes.getInts(i, j, i1, j1);
-        BlockPos blockpos = null;
-        int k1 = 0;
-
-        for (int l1 = 0; l1 < i1 * j1; ++l1)
-        {
-            int i2 = i + l1 % i1 << 2;
-            int j2 = j + l1 / i1 << 2;
-            Biome biome = Biome.getBiome(aint[l1]);
-
-            if (biomes.contains(biome) && (blockpos == null || random.nextInt(k1 + 1) == 0))
-            {
-                blockpos = new BlockPos(i2, 0, j2);
-                ++k1;
-            }
-        }
-
-        return blockpos;
+        return this.layerCache.findBiomePosition(i, j, i1, j1, biomes, random);
     }
 
     /**
@@ -233,6 +208,11 @@ public class BiomeProvider
         this.biomeCache.cleanupCache();
     }
 
+    public BiomeCache getBiomeCache()
+    {
+        return this.biomeCache;
+    }
+
     public boolean isFixedBiome()
     {
         return this.settings != null && this.settings.fixedBiome >= 0;
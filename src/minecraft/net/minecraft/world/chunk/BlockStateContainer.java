@@ -159,4 +159,51 @@ public class BlockStateContainer implements IBlockStatePaletteResizer
     {
         return 1 + this.palette.getSerializedSize() + PacketBuffer.getVarIntSize(this.storage.size()) + this.storage.getBackingLongArray().length * 8;
     }
+
+    /**
+     * Copies the stored blocks, so they can be read from another thread while this container keeps changing.
+     */
+    public BlockStateContainer.Snapshot snapshot()
+    {
+        IBlockState[] aiblockstate = null;
+
+        if (this.palette != REGISTRY_BASED_PALETTE)
+        {
+            aiblockstate = new IBlockState[1 << this.bits];
+
+            for (int i = 0; i < aiblockstate.length; ++i)
+            {
+                aiblockstate[i] = this.palette.getBlockState(i);
+            }
+        }
+
+        BitArray bitarray = new BitArray(this.bits, 4096);
+        long[] along = this.storage.getBackingLongArray();
+        System.arraycopy(along, 0, bitarray.getBackingLongArray(), 0, along.length);
+        return new BlockStateContainer.Snapshot(bitarray, aiblockstate);
+    }
+
+    public static class Snapshot
+    {
+        private final BitArray storage;
+
+        /** The states of the copied palette by id, or null where ids are global block state ids. */
+        private final IBlockState[] palette;
+
+        private Snapshot(BitArray storage, @Nullable IBlockState[] palette)
+        {
+            this.storage = storage;
+            this.palette = palette;
+        }
+
+        /**
+         * Returns the block state at the given index, which is y << 8 | z << 4 | x.
+         */
+        public IBlockState get(int index)
+        {
+            int i = this.storage.getAt(index);
+            IBlockState iblockstate = this.palette == null ? Block.BLOCK_STATE_IDS.getByValue(i) : this.palette[i];
+            return iblockstate == null ? AIR_BLOCK_STATE : iblockstate;
+        }
+    }
 }
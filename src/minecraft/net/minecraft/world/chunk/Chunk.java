@@ -107,6 +107,9 @@ public class Chunk
      * Contains the current round-robin relight check index, and is implied as the relight check location as well.
      */
     private int queuedLightChecks;
+
+    /** How many times a block in this chunk has been changed, so light worked out off-thread can tell it is stale. */
+    private int blockChangeCount;
     private final ConcurrentLinkedQueue<BlockPos> tileEntityPosQueue;
     public boolean unloadQueued;
 
@@ -517,6 +520,34 @@ public class Chunk
         }
     }
 
+    /**
+     * Works out the height of a column again after blocks in it were set without updating light, looking down from y
+     * or the old height, whichever is higher, and updates the column's sky light to match.
+     */
+    public void relightColumn(int x, int y, int z)
+    {
+        this.relightBlock(x, y, z);
+    }
+
+    /**
+     * Gives a new section full sky light where the sky can be seen, which is the light the missing section read as.
+     */
+    private void fillSkyLightAboveHeight(ExtendedBlockStorage storage)
+    {
+        int i = storage.getYLocation();
+
+        for (int j = 0; j < 16; ++j)
+        {
+            for (int k = 0; k < 16; ++k)
+            {
+                for (int l = Math.max(this.heightMap[k << 4 | j] - i, 0); l < 16; ++l)
+                {
+                    storage.setSkyLight(j, l, k, 15);
+                }
+            }
+        }
+    }
+
     public int getBlockLightOpacity(BlockPos pos)
     {
         return this.getBlockState(pos).getLightOpacity();
@@ -584,6 +615,16 @@ public class Chunk
 
     @Nullable
     public IBlockState setBlockState(BlockPos pos, IBlockState state)
+    {
+        return this.setBlockState(pos, state, true);
+    }
+
+    /**
+     * Sets a block state. Without updateLight the height map and light are left as they are, for a bulk edit to bring
+     * up to date once all of its blocks are set.
+     */
+    @Nullable
+    public IBlockState setBlockState(BlockPos pos, IBlockState state, boolean updateLight)
     {
         int i = pos.getX() & 15;
         int j = pos.getY();
@@ -619,9 +660,15 @@ public class Chunk
                 extendedblockstorage = new ExtendedBlockStorage(j >> 4 << 4, this.world.provider.hasSkyLight());
                 this.storageArrays[j >> 4] = extendedblockstorage;
                 flag = j >= i1;
+
+                if (!updateLight && this.world.provider.hasSkyLight())
+                {
+                    this.fillSkyLightAboveHeight(extendedblockstorage);
+                }
             }
 
             extendedblockstorage.set(i, j & 15, k, state);
+            ++this.blockChangeCount;
 
             if (block1 != block)
             {
@@ -641,30 +688,33 @@ public class Chunk
             }
             else
             {
-                if (flag)
-                {
-                    this.generateSkylightMap();
-                }
-                else
+                if (updateLight)
                 {
-                    int j1 = state.getLightOpacity();
-                    int k1 = iblockstate.getLightOpacity();
-
-                    if (j1 > 0)
+                    if (flag)
                     {
-                        if (j >= i1)
-                        {
-                            this.relightBlock(i, j + 1, k);
-                        }
+                        this.generateSkylightMap();
                     }
-                    else if (j == i1 - 1)
+                    else
                     {
-                        this.relightBlock(i, j, k);
-                    }
+                        int j1 = state.getLightOpacity();
+                        int k1 = iblockstate.getLightOpacity();
 
-                    if (j1 != k1 && (j1 < k1 || this.getLightFor(EnumSkyBlock.SKY, pos) > 0 || this.getLightFor(EnumSkyBlock.BLOCK, pos) > 0))
-                    {
-                        this.propagateSkylightOcclusion(i, k);
+                        if (j1 > 0)
+                        {
+                            if (j >= i1)
+                            {
+                                this.relightBlock(i, j + 1, k);
+                            }
+                        }
+                        else if (j == i1 - 1)
+                        {
+                            this.relightBlock(i, j, k);
+                        }
+
+                        if (j1 != k1 && (j1 < k1 || this.getLightFor(EnumSkyBlock.SKY, pos) > 0 || this.getLightFor(EnumSkyBlock.BLOCK, pos) > 0))
+                        {
+                            this.propagateSkylightOcclusion(i, k);
+                        }
                     }
                 }
 
@@ -1098,7 +1148,17 @@ public class Chunk
         else
         {
             this.checkLight();
-            generator.populate(this.x, this.z);
+            this.world.beginPopulation(this);
+
+            try
+            {
+                generator.populate(this.x, this.z);
+            }
+            finally
+            {
+                this.world.endPopulation();
+            }
+
             this.markDirty();
         }
     }
@@ -1148,7 +1208,14 @@ public class Chunk
 
         if (!this.isLightPopulated && this.isTerrainPopulated)
         {
-            this.checkLight();
+            if (this.isLightingDeferred())
+            {
+                this.world.getChunkLightingWorker().submit(this);
+            }
+            else
+            {
+                this.checkLight();
+            }
         }
 
         while (!this.tileEntityPosQueue.isEmpty())
@@ -1182,6 +1249,22 @@ public class Chunk
         return new ChunkPos(this.x, this.z);
     }
 
+    /**
+     * Returns whether the section holding the given height contains any observer blocks.
+     */
+    public boolean hasObservers(int y)
+    {
+        if (y >= 0 && y < 256)
+        {
+            ExtendedBlockStorage extendedblockstorage = this.storageArrays[y >> 4];
+            return extendedblockstorage != NULL_BLOCK_STORAGE && extendedblockstorage.hasObservers();
+        }
+        else
+        {
+            return false;
+        }
+    }
+
     /**
      * Returns whether the ExtendedBlockStorages containing levels (in blocks) from arg 1 to arg 2 are fully empty
      * (true) or not (false).
@@ -1381,6 +1464,32 @@ public class Chunk
     }
 
     public void checkLight()
+    {
+        this.isTerrainPopulated = true;
+
+        if (this.isLightingDeferred())
+        {
+            this.isLightPopulated = false;
+        }
+        else
+        {
+            this.checkLightNow();
+        }
+    }
+
+    /**
+     * Whether fresh chunks are lit by the world's chunk lighting worker instead of on the calling thread. The chunk is
+     * handed to the worker on its next tick, so population does not make the blocks it was lit from stale.
+     */
+    private boolean isLightingDeferred()
+    {
+        return !this.world.isRemote && this.world.provider.hasSkyLight() && this.world.getGameRules().getBoolean("asyncChunkLighting");
+    }
+
+    /**
+     * Lights the whole chunk on the calling thread.
+     */
+    public void checkLightNow()
     {
         this.isTerrainPopulated = true;
         this.isLightPopulated = true;
@@ -1422,6 +1531,35 @@ public class Chunk
         }
     }
 
+    /**
+     * Replaces the light of a section with light worked out off-thread. An empty section is only created when its light
+     * differs from what an empty section reads as.
+     */
+    public void setSectionLight(int index, NibbleArray skyLight, NibbleArray blockLight, boolean defaultLight)
+    {
+        ExtendedBlockStorage extendedblockstorage = this.storageArrays[index];
+
+        if (extendedblockstorage == NULL_BLOCK_STORAGE)
+        {
+            if (defaultLight)
+            {
+                return;
+            }
+
+            extendedblockstorage = new ExtendedBlockStorage(index << 4, this.world.provider.hasSkyLight());
+            this.storageArrays[index] = extendedblockstorage;
+        }
+
+        extendedblockstorage.setSkyLight(skyLight);
+        extendedblockstorage.setBlockLight(blockLight);
+        this.dirty = true;
+    }
+
+    public int getBlockChangeCount()
+    {
+        return this.blockChangeCount;
+    }
+
     private void setSkylightUpdated()
     {
         for (int i = 0; i < this.updateSkylightColumns.length; ++i)
@@ -1,5 +1,6 @@
 package net.minecraft.world.chunk.storage;
 
+import java.util.Arrays;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
@@ -23,8 +24,18 @@ public class ExtendedBlockStorage
      * Chunk from random tick updates for performance reasons.
      */
     private int tickRefCount;
+
+    /**
+     * Contains the number of observer blocks in this block storage, so block changes can skip looking for observers
+     * next to them.
+     */
+    private int observerRefCount;
     private final BlockStateContainer data;
 
+    /** The raw path node types path searches worked out this tick for the blocks, 0 where not worked out yet. */
+    private byte[] pathNodeTypes;
+    private long pathNodeTypesTick;
+
     /** The NibbleArray containing a block of Block-light data. */
     private NibbleArray blockLight;
 
@@ -67,6 +78,11 @@ public class ExtendedBlockStorage
             {
                 --this.tickRefCount;
             }
+
+            if (block == Blocks.OBSERVER)
+            {
+                --this.observerRefCount;
+            }
         }
 
         if (block1 != Blocks.AIR)
@@ -77,9 +93,19 @@ public class ExtendedBlockStorage
             {
                 ++this.tickRefCount;
             }
+
+            if (block1 == Blocks.OBSERVER)
+            {
+                ++this.observerRefCount;
+            }
         }
 
         this.data.set(x, y, z, state);
+
+        if (this.pathNodeTypes != null)
+        {
+            this.pathNodeTypes[y << 8 | z << 4 | x] = 0;
+        }
     }
 
     /**
@@ -99,6 +125,34 @@ public class ExtendedBlockStorage
         return this.tickRefCount > 0;
     }
 
+    /**
+     * Returns whether this block storage holds any observer blocks.
+     */
+    public boolean hasObservers()
+    {
+        return this.observerRefCount > 0;
+    }
+
+    /**
+     * Returns the raw path node types worked out during the given tick for the blocks, by index y << 8 | z << 4 | x,
+     * with 0 for blocks not worked out yet. Setting a block forgets its type.
+     */
+    public byte[] getPathNodeTypes(long tick)
+    {
+        if (this.pathNodeTypes == null)
+        {
+            this.pathNodeTypes = new byte[4096];
+            this.pathNodeTypesTick = tick;
+        }
+        else if (this.pathNodeTypesTick != tick)
+        {
+            Arrays.fill(this.pathNodeTypes, (byte)0);
+            this.pathNodeTypesTick = tick;
+        }
+
+        return this.pathNodeTypes;
+    }
+
     /**
      * Returns the Y location of this ExtendedBlockStorage.
      */
@@ -143,6 +197,7 @@ public class ExtendedBlockStorage
     {
         this.blockRefCount = 0;
         this.tickRefCount = 0;
+        this.observerRefCount = 0;
 
         for (int i = 0; i < 16; ++i)
         {
@@ -160,6 +215,11 @@ public class ExtendedBlockStorage
                         {
                             ++this.tickRefCount;
                         }
+
+                        if (block == Blocks.OBSERVER)
+                        {
+                            ++this.observerRefCount;
+                        }
                     }
                 }
             }
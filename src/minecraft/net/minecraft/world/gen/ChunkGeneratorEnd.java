@@ -348,7 +348,7 @@ public class ChunkGeneratorEnd implements IChunkGenerator
      */
     public void populate(int x, int z)
     {
-        BlockFalling.fallInstantly = true;
+        BlockFalling.setFallInstantly(true);
         BlockPos blockpos = new BlockPos(x * 16, 0, z * 16);
 
         if (this.mapFeaturesEnabled)
@@ -417,7 +417,7 @@ public class ChunkGeneratorEnd implements IChunkGenerator
             }
         }
 
-        BlockFalling.fallInstantly = false;
+        BlockFalling.setFallInstantly(false);
     }
 
     /**
@@ -376,7 +376,7 @@ public class ChunkGeneratorHell implements IChunkGenerator
      */
     public void populate(int x, int z)
     {
-        BlockFalling.fallInstantly = true;
+        BlockFalling.setFallInstantly(true);
         int i = x * 16;
         int j = z * 16;
         BlockPos blockpos = new BlockPos(i, 0, j);
@@ -432,7 +432,7 @@ public class ChunkGeneratorHell implements IChunkGenerator
         }
 
         biome.decorate(this.world, this.rand, new BlockPos(i, 0, j));
-        BlockFalling.fallInstantly = false;
+        BlockFalling.setFallInstantly(false);
     }
 
     /**
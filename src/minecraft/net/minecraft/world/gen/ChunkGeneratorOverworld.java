@@ -367,7 +367,7 @@ public class ChunkGeneratorOverworld implements IChunkGenerator
      */
     public void populate(int x, int z)
     {
-        BlockFalling.fallInstantly = true;
+        BlockFalling.setFallInstantly(true);
         int i = x * 16;
         int j = z * 16;
         BlockPos blockpos = new BlockPos(i, 0, j);
@@ -466,7 +466,7 @@ public class ChunkGeneratorOverworld implements IChunkGenerator
             }
         }
 
-        BlockFalling.fallInstantly = false;
+        BlockFalling.setFallInstantly(false);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import java.io.IOException;
 import java.util.Collection;
@@ -17,13 +18,19 @@ import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.util.ReportedException;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.MinecraftException;
+import net.minecraft.world.PopulationWriteContext;
+import net.minecraft.world.RegionTickScheduler;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.chunk.storage.IChunkLoader;
+import net.minecraft.world.gen.feature.WorldGenerator;
+import net.minecraft.world.gen.structure.StructureComponent;
+import net.minecraft.world.gen.structure.StructureStart;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -36,6 +43,15 @@ public class ChunkProviderServer implements IChunkProvider
     private final Long2ObjectMap<Chunk> loadedChunks = new Long2ObjectOpenHashMap<Chunk>(8192);
     private final WorldServer world;
 
+    /** Chunks whose population was put off because they were loaded too deep into a population cascade. */
+    private final LongLinkedOpenHashSet deferredPopulation = new LongLinkedOpenHashSet();
+
+    /** How many chunks have been loaded or generated while another chunk was being populated. */
+    private long cascadingChunks;
+
+    /** Counts the chunks loaded and unloaded, so that others can tell when the loaded chunks have changed. */
+    private int loadedChunksModCount;
+
     public ChunkProviderServer(WorldServer worldObjIn, IChunkLoader chunkLoaderIn, IChunkGenerator chunkGeneratorIn)
     {
         this.world = worldObjIn;
@@ -79,9 +95,14 @@ public class ChunkProviderServer implements IChunkProvider
         }
     }
 
+    /**
+     * Returns the chunk if it is loaded. While a region of the world is ticking, looking up a chunk it may not reach
+     * stops what it is ticking, to be run again on the main thread.
+     */
     @Nullable
     public Chunk getLoadedChunk(int x, int z)
     {
+        RegionTickScheduler.checkChunkAccess(this.world, x, z);
         long i = ChunkPos.asLong(x, z);
         Chunk chunk = (Chunk)this.loadedChunks.get(i);
 
@@ -98,27 +119,33 @@ public class ChunkProviderServer implements IChunkProvider
     {
         Chunk chunk = this.getLoadedChunk(x, z);
 
-        if (chunk == null)
+        if (chunk == null && !RegionTickScheduler.isRegionThread())
         {
             chunk = this.loadChunkFromFile(x, z);
 
             if (chunk != null)
             {
                 this.loadedChunks.put(ChunkPos.asLong(x, z), chunk);
+                ++this.loadedChunksModCount;
                 chunk.onLoad();
-                chunk.populate(this, this.chunkGenerator);
+                this.populateLoadedChunk(chunk);
             }
         }
 
         return chunk;
     }
 
+    /**
+     * Returns the chunk, loading or generating it if needed. Chunks are never loaded from a ticking region; what it is
+     * ticking is stopped instead, to be run again on the main thread.
+     */
     public Chunk provideChunk(int x, int z)
     {
         Chunk chunk = this.loadChunk(x, z);
 
         if (chunk == null)
         {
+            RegionTickScheduler.stopIfRegionThread();
             long i = ChunkPos.asLong(x, z);
 
             try
@@ -136,13 +163,126 @@ public class ChunkProviderServer implements IChunkProvider
             }
 
             this.loadedChunks.put(i, chunk);
+            ++this.loadedChunksModCount;
             chunk.onLoad();
-            chunk.populate(this, this.chunkGenerator);
+            this.populateLoadedChunk(chunk);
         }
 
         return chunk;
     }
 
+    /**
+     * Populates a chunk that has just been loaded or generated, along with any neighbours it completes. A chunk loaded
+     * while another chunk is being populated is a cascade; once the cascade is maxPopulationCascadeDepth populations
+     * deep, the chunk is queued and populated on a later tick instead.
+     */
+    private void populateLoadedChunk(Chunk chunkIn)
+    {
+        PopulationWriteContext populationwritecontext = this.world.getPopulationContext();
+        int i = populationwritecontext.getDepth();
+
+        if (i > 0)
+        {
+            ++this.cascadingChunks;
+            GameRules gamerules = this.world.getGameRules();
+
+            if (gamerules.getBoolean("logCascadingWorldgen"))
+            {
+                Chunk chunk = populationwritecontext.getPopulatingChunk();
+                LOGGER.warn("{} loaded chunk [{}, {}] while populating chunk [{}, {}] in {} (cascade depth {})", getCascadeSource(), Integer.valueOf(chunkIn.x), Integer.valueOf(chunkIn.z), Integer.valueOf(chunk.x), Integer.valueOf(chunk.z), this.world.provider.getDimensionType().getName(), Integer.valueOf(i));
+            }
+
+            int j = gamerules.getInt("maxPopulationCascadeDepth");
+
+            if (j > 0 && i >= j)
+            {
+                this.deferredPopulation.add(ChunkPos.asLong(chunkIn.x, chunkIn.z));
+                return;
+            }
+        }
+
+        chunkIn.populate(this, this.chunkGenerator);
+    }
+
+    /**
+     * Populates queued chunks until the queue is empty or populationTickBudget milliseconds have passed, always
+     * handling at least one chunk so the queue drains. Chunks that were unloaded in the meantime are dropped, as they
+     * are populated again when next loaded.
+     */
+    private void populateDeferredChunks()
+    {
+        if (!this.deferredPopulation.isEmpty())
+        {
+            long i = System.nanoTime() + (long)this.world.getGameRules().getInt("populationTickBudget") * 1000000L;
+
+            while (true)
+            {
+                Chunk chunk = (Chunk)this.loadedChunks.get(this.deferredPopulation.removeFirstLong());
+
+                if (chunk != null)
+                {
+                    chunk.populate(this, this.chunkGenerator);
+                }
+
+                if (this.deferredPopulation.isEmpty() || System.nanoTime() >= i)
+                {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Names the world generation feature on the current call stack that caused a cascade: the innermost generator or
+     * structure piece if there is one, otherwise the first method outside of the chunk and world code.
+     */
+    private static String getCascadeSource()
+    {
+        String s = null;
+
+        for (StackTraceElement stacktraceelement : Thread.currentThread().getStackTrace())
+        {
+            Class<?> oclass;
+
+            try
+            {
+                oclass = Class.forName(stacktraceelement.getClassName(), false, ChunkProviderServer.class.getClassLoader());
+            }
+            catch (ClassNotFoundException var7)
+            {
+                continue;
+            }
+
+            if (WorldGenerator.class.isAssignableFrom(oclass) || MapGenBase.class.isAssignableFrom(oclass) || StructureComponent.class.isAssignableFrom(oclass) || StructureStart.class.isAssignableFrom(oclass))
+            {
+                return oclass.getName();
+            }
+
+            if (s == null && oclass != Thread.class && oclass != Chunk.class && !World.class.isAssignableFrom(oclass) && !IChunkProvider.class.isAssignableFrom(oclass))
+            {
+                s = oclass.getName() + "." + stacktraceelement.getMethodName();
+            }
+        }
+
+        return s == null ? "Unknown feature" : s;
+    }
+
+    /**
+     * Returns how many chunks have been loaded or generated while another chunk was being populated.
+     */
+    public long getCascadingChunkCount()
+    {
+        return this.cascadingChunks;
+    }
+
+    /**
+     * Returns how many chunks are waiting for their population to run.
+     */
+    public int getDeferredPopulationCount()
+    {
+        return this.deferredPopulation.size();
+    }
+
     @Nullable
     private Chunk loadChunkFromFile(int x, int z)
     {
@@ -181,6 +321,7 @@ public class ChunkProviderServer implements IChunkProvider
     {
         try
         {
+            this.world.getLightingEngine().processAllUpdates();
             chunkIn.setLastSaveTime(this.world.getTotalWorldTime());
             this.chunkLoader.saveChunk(this.world, chunkIn);
         }
@@ -233,10 +374,13 @@ public class ChunkProviderServer implements IChunkProvider
     }
 
     /**
-     * Unloads chunks that are marked to be unloaded. This is not guaranteed to unload every such chunk.
+     * Populates chunks whose population was deferred, then unloads chunks that are marked to be unloaded. This is not
+     * guaranteed to unload every such chunk.
      */
     public boolean tick()
     {
+        this.populateDeferredChunks();
+
         if (!this.world.disableLevelSaving)
         {
             if (!this.droppedChunks.isEmpty())
@@ -254,6 +398,7 @@ public class ChunkProviderServer implements IChunkProvider
                         this.saveChunkData(chunk);
                         this.saveChunkExtraData(chunk);
                         this.loadedChunks.remove(olong);
+                        ++this.loadedChunksModCount;
                         ++i;
                     }
                 }
@@ -278,7 +423,7 @@ public class ChunkProviderServer implements IChunkProvider
      */
     public String makeString()
     {
-        return "ServerChunkCache: " + this.loadedChunks.size() + " Drop: " + this.droppedChunks.size();
+        return "ServerChunkCache: " + this.loadedChunks.size() + " Drop: " + this.droppedChunks.size() + " Cascades: " + this.cascadingChunks + " Deferred: " + this.deferredPopulation.size();
     }
 
     public List<Biome.SpawnListEntry> getPossibleCreatures(EnumCreatureType creatureType, BlockPos pos)
@@ -302,6 +447,11 @@ public class ChunkProviderServer implements IChunkProvider
         return this.loadedChunks.size();
     }
 
+    public int getLoadedChunksModCount()
+    {
+        return this.loadedChunksModCount;
+    }
+
     /**
      * Checks to see if a chunk exists at x, z
      */
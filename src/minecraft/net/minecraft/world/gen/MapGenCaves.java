@@ -1,6 +1,8 @@
 package net.minecraft.world.gen;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import java.util.List;
 import java.util.Random;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
@@ -16,16 +18,18 @@ public class MapGenCaves extends MapGenBase
     protected static final IBlockState BLK_AIR = Blocks.AIR.getDefaultState();
     protected static final IBlockState BLK_SANDSTONE = Blocks.SANDSTONE.getDefaultState();
     protected static final IBlockState BLK_RED_SANDSTONE = Blocks.RED_SANDSTONE.getDefaultState();
+    private final TunnelCache tunnelCache = new TunnelCache();
 
-    protected void addRoom(long p_180703_1_, int p_180703_3_, int p_180703_4_, ChunkPrimer p_180703_5_, double p_180703_6_, double p_180703_8_, double p_180703_10_)
+    protected TunnelCache.Tunnel addRoom(long p_180703_1_, double p_180703_6_, double p_180703_8_, double p_180703_10_)
     {
-        this.addTunnel(p_180703_1_, p_180703_3_, p_180703_4_, p_180703_5_, p_180703_6_, p_180703_8_, p_180703_10_, 1.0F + this.rand.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
+        return this.addTunnel(p_180703_1_, p_180703_6_, p_180703_8_, p_180703_10_, 1.0F + this.rand.nextFloat() * 6.0F, 0.0F, 0.0F, -1, -1, 0.5D);
     }
 
-    protected void addTunnel(long p_180702_1_, int p_180702_3_, int p_180702_4_, ChunkPrimer p_180702_5_, double p_180702_6_, double p_180702_8_, double p_180702_10_, float p_180702_12_, float p_180702_13_, float p_180702_14_, int p_180702_15_, int p_180702_16_, double p_180702_17_)
+    /**
+     * Works out the path of a tunnel and of the tunnels it branches into, without carving anything.
+     */
+    protected TunnelCache.Tunnel addTunnel(long p_180702_1_, double p_180702_6_, double p_180702_8_, double p_180702_10_, float p_180702_12_, float p_180702_13_, float p_180702_14_, int p_180702_15_, int p_180702_16_, double p_180702_17_)
     {
-        double d0 = (double)(p_180702_3_ * 16 + 8);
-        double d1 = (double)(p_180702_4_ * 16 + 8);
         float f = 0.0F;
         float f1 = 0.0F;
         Random random = new Random(p_180702_1_);
@@ -44,6 +48,7 @@ public class MapGenCaves extends MapGenBase
             flag2 = true;
         }
 
+        TunnelCache.Tunnel tunnelcache$tunnel = new TunnelCache.Tunnel((double)(p_180702_12_ + 2.0F + 16.0F), flag2, (float[])null);
         int j = random.nextInt(p_180702_16_ / 2) + p_180702_16_ / 4;
 
         for (boolean flag = random.nextInt(6) == 0; p_180702_15_ < p_180702_16_; ++p_180702_15_)
@@ -74,148 +79,194 @@ public class MapGenCaves extends MapGenBase
 
             if (!flag2 && p_180702_15_ == j && p_180702_12_ > 1.0F && p_180702_16_ > 0)
             {
-                this.addTunnel(random.nextLong(), p_180702_3_, p_180702_4_, p_180702_5_, p_180702_6_, p_180702_8_, p_180702_10_, random.nextFloat() * 0.5F + 0.5F, p_180702_13_ - ((float)Math.PI / 2F), p_180702_14_ / 3.0F, p_180702_15_, p_180702_16_, 1.0D);
-                this.addTunnel(random.nextLong(), p_180702_3_, p_180702_4_, p_180702_5_, p_180702_6_, p_180702_8_, p_180702_10_, random.nextFloat() * 0.5F + 0.5F, p_180702_13_ + ((float)Math.PI / 2F), p_180702_14_ / 3.0F, p_180702_15_, p_180702_16_, 1.0D);
-                return;
+                TunnelCache.Tunnel tunnelcache$tunnel1 = this.addTunnel(random.nextLong(), p_180702_6_, p_180702_8_, p_180702_10_, random.nextFloat() * 0.5F + 0.5F, p_180702_13_ - ((float)Math.PI / 2F), p_180702_14_ / 3.0F, p_180702_15_, p_180702_16_, 1.0D);
+                TunnelCache.Tunnel tunnelcache$tunnel2 = this.addTunnel(random.nextLong(), p_180702_6_, p_180702_8_, p_180702_10_, random.nextFloat() * 0.5F + 0.5F, p_180702_13_ + ((float)Math.PI / 2F), p_180702_14_ / 3.0F, p_180702_15_, p_180702_16_, 1.0D);
+                tunnelcache$tunnel.setBranches(tunnelcache$tunnel1, tunnelcache$tunnel2);
+                return tunnelcache$tunnel;
             }
 
             if (flag2 || random.nextInt(4) != 0)
             {
-                double d4 = p_180702_6_ - d0;
-                double d5 = p_180702_10_ - d1;
-                double d6 = (double)(p_180702_16_ - p_180702_15_);
-                double d7 = (double)(p_180702_12_ + 2.0F + 16.0F);
+                tunnelcache$tunnel.addStep(p_180702_6_, p_180702_8_, p_180702_10_, d2, d3, (double)(p_180702_16_ - p_180702_15_));
+            }
+        }
+
+        return tunnelcache$tunnel;
+    }
+
+    /**
+     * Carves a tunnel and then its branches into the given chunk. Steps are visited in the order the tunnel was walked,
+     * so blocks are carved exactly as if the tunnel were walked again for this chunk.
+     */
+    protected void carveTunnel(TunnelCache.Tunnel tunnel, int chunkX, int chunkZ, ChunkPrimer primer)
+    {
+        double d0 = (double)(chunkX * 16 + 8);
+        double d1 = (double)(chunkZ * 16 + 8);
+
+        if (tunnel.mayCarve(d0, d1))
+        {
+            double d7 = tunnel.getReach();
+
+            for (int i = 0; i < tunnel.getStepCount(); ++i)
+            {
+                double d4 = tunnel.getX(i) - d0;
+                double d5 = tunnel.getZ(i) - d1;
+                double d6 = tunnel.getRemaining(i);
 
                 if (d4 * d4 + d5 * d5 - d6 * d6 > d7 * d7)
                 {
                     return;
                 }
 
-                if (p_180702_6_ >= d0 - 16.0D - d2 * 2.0D && p_180702_10_ >= d1 - 16.0D - d2 * 2.0D && p_180702_6_ <= d0 + 16.0D + d2 * 2.0D && p_180702_10_ <= d1 + 16.0D + d2 * 2.0D)
+                if (this.carveStep(primer, chunkX, chunkZ, tunnel.getX(i), tunnel.getY(i), tunnel.getZ(i), tunnel.getRadius(i), tunnel.getVerticalRadius(i)) && tunnel.isRoom())
                 {
-                    int k2 = MathHelper.floor(p_180702_6_ - d2) - p_180702_3_ * 16 - 1;
-                    int k = MathHelper.floor(p_180702_6_ + d2) - p_180702_3_ * 16 + 1;
-                    int l2 = MathHelper.floor(p_180702_8_ - d3) - 1;
-                    int l = MathHelper.floor(p_180702_8_ + d3) + 1;
-                    int i3 = MathHelper.floor(p_180702_10_ - d2) - p_180702_4_ * 16 - 1;
-                    int i1 = MathHelper.floor(p_180702_10_ + d2) - p_180702_4_ * 16 + 1;
-
-                    if (k2 < 0)
-                    {
-                        k2 = 0;
-                    }
+                    return;
+                }
+            }
 
-                    if (k > 16)
-                    {
-                        k = 16;
-                    }
+            TunnelCache.Tunnel[] atunnelcache$tunnel = tunnel.getBranches();
 
-                    if (l2 < 1)
-                    {
-                        l2 = 1;
-                    }
+            if (atunnelcache$tunnel != null)
+            {
+                for (TunnelCache.Tunnel tunnelcache$tunnel : atunnelcache$tunnel)
+                {
+                    this.carveTunnel(tunnelcache$tunnel, chunkX, chunkZ, primer);
+                }
+            }
+        }
+    }
 
-                    if (l > 248)
-                    {
-                        l = 248;
-                    }
+    /**
+     * Carves one step of a tunnel into the given chunk. Returns whether it carved, which it does not if the step is
+     * too far from the chunk or there is water next to it.
+     */
+    private boolean carveStep(ChunkPrimer primer, int chunkX, int chunkZ, double x, double y, double z, double radius, double verticalRadius)
+    {
+        double d0 = (double)(chunkX * 16 + 8);
+        double d1 = (double)(chunkZ * 16 + 8);
 
-                    if (i3 < 0)
-                    {
-                        i3 = 0;
-                    }
+        if (x >= d0 - 16.0D - radius * 2.0D && z >= d1 - 16.0D - radius * 2.0D && x <= d0 + 16.0D + radius * 2.0D && z <= d1 + 16.0D + radius * 2.0D)
+        {
+            int k2 = MathHelper.floor(x - radius) - chunkX * 16 - 1;
+            int k = MathHelper.floor(x + radius) - chunkX * 16 + 1;
+            int l2 = MathHelper.floor(y - verticalRadius) - 1;
+            int l = MathHelper.floor(y + verticalRadius) + 1;
+            int i3 = MathHelper.floor(z - radius) - chunkZ * 16 - 1;
+            int i1 = MathHelper.floor(z + radius) - chunkZ * 16 + 1;
+
+            if (k2 < 0)
+            {
+                k2 = 0;
+            }
 
-                    if (i1 > 16)
-                    {
-                        i1 = 16;
-                    }
+            if (k > 16)
+            {
+                k = 16;
+            }
+
+            if (l2 < 1)
+            {
+                l2 = 1;
+            }
+
+            if (l > 248)
+            {
+                l = 248;
+            }
 
-                    boolean flag3 = false;
+            if (i3 < 0)
+            {
+                i3 = 0;
+            }
 
-                    for (int j1 = k2; !flag3 && j1 < k; ++j1)
+            if (i1 > 16)
+            {
+                i1 = 16;
+            }
+
+            boolean flag3 = false;
+
+            for (int j1 = k2; !flag3 && j1 < k; ++j1)
+            {
+                for (int k1 = i3; !flag3 && k1 < i1; ++k1)
+                {
+                    for (int l1 = l + 1; !flag3 && l1 >= l2 - 1; --l1)
                     {
-                        for (int k1 = i3; !flag3 && k1 < i1; ++k1)
+                        if (l1 >= 0 && l1 < 256)
                         {
-                            for (int l1 = l + 1; !flag3 && l1 >= l2 - 1; --l1)
-                            {
-                                if (l1 >= 0 && l1 < 256)
-                                {
-                                    IBlockState iblockstate = p_180702_5_.getBlockState(j1, l1, k1);
+                            IBlockState iblockstate = primer.getBlockState(j1, l1, k1);
 
-                                    if (iblockstate.getBlock() == Blocks.FLOWING_WATER || iblockstate.getBlock() == Blocks.WATER)
-                                    {
-                                        flag3 = true;
-                                    }
+                            if (iblockstate.getBlock() == Blocks.FLOWING_WATER || iblockstate.getBlock() == Blocks.WATER)
+                            {
+                                flag3 = true;
+                            }
 
-                                    if (l1 != l2 - 1 && j1 != k2 && j1 != k - 1 && k1 != i3 && k1 != i1 - 1)
-                                    {
-                                        l1 = l2;
-                                    }
-                                }
+                            if (l1 != l2 - 1 && j1 != k2 && j1 != k - 1 && k1 != i3 && k1 != i1 - 1)
+                            {
+                                l1 = l2;
                             }
                         }
                     }
+                }
+            }
+
+            if (!flag3)
+            {
+                BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+
+                for (int j3 = k2; j3 < k; ++j3)
+                {
+                    double d10 = ((double)(j3 + chunkX * 16) + 0.5D - x) / radius;
 
-                    if (!flag3)
+                    for (int i2 = i3; i2 < i1; ++i2)
                     {
-                        BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+                        double d8 = ((double)(i2 + chunkZ * 16) + 0.5D - z) / radius;
+                        boolean flag1 = false;
 
-                        for (int j3 = k2; j3 < k; ++j3)
+                        if (d10 * d10 + d8 * d8 < 1.0D)
                         {
-                            double d10 = ((double)(j3 + p_180702_3_ * 16) + 0.5D - p_180702_6_) / d2;
-
-                            for (int i2 = i3; i2 < i1; ++i2)
+                            for (int j2 = l; j2 > l2; --j2)
                             {
-                                double d8 = ((double)(i2 + p_180702_4_ * 16) + 0.5D - p_180702_10_) / d2;
-                                boolean flag1 = false;
+                                double d9 = ((double)(j2 - 1) + 0.5D - y) / verticalRadius;
 
-                                if (d10 * d10 + d8 * d8 < 1.0D)
+                                if (d9 > -0.7D && d10 * d10 + d9 * d9 + d8 * d8 < 1.0D)
                                 {
-                                    for (int j2 = l; j2 > l2; --j2)
+                                    IBlockState iblockstate1 = primer.getBlockState(j3, j2, i2);
+                                    IBlockState iblockstate2 = (IBlockState)MoreObjects.firstNonNull(primer.getBlockState(j3, j2 + 1, i2), BLK_AIR);
+
+                                    if (iblockstate1.getBlock() == Blocks.GRASS || iblockstate1.getBlock() == Blocks.MYCELIUM)
                                     {
-                                        double d9 = ((double)(j2 - 1) + 0.5D - p_180702_8_) / d3;
+                                        flag1 = true;
+                                    }
 
-                                        if (d9 > -0.7D && d10 * d10 + d9 * d9 + d8 * d8 < 1.0D)
+                                    if (this.canReplaceBlock(iblockstate1, iblockstate2))
+                                    {
+                                        if (j2 - 1 < 10)
                                         {
-                                            IBlockState iblockstate1 = p_180702_5_.getBlockState(j3, j2, i2);
-                                            IBlockState iblockstate2 = (IBlockState)MoreObjects.firstNonNull(p_180702_5_.getBlockState(j3, j2 + 1, i2), BLK_AIR);
-
-                                            if (iblockstate1.getBlock() == Blocks.GRASS || iblockstate1.getBlock() == Blocks.MYCELIUM)
-                                            {
-                                                flag1 = true;
-                                            }
+                                            primer.setBlockState(j3, j2, i2, BLK_LAVA);
+                                        }
+                                        else
+                                        {
+                                            primer.setBlockState(j3, j2, i2, BLK_AIR);
 
-                                            if (this.canReplaceBlock(iblockstate1, iblockstate2))
+                                            if (flag1 && primer.getBlockState(j3, j2 - 1, i2).getBlock() == Blocks.DIRT)
                                             {
-                                                if (j2 - 1 < 10)
-                                                {
-                                                    p_180702_5_.setBlockState(j3, j2, i2, BLK_LAVA);
-                                                }
-                                                else
-                                                {
-                                                    p_180702_5_.setBlockState(j3, j2, i2, BLK_AIR);
-
-                                                    if (flag1 && p_180702_5_.getBlockState(j3, j2 - 1, i2).getBlock() == Blocks.DIRT)
-                                                    {
-                                                        blockpos$mutableblockpos.setPos(j3 + p_180702_3_ * 16, 0, i2 + p_180702_4_ * 16);
-                                                        p_180702_5_.setBlockState(j3, j2 - 1, i2, this.world.getBiome(blockpos$mutableblockpos).topBlock.getBlock().getDefaultState());
-                                                    }
-                                                }
+                                                blockpos$mutableblockpos.setPos(j3 + chunkX * 16, 0, i2 + chunkZ * 16);
+                                                primer.setBlockState(j3, j2 - 1, i2, this.world.getBiome(blockpos$mutableblockpos).topBlock.getBlock().getDefaultState());
                                             }
                                         }
                                     }
                                 }
                             }
                         }
-
-                        if (flag2)
-                        {
-                            break;
-                        }
                     }
                 }
+
+                return true;
             }
         }
+
+        return false;
     }
 
     protected boolean canReplaceBlock(IBlockState p_175793_1_, IBlockState p_175793_2_)
@@ -262,44 +313,70 @@ public class MapGenCaves extends MapGenBase
         }
     }
 
+
     /**
      * Recursively called by generate()
      */
     protected void recursiveGenerate(World worldIn, int chunkX, int chunkZ, int originalX, int originalZ, ChunkPrimer chunkPrimerIn)
     {
-        int i = this.rand.nextInt(this.rand.nextInt(this.rand.nextInt(15) + 1) + 1);
+        TunnelCache.Tunnel[] atunnelcache$tunnel = this.tunnelCache.getTunnels(worldIn.getSeed(), chunkX, chunkZ);
 
-        if (this.rand.nextInt(7) != 0)
+        if (atunnelcache$tunnel == null)
         {
-            i = 0;
+            atunnelcache$tunnel = this.addTunnels(chunkX, chunkZ);
+            this.tunnelCache.putTunnels(chunkX, chunkZ, atunnelcache$tunnel);
         }
 
-        for (int j = 0; j < i; ++j)
+        for (TunnelCache.Tunnel tunnelcache$tunnel : atunnelcache$tunnel)
         {
-            double d0 = (double)(chunkX * 16 + this.rand.nextInt(16));
-            double d1 = (double)this.rand.nextInt(this.rand.nextInt(120) + 8);
-            double d2 = (double)(chunkZ * 16 + this.rand.nextInt(16));
-            int k = 1;
+            this.carveTunnel(tunnelcache$tunnel, originalX, originalZ, chunkPrimerIn);
+        }
+    }
 
-            if (this.rand.nextInt(4) == 0)
-            {
-                this.addRoom(this.rand.nextLong(), originalX, originalZ, chunkPrimerIn, d0, d1, d2);
-                k += this.rand.nextInt(4);
-            }
+    /**
+     * Works out the tunnels and rooms started in the given chunk, using the random generate() seeded for it.
+     */
+    protected TunnelCache.Tunnel[] addTunnels(int chunkX, int chunkZ)
+    {
+        int i = this.rand.nextInt(this.rand.nextInt(this.rand.nextInt(15) + 1) + 1);
 
-            for (int l = 0; l < k; ++l)
+        if (this.rand.nextInt(7) != 0)
+        {
+            return TunnelCache.NO_TUNNELS;
+        }
+        else
+        {
+            List<TunnelCache.Tunnel> list = Lists.<TunnelCache.Tunnel>newArrayList();
+
+            for (int j = 0; j < i; ++j)
             {
-                float f = this.rand.nextFloat() * ((float)Math.PI * 2F);
-                float f1 = (this.rand.nextFloat() - 0.5F) * 2.0F / 8.0F;
-                float f2 = this.rand.nextFloat() * 2.0F + this.rand.nextFloat();
+                double d0 = (double)(chunkX * 16 + this.rand.nextInt(16));
+                double d1 = (double)this.rand.nextInt(this.rand.nextInt(120) + 8);
+                double d2 = (double)(chunkZ * 16 + this.rand.nextInt(16));
+                int k = 1;
 
-                if (this.rand.nextInt(10) == 0)
+                if (this.rand.nextInt(4) == 0)
                 {
-                    f2 *= this.rand.nextFloat() * this.rand.nextFloat() * 3.0F + 1.0F;
+                    list.add(this.addRoom(this.rand.nextLong(), d0, d1, d2));
+                    k += this.rand.nextInt(4);
                 }
 
-                this.addTunnel(this.rand.nextLong(), originalX, originalZ, chunkPrimerIn, d0, d1, d2, f2, f, f1, 0, 0, 1.0D);
+                for (int l = 0; l < k; ++l)
+                {
+                    float f = this.rand.nextFloat() * ((float)Math.PI * 2F);
+                    float f1 = (this.rand.nextFloat() - 0.5F) * 2.0F / 8.0F;
+                    float f2 = this.rand.nextFloat() * 2.0F + this.rand.nextFloat();
+
+                    if (this.rand.nextInt(10) == 0)
+                    {
+                        f2 *= this.rand.nextFloat() * this.rand.nextFloat() * 3.0F + 1.0F;
+                    }
+
+                    list.add(this.addTunnel(this.rand.nextLong(), d0, d1, d2, f2, f, f1, 0, 0, 1.0D));
+                }
             }
+
+            return (TunnelCache.Tunnel[])list.toArray(new TunnelCache.Tunnel[list.size()]);
         }
     }
 }
@@ -12,13 +12,14 @@ public class MapGenRavine extends MapGenBase
 {
     protected static final IBlockState FLOWING_LAVA = Blocks.FLOWING_LAVA.getDefaultState();
     protected static final IBlockState AIR = Blocks.AIR.getDefaultState();
-    private final float[] rs = new float[1024];
+    private final TunnelCache tunnelCache = new TunnelCache();
 
-    protected void addTunnel(long p_180707_1_, int p_180707_3_, int p_180707_4_, ChunkPrimer p_180707_5_, double p_180707_6_, double p_180707_8_, double p_180707_10_, float p_180707_12_, float p_180707_13_, float p_180707_14_, int p_180707_15_, int p_180707_16_, double p_180707_17_)
+    /**
+     * Works out the path of a ravine, without carving anything.
+     */
+    protected TunnelCache.Tunnel addTunnel(long p_180707_1_, double p_180707_6_, double p_180707_8_, double p_180707_10_, float p_180707_12_, float p_180707_13_, float p_180707_14_, int p_180707_15_, int p_180707_16_, double p_180707_17_)
     {
         Random random = new Random(p_180707_1_);
-        double d0 = (double)(p_180707_3_ * 16 + 8);
-        double d1 = (double)(p_180707_4_ * 16 + 8);
         float f = 0.0F;
         float f1 = 0.0F;
 
@@ -36,6 +37,7 @@ public class MapGenRavine extends MapGenBase
             flag1 = true;
         }
 
+        float[] afloat = new float[256];
         float f2 = 1.0F;
 
         for (int j = 0; j < 256; ++j)
@@ -45,9 +47,11 @@ public class MapGenRavine extends MapGenBase
                 f2 = 1.0F + random.nextFloat() * random.nextFloat();
             }
 
-            this.rs[j] = f2 * f2;
+            afloat[j] = f2 * f2;
         }
 
+        TunnelCache.Tunnel tunnelcache$tunnel = new TunnelCache.Tunnel((double)(p_180707_12_ + 2.0F + 16.0F), flag1, afloat);
+
         for (; p_180707_15_ < p_180707_16_; ++p_180707_15_)
         {
             double d9 = 1.5D + (double)(MathHelper.sin((float)p_180707_15_ * (float)Math.PI / (float)p_180707_16_) * p_180707_12_);
@@ -69,161 +73,214 @@ public class MapGenRavine extends MapGenBase
 
             if (flag1 || random.nextInt(4) != 0)
             {
-                double d3 = p_180707_6_ - d0;
-                double d4 = p_180707_10_ - d1;
-                double d5 = (double)(p_180707_16_ - p_180707_15_);
-                double d6 = (double)(p_180707_12_ + 2.0F + 16.0F);
+                tunnelcache$tunnel.addStep(p_180707_6_, p_180707_8_, p_180707_10_, d9, d2, (double)(p_180707_16_ - p_180707_15_));
+            }
+        }
+
+        return tunnelcache$tunnel;
+    }
+
+    /**
+     * Carves a ravine into the given chunk. Steps are visited in the order the ravine was walked, so blocks are carved
+     * exactly as if the ravine were walked again for this chunk.
+     */
+    protected void carveTunnel(TunnelCache.Tunnel tunnel, int chunkX, int chunkZ, ChunkPrimer primer)
+    {
+        double d0 = (double)(chunkX * 16 + 8);
+        double d1 = (double)(chunkZ * 16 + 8);
+
+        if (tunnel.mayCarve(d0, d1))
+        {
+            double d6 = tunnel.getReach();
+
+            for (int i = 0; i < tunnel.getStepCount(); ++i)
+            {
+                double d3 = tunnel.getX(i) - d0;
+                double d4 = tunnel.getZ(i) - d1;
+                double d5 = tunnel.getRemaining(i);
 
                 if (d3 * d3 + d4 * d4 - d5 * d5 > d6 * d6)
                 {
                     return;
                 }
 
-                if (p_180707_6_ >= d0 - 16.0D - d9 * 2.0D && p_180707_10_ >= d1 - 16.0D - d9 * 2.0D && p_180707_6_ <= d0 + 16.0D + d9 * 2.0D && p_180707_10_ <= d1 + 16.0D + d9 * 2.0D)
+                if (this.carveStep(primer, chunkX, chunkZ, tunnel.getX(i), tunnel.getY(i), tunnel.getZ(i), tunnel.getRadius(i), tunnel.getVerticalRadius(i), tunnel.getLayerScales()) && tunnel.isRoom())
                 {
-                    int k2 = MathHelper.floor(p_180707_6_ - d9) - p_180707_3_ * 16 - 1;
-                    int k = MathHelper.floor(p_180707_6_ + d9) - p_180707_3_ * 16 + 1;
-                    int l2 = MathHelper.floor(p_180707_8_ - d2) - 1;
-                    int l = MathHelper.floor(p_180707_8_ + d2) + 1;
-                    int i3 = MathHelper.floor(p_180707_10_ - d9) - p_180707_4_ * 16 - 1;
-                    int i1 = MathHelper.floor(p_180707_10_ + d9) - p_180707_4_ * 16 + 1;
-
-                    if (k2 < 0)
-                    {
-                        k2 = 0;
-                    }
+                    return;
+                }
+            }
+        }
+    }
 
-                    if (k > 16)
-                    {
-                        k = 16;
-                    }
+    /**
+     * Carves one step of a ravine into the given chunk. Returns whether it carved, which it does not if the step is
+     * too far from the chunk or there is water next to it.
+     */
+    private boolean carveStep(ChunkPrimer primer, int chunkX, int chunkZ, double x, double y, double z, double radius, double verticalRadius, float[] layerScales)
+    {
+        double d0 = (double)(chunkX * 16 + 8);
+        double d1 = (double)(chunkZ * 16 + 8);
 
-                    if (l2 < 1)
-                    {
-                        l2 = 1;
-                    }
+        if (x >= d0 - 16.0D - radius * 2.0D && z >= d1 - 16.0D - radius * 2.0D && x <= d0 + 16.0D + radius * 2.0D && z <= d1 + 16.0D + radius * 2.0D)
+        {
+            int k2 = MathHelper.floor(x - radius) - chunkX * 16 - 1;
+            int k = MathHelper.floor(x + radius) - chunkX * 16 + 1;
+            int l2 = MathHelper.floor(y - verticalRadius) - 1;
+            int l = MathHelper.floor(y + verticalRadius) + 1;
+            int i3 = MathHelper.floor(z - radius) - chunkZ * 16 - 1;
+            int i1 = MathHelper.floor(z + radius) - chunkZ * 16 + 1;
+
+            if (k2 < 0)
+            {
+                k2 = 0;
+            }
 
-                    if (l > 248)
-                    {
-                        l = 248;
-                    }
+            if (k > 16)
+            {
+                k = 16;
+            }
 
-                    if (i3 < 0)
-                    {
-                        i3 = 0;
-                    }
+            if (l2 < 1)
+            {
+                l2 = 1;
+            }
 
-                    if (i1 > 16)
-                    {
-                        i1 = 16;
-                    }
+            if (l > 248)
+            {
+                l = 248;
+            }
+
+            if (i3 < 0)
+            {
+                i3 = 0;
+            }
+
+            if (i1 > 16)
+            {
+                i1 = 16;
+            }
 
-                    boolean flag2 = false;
+            boolean flag2 = false;
 
-                    for (int j1 = k2; !flag2 && j1 < k; ++j1)
+            for (int j1 = k2; !flag2 && j1 < k; ++j1)
+            {
+                for (int k1 = i3; !flag2 && k1 < i1; ++k1)
+                {
+                    for (int l1 = l + 1; !flag2 && l1 >= l2 - 1; --l1)
                     {
-                        for (int k1 = i3; !flag2 && k1 < i1; ++k1)
+                        if (l1 >= 0 && l1 < 256)
                         {
-                            for (int l1 = l + 1; !flag2 && l1 >= l2 - 1; --l1)
-                            {
-                                if (l1 >= 0 && l1 < 256)
-                                {
-                                    IBlockState iblockstate = p_180707_5_.getBlockState(j1, l1, k1);
+                            IBlockState iblockstate = primer.getBlockState(j1, l1, k1);
 
-                                    if (iblockstate.getBlock() == Blocks.FLOWING_WATER || iblockstate.getBlock() == Blocks.WATER)
-                                    {
-                                        flag2 = true;
-                                    }
+                            if (iblockstate.getBlock() == Blocks.FLOWING_WATER || iblockstate.getBlock() == Blocks.WATER)
+                            {
+                                flag2 = true;
+                            }
 
-                                    if (l1 != l2 - 1 && j1 != k2 && j1 != k - 1 && k1 != i3 && k1 != i1 - 1)
-                                    {
-                                        l1 = l2;
-                                    }
-                                }
+                            if (l1 != l2 - 1 && j1 != k2 && j1 != k - 1 && k1 != i3 && k1 != i1 - 1)
+                            {
+                                l1 = l2;
                             }
                         }
                     }
+                }
+            }
+
+            if (!flag2)
+            {
+                BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+
+                for (int j3 = k2; j3 < k; ++j3)
+                {
+                    double d10 = ((double)(j3 + chunkX * 16) + 0.5D - x) / radius;
 
-                    if (!flag2)
+                    for (int i2 = i3; i2 < i1; ++i2)
                     {
-                        BlockPos.MutableBlockPos blockpos$mutableblockpos = new BlockPos.MutableBlockPos();
+                        double d7 = ((double)(i2 + chunkZ * 16) + 0.5D - z) / radius;
+                        boolean flag = false;
 
-                        for (int j3 = k2; j3 < k; ++j3)
+                        if (d10 * d10 + d7 * d7 < 1.0D)
                         {
-                            double d10 = ((double)(j3 + p_180707_3_ * 16) + 0.5D - p_180707_6_) / d9;
-
-                            for (int i2 = i3; i2 < i1; ++i2)
+                            for (int j2 = l; j2 > l2; --j2)
                             {
-                                double d7 = ((double)(i2 + p_180707_4_ * 16) + 0.5D - p_180707_10_) / d9;
-                                boolean flag = false;
+                                double d8 = ((double)(j2 - 1) + 0.5D - y) / verticalRadius;
 
-                                if (d10 * d10 + d7 * d7 < 1.0D)
+                                if ((d10 * d10 + d7 * d7) * (double)layerScales[j2 - 1] + d8 * d8 / 6.0D < 1.0D)
                                 {
-                                    for (int j2 = l; j2 > l2; --j2)
+                                    IBlockState iblockstate1 = primer.getBlockState(j3, j2, i2);
+
+                                    if (iblockstate1.getBlock() == Blocks.GRASS)
                                     {
-                                        double d8 = ((double)(j2 - 1) + 0.5D - p_180707_8_) / d2;
+                                        flag = true;
+                                    }
 
-                                        if ((d10 * d10 + d7 * d7) * (double)this.rs[j2 - 1] + d8 * d8 / 6.0D < 1.0D)
+                                    if (iblockstate1.getBlock() == Blocks.STONE || iblockstate1.getBlock() == Blocks.DIRT || iblockstate1.getBlock() == Blocks.GRASS)
+                                    {
+                                        if (j2 - 1 < 10)
                                         {
-                                            IBlockState iblockstate1 = p_180707_5_.getBlockState(j3, j2, i2);
-
-                                            if (iblockstate1.getBlock() == Blocks.GRASS)
-                                            {
-                                                flag = true;
-                                            }
+                                            primer.setBlockState(j3, j2, i2, FLOWING_LAVA);
+                                        }
+                                        else
+                                        {
+                                            primer.setBlockState(j3, j2, i2, AIR);
 
-                                            if (iblockstate1.getBlock() == Blocks.STONE || iblockstate1.getBlock() == Blocks.DIRT || iblockstate1.getBlock() == Blocks.GRASS)
+                                            if (flag && primer.getBlockState(j3, j2 - 1, i2).getBlock() == Blocks.DIRT)
                                             {
-                                                if (j2 - 1 < 10)
-                                                {
-                                                    p_180707_5_.setBlockState(j3, j2, i2, FLOWING_LAVA);
-                                                }
-                                                else
-                                                {
-                                                    p_180707_5_.setBlockState(j3, j2, i2, AIR);
-
-                                                    if (flag && p_180707_5_.getBlockState(j3, j2 - 1, i2).getBlock() == Blocks.DIRT)
-                                                    {
-                                                        blockpos$mutableblockpos.setPos(j3 + p_180707_3_ * 16, 0, i2 + p_180707_4_ * 16);
-                                                        p_180707_5_.setBlockState(j3, j2 - 1, i2, this.world.getBiome(blockpos$mutableblockpos).topBlock);
-                                                    }
-                                                }
+                                                blockpos$mutableblockpos.setPos(j3 + chunkX * 16, 0, i2 + chunkZ * 16);
+                                                primer.setBlockState(j3, j2 - 1, i2, this.world.getBiome(blockpos$mutableblockpos).topBlock);
                                             }
                                         }
                                     }
                                 }
                             }
                         }
-
-                        if (flag1)
-                        {
-                            break;
-                        }
                     }
                 }
+
+                return true;
             }
         }
+
+        return false;
     }
 
     /**
      * Recursively called by generate()
      */
     protected void recursiveGenerate(World worldIn, int chunkX, int chunkZ, int originalX, int originalZ, ChunkPrimer chunkPrimerIn)
+    {
+        TunnelCache.Tunnel[] atunnelcache$tunnel = this.tunnelCache.getTunnels(worldIn.getSeed(), chunkX, chunkZ);
+
+        if (atunnelcache$tunnel == null)
+        {
+            atunnelcache$tunnel = this.addTunnels(chunkX, chunkZ);
+            this.tunnelCache.putTunnels(chunkX, chunkZ, atunnelcache$tunnel);
+        }
+
+        for (TunnelCache.Tunnel tunnelcache$tunnel : atunnelcache$tunnel)
+        {
+            this.carveTunnel(tunnelcache$tunnel, originalX, originalZ, chunkPrimerIn);
+        }
+    }
+
+    /**
+     * Works out the ravine started in the given chunk, if any, using the random generate() seeded for it.
+     */
+    protected TunnelCache.Tunnel[] addTunnels(int chunkX, int chunkZ)
     {
         if (this.rand.nextInt(50) == 0)
         {
             double d0 = (double)(chunkX * 16 + this.rand.nextInt(16));
             double d1 = (double)(this.rand.nextInt(this.rand.nextInt(40) + 8) + 20);
             double d2 = (double)(chunkZ * 16 + this.rand.nextInt(16));
-            int i = 1;
-
-            for (int j = 0; j < 1; ++j)
-            {
-                float f = this.rand.nextFloat() * ((float)Math.PI * 2F);
-                float f1 = (this.rand.nextFloat() - 0.5F) * 2.0F / 8.0F;
-                float f2 = (this.rand.nextFloat() * 2.0F + this.rand.nextFloat()) * 2.0F;
-                this.addTunnel(this.rand.nextLong(), originalX, originalZ, chunkPrimerIn, d0, d1, d2, f2, f, f1, 0, 0, 3.0D);
-            }
+            float f = this.rand.nextFloat() * ((float)Math.PI * 2F);
+            float f1 = (this.rand.nextFloat() - 0.5F) * 2.0F / 8.0F;
+            float f2 = (this.rand.nextFloat() * 2.0F + this.rand.nextFloat()) * 2.0F;
+            return new TunnelCache.Tunnel[] {this.addTunnel(this.rand.nextLong(), d0, d1, d2, f2, f, f1, 0, 0, 3.0D)};
+        }
+        else
+        {
+            return TunnelCache.NO_TUNNELS;
         }
     }
 }
@@ -0,0 +1,187 @@
+package net.minecraft.world.gen;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Keeps the tunnels a carver starts in each chunk, in least recently used order. A tunnel's path only depends on the
+ * world seed and the chunk it starts in, so it is worked out once and carved into every chunk it passes through,
+ * instead of being walked again for each of the 289 chunks in range of its start.
+ */
+public class TunnelCache
+{
+    /** The most origin chunks kept before the least recently used ones are dropped, a 32x32 chunk area. */
+    private static final int MAX_ORIGINS = 1024;
+    public static final TunnelCache.Tunnel[] NO_TUNNELS = new TunnelCache.Tunnel[0];
+    private final Long2ObjectLinkedOpenHashMap<TunnelCache.Tunnel[]> origins = new Long2ObjectLinkedOpenHashMap<TunnelCache.Tunnel[]>(MAX_ORIGINS);
+
+    /** The world seed the cached tunnels were worked out for. */
+    private long seed;
+
+    /**
+     * Returns the tunnels started in the given chunk, or null if they are not cached for the given seed.
+     */
+    @Nullable
+    public TunnelCache.Tunnel[] getTunnels(long seed, int chunkX, int chunkZ)
+    {
+        if (seed != this.seed)
+        {
+            this.origins.clear();
+            this.seed = seed;
+            return null;
+        }
+        else
+        {
+            return (TunnelCache.Tunnel[])this.origins.getAndMoveToLast(ChunkPos.asLong(chunkX, chunkZ));
+        }
+    }
+
+    public void putTunnels(int chunkX, int chunkZ, TunnelCache.Tunnel[] tunnels)
+    {
+        if (this.origins.size() >= MAX_ORIGINS)
+        {
+            this.origins.removeFirst();
+        }
+
+        this.origins.putAndMoveToLast(ChunkPos.asLong(chunkX, chunkZ), tunnels);
+    }
+
+    /**
+     * The steps of one tunnel that may carve, with the values the carver tests against each chunk it carves into.
+     * Steps the carver skips at random are left out.
+     */
+    public static class Tunnel
+    {
+        private static final int STEP_SIZE = 6;
+        private double[] steps = new double[STEP_SIZE * 32];
+        private int stepCount;
+
+        /** How far outside of the remaining steps the tunnel can still reach a chunk's centre. */
+        private final double reach;
+
+        /** Whether this is a cave room, which only carves at its first step that does. */
+        private final boolean room;
+
+        /** Per layer radius scales of a ravine, or null. */
+        private final float[] layerScales;
+
+        /** The two tunnels this one splits into after its last step, or null. */
+        private TunnelCache.Tunnel[] branches;
+        private double minX = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+        private double minZ = Double.POSITIVE_INFINITY;
+        private double maxZ = Double.NEGATIVE_INFINITY;
+
+        public Tunnel(double reach, boolean room, @Nullable float[] layerScales)
+        {
+            this.reach = reach;
+            this.room = room;
+            this.layerScales = layerScales;
+        }
+
+        /**
+         * Adds a step. Remaining is the number of steps left in the tunnel, as used for its distance check.
+         */
+        public void addStep(double x, double y, double z, double radius, double verticalRadius, double remaining)
+        {
+            int i = this.stepCount * STEP_SIZE;
+
+            if (i == this.steps.length)
+            {
+                this.steps = Arrays.copyOf(this.steps, i * 2);
+            }
+
+            this.steps[i] = x;
+            this.steps[i + 1] = y;
+            this.steps[i + 2] = z;
+            this.steps[i + 3] = radius;
+            this.steps[i + 4] = verticalRadius;
+            this.steps[i + 5] = remaining;
+            ++this.stepCount;
+            this.includeBounds(x - 16.0D - radius * 2.0D, x + 16.0D + radius * 2.0D, z - 16.0D - radius * 2.0D, z + 16.0D + radius * 2.0D);
+        }
+
+        public void setBranches(TunnelCache.Tunnel first, TunnelCache.Tunnel second)
+        {
+            this.branches = new TunnelCache.Tunnel[] {first, second};
+            this.includeBounds(first.minX, first.maxX, first.minZ, first.maxZ);
+            this.includeBounds(second.minX, second.maxX, second.minZ, second.maxZ);
+        }
+
+        private void includeBounds(double minX, double maxX, double minZ, double maxZ)
+        {
+            this.minX = Math.min(this.minX, minX);
+            this.maxX = Math.max(this.maxX, maxX);
+            this.minZ = Math.min(this.minZ, minZ);
+            this.maxZ = Math.max(this.maxZ, maxZ);
+        }
+
+        /**
+         * Whether any step of this tunnel or its branches can carve into the chunk with the given centre. A block of
+         * slack covers rounding in the carver's own bounds check.
+         */
+        public boolean mayCarve(double centerX, double centerZ)
+        {
+            return centerX >= this.minX - 1.0D && centerX <= this.maxX + 1.0D && centerZ >= this.minZ - 1.0D && centerZ <= this.maxZ + 1.0D;
+        }
+
+        public int getStepCount()
+        {
+            return this.stepCount;
+        }
+
+        public double getX(int step)
+        {
+            return this.steps[step * STEP_SIZE];
+        }
+
+        public double getY(int step)
+        {
+            return this.steps[step * STEP_SIZE + 1];
+        }
+
+        public double getZ(int step)
+        {
+            return this.steps[step * STEP_SIZE + 2];
+        }
+
+        public double getRadius(int step)
+        {
+            return this.steps[step * STEP_SIZE + 3];
+        }
+
+        public double getVerticalRadius(int step)
+        {
+            return this.steps[step * STEP_SIZE + 4];
+        }
+
+        public double getRemaining(int step)
+        {
+            return this.steps[step * STEP_SIZE + 5];
+        }
+
+        public double getReach()
+        {
+            return this.reach;
+        }
+
+        public boolean isRoom()
+        {
+            return this.room;
+        }
+
+        @Nullable
+        public float[] getLayerScales()
+        {
+            return this.layerScales;
+        }
+
+        @Nullable
+        public TunnelCache.Tunnel[] getBranches()
+        {
+            return this.branches;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import net.minecraft.util.datafix.IDataWalker;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.BulkEditSession;
 import net.minecraft.world.World;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
 
@@ -250,6 +251,7 @@ public class Template
         {
             Block block = placementIn.getReplacedBlock();
             StructureBoundingBox structureboundingbox = placementIn.getBoundingBox();
+            BulkEditSession bulkeditsession = worldIn.beginBulkEdit();
 
             for (Template.BlockInfo template$blockinfo : this.blocks)
             {
@@ -276,11 +278,11 @@ public class Template
                                     ((IInventory)tileentity).clear();
                                 }
 
-                                worldIn.setBlockState(blockpos, Blocks.BARRIER.getDefaultState(), 4);
+                                bulkeditsession.setBlockState(blockpos, Blocks.BARRIER.getDefaultState(), 4);
                             }
                         }
 
-                        if (worldIn.setBlockState(blockpos, iblockstate1, flags) && template$blockinfo1.tileentityData != null)
+                        if (bulkeditsession.setBlockState(blockpos, iblockstate1, flags) && template$blockinfo1.tileentityData != null)
                         {
                             TileEntity tileentity2 = worldIn.getTileEntity(blockpos);
 
@@ -298,6 +300,8 @@ public class Template
                 }
             }
 
+            bulkeditsession.finish();
+
             for (Template.BlockInfo template$blockinfo2 : this.blocks)
             {
                 if (block == null || block != template$blockinfo2.blockState.getBlock())
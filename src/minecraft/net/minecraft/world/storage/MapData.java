@@ -103,7 +103,7 @@ public class MapData extends WorldSavedData
         }
     }
 
-    public NBTTagCompound writeToNBT(NBTTagCompound compound)
+    public synchronized NBTTagCompound writeToNBT(NBTTagCompound compound)
     {
         compound.setByte("dimension", this.dimension);
         compound.setInteger("xCenter", this.xCenter);
@@ -120,7 +120,7 @@ public class MapData extends WorldSavedData
     /**
      * Adds the player passed to the list of visible players and checks to see which players are visible
      */
-    public void updateVisiblePlayers(EntityPlayer player, ItemStack mapStack)
+    public synchronized void updateVisiblePlayers(EntityPlayer player, ItemStack mapStack)
     {
         if (!this.playersHashMap.containsKey(player))
         {
@@ -277,13 +277,13 @@ public class MapData extends WorldSavedData
     }
 
     @Nullable
-    public Packet<?> getMapPacket(ItemStack mapStack, World worldIn, EntityPlayer player)
+    public synchronized Packet<?> getMapPacket(ItemStack mapStack, World worldIn, EntityPlayer player)
     {
         MapData.MapInfo mapdata$mapinfo = this.playersHashMap.get(player);
         return mapdata$mapinfo == null ? null : mapdata$mapinfo.getPacket(mapStack);
     }
 
-    public void updateMapData(int x, int y)
+    public synchronized void updateMapData(int x, int y)
     {
         super.markDirty();
 
@@ -293,7 +293,7 @@ public class MapData extends WorldSavedData
         }
     }
 
-    public MapData.MapInfo getMapInfo(EntityPlayer player)
+    public synchronized MapData.MapInfo getMapInfo(EntityPlayer player)
     {
         MapData.MapInfo mapdata$mapinfo = this.playersHashMap.get(player);
 
@@ -34,7 +34,7 @@ public class MapStorage
      * Loads an existing MapDataBase corresponding to the given id from disk, instantiating the given Class, or returns
      * null if none such file exists.
      */
-    public WorldSavedData getOrLoadData(Class <? extends WorldSavedData > clazz, String dataIdentifier)
+    public synchronized WorldSavedData getOrLoadData(Class <? extends WorldSavedData > clazz, String dataIdentifier)
     {
         WorldSavedData worldsaveddata = this.loadedDataMap.get(dataIdentifier);
 
@@ -86,7 +86,7 @@ public class MapStorage
     /**
      * Assigns the given String id to the given MapDataBase, removing any existing ones of the same id.
      */
-    public void setData(String dataIdentifier, WorldSavedData data)
+    public synchronized void setData(String dataIdentifier, WorldSavedData data)
     {
         if (this.loadedDataMap.containsKey(dataIdentifier))
         {
@@ -100,7 +100,7 @@ public class MapStorage
     /**
      * Saves all dirty loaded MapDataBases to disk.
      */
-    public void saveAllData()
+    public synchronized void saveAllData()
     {
         for (int i = 0; i < this.loadedDataList.size(); ++i)
         {
@@ -185,7 +185,7 @@ public class MapStorage
     /**
      * Returns an unique new data id for the given prefix and saves the idCounts map to the 'idcounts' file.
      */
-    public int getUniqueDataId(String key)
+    public synchronized int getUniqueDataId(String key)
     {
         Short oshort = this.idCounts.get(key);
 